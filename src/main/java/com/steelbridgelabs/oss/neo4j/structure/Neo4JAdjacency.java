@@ -0,0 +1,267 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Edges adjacent to a {@link Neo4JVertex} in a single direction, grouped by edge label. Edges in a group are stored in a
+ * small open addressing table (no entry objects per edge), groups are allocated the first time a label is used.
+ *
+ * @author Rogelio J. Baucells
+ */
+final class Neo4JAdjacency {
+
+    private static final Object REMOVED = new Object();
+    private static final Group[] EMPTY = new Group[0];
+
+    private static final class Group {
+
+        private final String label;
+
+        private Object[] table = null;
+        private int size = 0;
+        private int occupied = 0;
+        private int identityHashed = 0;
+        private boolean loaded = false;
+
+        private Group(String label) {
+            this.label = label;
+        }
+
+        private static int index(Object edge, int mask) {
+            // spread hash code bits
+            int hash = edge.hashCode();
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+
+        private int find(Object edge) {
+            // check table
+            if (table != null) {
+                // table mask
+                int mask = table.length - 1;
+                // probe table until we find a free slot
+                for (int index = index(edge, mask); table[index] != null; index = (index + 1) & mask) {
+                    // check edge
+                    if (table[index] != REMOVED && table[index].equals(edge))
+                        return index;
+                }
+            }
+            return -1;
+        }
+
+        private void rehash(int capacity) {
+            // current table
+            Object[] current = table;
+            // allocate table
+            table = new Object[capacity];
+            // table mask
+            int mask = capacity - 1;
+            // copy edges
+            if (current != null) {
+                for (Object edge : current) {
+                    // check slot is in use
+                    if (edge != null && edge != REMOVED) {
+                        // find free slot
+                        int index = index(edge, mask);
+                        while (table[index] != null)
+                            index = (index + 1) & mask;
+                        // store edge
+                        table[index] = edge;
+                    }
+                }
+            }
+            // removed slots are gone
+            occupied = size;
+        }
+
+        private boolean add(Neo4JEdge edge) {
+            // check edge is already in group
+            if (find(edge) >= 0)
+                return false;
+            // allocate table or grow it (keep load factor under 75%)
+            if (table == null)
+                rehash(4);
+            else if ((occupied + 1) * 4 > table.length * 3)
+                rehash(size * 2 >= table.length ? table.length * 2 : table.length);
+            // table mask
+            int mask = table.length - 1;
+            // find first slot not in use
+            int index = index(edge, mask);
+            while (table[index] != null && table[index] != REMOVED)
+                index = (index + 1) & mask;
+            // check slot was never used
+            if (table[index] == null)
+                occupied++;
+            // store edge
+            table[index] = edge;
+            size++;
+            // edges hashed by identity cannot be found using their identifiers hash code
+            if (edge.isIdentityHashed())
+                identityHashed++;
+            return true;
+        }
+
+        private boolean remove(Neo4JEdge edge) {
+            // find edge
+            int index = find(edge);
+            if (index >= 0) {
+                // mark slot as removed (keeps probe sequences intact)
+                table[index] = REMOVED;
+                size--;
+                // update counter
+                if (edge.isIdentityHashed())
+                    identityHashed--;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean contains(Object id) {
+            // check group has edges
+            if (size == 0)
+                return false;
+            // table mask
+            int mask = table.length - 1;
+            // probe table using identifier hash code (same hash code as edges with provider generated identifiers)
+            for (int index = index(id, mask); table[index] != null; index = (index + 1) & mask) {
+                // check edge identifier
+                if (table[index] != REMOVED && id.equals(((Neo4JEdge)table[index]).id()))
+                    return true;
+            }
+            // check edges hashed by identity (database generated identifiers)
+            if (identityHashed > 0) {
+                for (Object item : table) {
+                    // check edge identifier
+                    if (item instanceof Neo4JEdge && id.equals(((Neo4JEdge)item).id()))
+                        return true;
+                }
+            }
+            return false;
+        }
+
+        private Stream<Neo4JEdge> stream() {
+            // check group has edges
+            if (size == 0)
+                return Stream.empty();
+            // edges in table
+            return Arrays.stream(table).filter(item -> item instanceof Neo4JEdge).map(item -> (Neo4JEdge)item);
+        }
+    }
+
+    private Group[] groups = EMPTY;
+
+    private Group group(String label, boolean create) {
+        // find group (vertices have a small number of edge labels)
+        for (Group group : groups) {
+            if (group.label.equals(label))
+                return group;
+        }
+        // check we need to create group
+        if (create) {
+            // create group
+            Group group = new Group(label);
+            // append group
+            groups = Arrays.copyOf(groups, groups.length + 1);
+            groups[groups.length - 1] = group;
+            // return group
+            return group;
+        }
+        return null;
+    }
+
+    boolean add(Neo4JEdge edge) {
+        Objects.requireNonNull(edge, "edge cannot be null");
+        // add edge to label group
+        return group(edge.label(), true).add(edge);
+    }
+
+    boolean remove(Neo4JEdge edge) {
+        Objects.requireNonNull(edge, "edge cannot be null");
+        // label group
+        Group group = group(edge.label(), false);
+        // remove edge from group
+        return group != null && group.remove(edge);
+    }
+
+    int size() {
+        // sum group sizes
+        return Arrays.stream(groups).mapToInt(group -> group.size).sum();
+    }
+
+    Stream<Neo4JEdge> stream() {
+        // all edges
+        return Arrays.stream(groups).flatMap(Group::stream);
+    }
+
+    Stream<Neo4JEdge> stream(Set<String> labels) {
+        Objects.requireNonNull(labels, "labels cannot be null");
+        // check labels
+        if (labels.isEmpty())
+            return stream();
+        // edges in label groups (no need to filter all edges)
+        return labels.stream().map(label -> group(label, false)).filter(Objects::nonNull).flatMap(Group::stream);
+    }
+
+    boolean contains(Set<String> labels, Object id) {
+        Objects.requireNonNull(labels, "labels cannot be null");
+        Objects.requireNonNull(id, "id cannot be null");
+        // check label groups (called once per database record, avoid allocations)
+        for (Group group : groups) {
+            // check edge is in group
+            if ((labels.isEmpty() || labels.contains(group.label)) && group.contains(id))
+                return true;
+        }
+        return false;
+    }
+
+    boolean isEmpty(Set<String> labels) {
+        Objects.requireNonNull(labels, "labels cannot be null");
+        // check label groups
+        for (Group group : groups) {
+            // check group has edges
+            if ((labels.isEmpty() || labels.contains(group.label)) && group.size > 0)
+                return false;
+        }
+        return true;
+    }
+
+    boolean isLoaded(String label) {
+        Objects.requireNonNull(label, "label cannot be null");
+        // label group
+        Group group = group(label, false);
+        // check all edges with label are in memory
+        return group != null && group.loaded;
+    }
+
+    boolean isLoaded(Set<String> labels) {
+        Objects.requireNonNull(labels, "labels cannot be null");
+        // check all edges with labels are in memory
+        return labels.stream().allMatch(this::isLoaded);
+    }
+
+    void loaded(Set<String> labels) {
+        Objects.requireNonNull(labels, "labels cannot be null");
+        // mark label groups as loaded
+        labels.forEach(label -> group(label, true).loaded = true);
+    }
+}
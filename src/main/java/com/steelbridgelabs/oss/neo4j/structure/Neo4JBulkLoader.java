@@ -0,0 +1,398 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import com.steelbridgelabs.oss.neo4j.structure.summary.ResultSummaryLogger;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.summary.ResultSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Writes vertices and edges straight to the database using batched Cypher statements, committing the database
+ * transaction every time a given number of elements has been written. Elements are not tracked by the
+ * {@link Neo4JGraph} session (there are no {@link Vertex} or {@link Edge} instances in memory), edges reference
+ * their adjacent vertices by label and identifier. Identifiers must be generated by the {@link Neo4JElementIdProvider}
+ * instances configured in the graph (database generated identifiers are not supported). Edges are not created when
+ * their adjacent vertices cannot be matched, these edges are reported by {@link #getUnmatchedEdgeCount()}.
+ *
+ * @author Rogelio J. Baucells
+ */
+public class Neo4JBulkLoader implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(Neo4JBulkLoader.class);
+
+    private final Session session;
+    private final Neo4JReadPartition partition;
+    private final Set<String> additionalLabels;
+    private final Neo4JElementIdProvider<?> vertexIdProvider;
+    private final Neo4JElementIdProvider<?> edgeIdProvider;
+    private final int batchSize;
+    private final int commitSize;
+    private final Map<String, List<Map<String, Object>>> vertexBatches = new LinkedHashMap<>();
+    private final Map<String, List<Map<String, Object>>> edgeBatches = new LinkedHashMap<>();
+    private final Map<String, String> vertexStatements = new HashMap<>();
+    private final Map<List<String>, String> edgeStatements = new HashMap<>();
+    private final long startTime;
+
+    private Transaction transaction;
+    private long vertexCount = 0;
+    private long edgeCount = 0;
+    private long unmatchedEdgeCount = 0;
+    private long commitCount = 0;
+    private long pendingCount = 0;
+
+    Neo4JBulkLoader(Neo4JGraph graph, Session session, int batchSize, int commitSize) {
+        Objects.requireNonNull(graph, "graph cannot be null");
+        Objects.requireNonNull(session, "session cannot be null");
+        // validate arguments
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("batchSize must be greater than zero");
+        if (commitSize < batchSize)
+            throw new IllegalArgumentException("commitSize cannot be less than batchSize");
+        // id providers
+        Neo4JElementIdProvider<?> vertexIdProvider = graph.getVertexIdProvider();
+        Neo4JElementIdProvider<?> edgeIdProvider = graph.getEdgeIdProvider();
+        // identifiers generated by the database cannot be returned to the caller (vertices could not be referenced by edges)
+        if (vertexIdProvider.fieldName() == null || edgeIdProvider.fieldName() == null)
+            throw new IllegalArgumentException("Bulk loader does not support identifiers generated by the database, graph id providers must generate identifiers");
+        // store fields
+        this.session = session;
+        this.partition = graph.getPartition();
+        this.additionalLabels = graph.vertexLabels();
+        this.vertexIdProvider = vertexIdProvider;
+        this.edgeIdProvider = edgeIdProvider;
+        this.batchSize = batchSize;
+        this.commitSize = commitSize;
+        // loader start time
+        this.startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Adds a vertex to the database, example:
+     * <p>
+     * loader.addVertex(T.label, "Person", "name", "John")
+     * </p>
+     *
+     * @param keyValues The vertex label and property key/value pairs.
+     * @return The vertex identifier.
+     */
+    public Object addVertex(Object... keyValues) {
+        Objects.requireNonNull(keyValues, "keyValues cannot be null");
+        // verify parameters are key/value pairs
+        ElementHelper.legalPropertyKeyValueArray(keyValues);
+        // id cannot be present
+        if (ElementHelper.getIdValue(keyValues).isPresent())
+            throw Vertex.Exceptions.userSuppliedIdsNotSupported();
+        // statement (cached by vertex label)
+        String statement = vertexStatements.computeIfAbsent(ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL), this::vertexStatement);
+        // generate id
+        Object id = vertexIdProvider.generate();
+        // vertex properties
+        Map<String, Object> properties = properties(keyValues, vertexIdProvider, id);
+        // add vertex to batch
+        List<Map<String, Object>> batch = vertexBatches.computeIfAbsent(statement, key -> new ArrayList<>(batchSize));
+        batch.add(properties);
+        // update counters
+        vertexCount++;
+        pendingCount++;
+        // check we need to write batch
+        if (batch.size() >= batchSize)
+            write(statement, vertexBatches.remove(statement));
+        // check we need to commit
+        commitIfNeeded();
+        // return id
+        return id;
+    }
+
+    /**
+     * Adds an edge between two vertices in the database, vertices are matched by label and identifier, example:
+     * <p>
+     * loader.addEdge("knows", "Person", 1L, "Person", 2L, "since", 2010)
+     * </p>
+     *
+     * @param label     The edge label.
+     * @param outLabel  The label of the out vertex, <code>null</code> to match the vertex by identifier only.
+     * @param outId     The identifier of the out vertex.
+     * @param inLabel   The label of the in vertex, <code>null</code> to match the vertex by identifier only.
+     * @param inId      The identifier of the in vertex.
+     * @param keyValues The edge property key/value pairs.
+     * @return The edge identifier, the edge is not created if adjacent vertices cannot be matched once the edge batch is written.
+     */
+    public Object addEdge(String label, String outLabel, Object outId, String inLabel, Object inId, Object... keyValues) {
+        Objects.requireNonNull(label, "label cannot be null");
+        Objects.requireNonNull(outId, "outId cannot be null");
+        Objects.requireNonNull(inId, "inId cannot be null");
+        Objects.requireNonNull(keyValues, "keyValues cannot be null");
+        // validate label
+        ElementHelper.validateLabel(label);
+        // verify parameters are key/value pairs
+        ElementHelper.legalPropertyKeyValueArray(keyValues);
+        // id cannot be present
+        if (ElementHelper.getIdValue(keyValues).isPresent())
+            throw Edge.Exceptions.userSuppliedIdsNotSupported();
+        // generate id
+        Object id = edgeIdProvider.generate();
+        // row parameters
+        Map<String, Object> row = new HashMap<>();
+        row.put("oid", vertexIdProvider.processIdentifier(outId));
+        row.put("iid", vertexIdProvider.processIdentifier(inId));
+        row.put("ep", properties(keyValues, edgeIdProvider, id));
+        // statement (cached by edge label and adjacent vertex labels)
+        String statement = edgeStatements.computeIfAbsent(Arrays.asList(label, outLabel, inLabel), key -> "UNWIND $batch AS row " + matchStatement("o", outLabel, "row.oid") + " " + matchStatement("i", inLabel, "row.iid") + " CREATE (o)-[r:`" + escape(label) + "`]->(i) SET r = row.ep");
+        // add edge to batch
+        List<Map<String, Object>> batch = edgeBatches.computeIfAbsent(statement, key -> new ArrayList<>(batchSize));
+        batch.add(row);
+        // update counter (edge counters are updated once the batch is written)
+        pendingCount++;
+        // check we need to write batch
+        if (batch.size() >= batchSize) {
+            // adjacent vertices could be waiting in a batch
+            writeVertices();
+            // write edges
+            writeEdges(statement, edgeBatches.remove(statement));
+        }
+        // check we need to commit
+        commitIfNeeded();
+        // return id
+        return id;
+    }
+
+    /**
+     * Writes all pending elements to the database and commits the current transaction.
+     */
+    public void commit() {
+        // write pending elements (vertices first, edges could reference them)
+        writeVertices();
+        writeEdges();
+        // check we have an open transaction
+        if (transaction != null) {
+            // commit transaction
+            transaction.commit();
+            // close transaction
+            transaction.close();
+            // remove instance
+            transaction = null;
+            // update counter
+            commitCount++;
+            // log information
+            if (logger.isDebugEnabled())
+                logger.debug("Bulk loader committed {} vertices and {} edges, {} elements/second", vertexCount, edgeCount, getThroughput());
+        }
+        // reset counter
+        pendingCount = 0;
+    }
+
+    /**
+     * Gets the number of vertices added to the loader.
+     *
+     * @return The number of vertices.
+     */
+    public long getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Gets the number of edges created in the database (edges waiting in a batch are not included).
+     *
+     * @return The number of edges.
+     */
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Gets the number of edges that were not created in the database because their adjacent vertices could not be matched.
+     *
+     * @return The number of unmatched edges.
+     */
+    public long getUnmatchedEdgeCount() {
+        return unmatchedEdgeCount;
+    }
+
+    /**
+     * Gets the number of database transactions committed by the loader.
+     *
+     * @return The number of commits.
+     */
+    public long getCommitCount() {
+        return commitCount;
+    }
+
+    /**
+     * Gets the time elapsed since the loader was created.
+     *
+     * @return The elapsed time in milliseconds.
+     */
+    public long getElapsedTime() {
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Gets the number of elements (vertices and edges) added to the loader per second.
+     *
+     * @return The loader throughput in elements per second.
+     */
+    public double getThroughput() {
+        // elapsed time
+        long elapsed = getElapsedTime();
+        // elements per second
+        return elapsed > 0 ? (vertexCount + edgeCount) * 1000.0 / elapsed : 0;
+    }
+
+    /**
+     * Commits all pending elements and closes the underlying database session.
+     */
+    @Override
+    public void close() {
+        try {
+            // commit pending elements
+            commit();
+        }
+        finally {
+            // check transaction is still open (error condition)
+            if (transaction != null)
+                transaction.close();
+            // close session
+            session.close();
+        }
+    }
+
+    private String vertexStatement(String label) {
+        // vertex labels
+        SortedSet<String> labels = new TreeSet<>(Arrays.asList(label.split(Neo4JVertex.LabelDelimiter)));
+        // validate labels
+        labels.forEach(item -> {
+            // exclude partition
+            if (!partition.validateLabel(item))
+                throw new IllegalArgumentException("Invalid label, label name cannot be the same as Graph partition labels");
+        });
+        // append additional labels
+        labels.addAll(additionalLabels);
+        // create statement
+        return "UNWIND $batch AS vp CREATE (n" + labels.stream().map(item -> ":`" + escape(item) + "`").collect(Collectors.joining("")) + ") SET n = vp";
+    }
+
+    private String matchStatement(String alias, String label, String idExpression) {
+        // labels in match pattern
+        Set<String> labels = new TreeSet<>(partition.vertexMatchPatternLabels());
+        if (label != null)
+            labels.addAll(Arrays.asList(label.split(Neo4JVertex.LabelDelimiter)));
+        // create statement
+        return "MATCH (" + alias + labels.stream().map(item -> ":`" + escape(item) + "`").collect(Collectors.joining("")) + ") WHERE " + vertexIdProvider.matchPredicateOperand(alias) + " = " + idExpression + (partition.usesMatchPredicate() ? " AND (" + partition.vertexMatchPredicate(alias) + ")" : "");
+    }
+
+    private void commitIfNeeded() {
+        // check we reached the number of elements per transaction
+        if (pendingCount >= commitSize)
+            commit();
+    }
+
+    private void writeVertices() {
+        // write all vertex batches
+        vertexBatches.forEach(this::write);
+        // clear batches
+        vertexBatches.clear();
+    }
+
+    private void writeEdges() {
+        // write all edge batches
+        edgeBatches.forEach(this::writeEdges);
+        // clear batches
+        edgeBatches.clear();
+    }
+
+    private void writeEdges(String statement, List<Map<String, Object>> batch) {
+        // write batch
+        ResultSummary summary = write(statement, batch);
+        // edges created in database (edges are not created if adjacent vertices cannot be matched)
+        int created = summary.counters().relationshipsCreated();
+        // update counter
+        edgeCount += created;
+        // check all edges in batch were created
+        if (created < batch.size()) {
+            // update counter
+            unmatchedEdgeCount += batch.size() - created;
+            // log information
+            logger.warn("Bulk loader created {} out of {} edges, adjacent vertices could not be matched for {} edges: {}", created, batch.size(), batch.size() - created, statement);
+        }
+    }
+
+    private ResultSummary write(String statement, List<Map<String, Object>> batch) {
+        // begin transaction if needed
+        if (transaction == null)
+            transaction = session.beginTransaction();
+        // execute statement
+        Result result = transaction.run(statement, Collections.singletonMap("batch", batch));
+        // summary
+        ResultSummary summary = result.consume();
+        // process summary
+        ResultSummaryLogger.log(summary);
+        // return summary
+        return summary;
+    }
+
+    private static String escape(String name) {
+        // escape backticks in label and relationship type names
+        return name.replace("`", "``");
+    }
+
+    private static Map<String, Object> properties(Object[] keyValues, Neo4JElementIdProvider<?> provider, Object id) {
+        // properties
+        Map<String, Object> properties = new HashMap<>();
+        for (int index = 0; index < keyValues.length; index += 2) {
+            // skip label
+            if (keyValues[index] != T.label) {
+                // property name
+                String name = (String)keyValues[index];
+                // validate property
+                ElementHelper.validateProperty(name, keyValues[index + 1]);
+                // validate bolt support
+                Neo4JBoltSupport.checkPropertyValue(keyValues[index + 1]);
+                // store value
+                properties.put(name, keyValues[index + 1]);
+            }
+        }
+        // append id field if required
+        String idFieldName = provider.fieldName();
+        if (id != null && idFieldName != null)
+            properties.put(idFieldName, id);
+        // return properties
+        return properties;
+    }
+}
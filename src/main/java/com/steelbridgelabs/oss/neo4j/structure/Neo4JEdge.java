@@ -28,13 +28,15 @@ import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Value;
+import org.neo4j.driver.types.MapAccessor;
 import org.neo4j.driver.types.Relationship;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
@@ -86,10 +88,10 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
 
         @Override
         public void remove() {
+            // keep original value before modifying it
+            edge.undo.record(name, edge.properties.get(name));
             // remove from edge
             edge.properties.remove(name);
-            // mark property as removed
-            edge.removedProperties.add(name);
             // mark edge as dirty
             edge.dirty = true;
             // notify session
@@ -124,8 +126,8 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
     private Object generatedId = null;
     private boolean dirty = false;
     private boolean newEdge;
-    private Set<String> removedProperties = new HashSet<>();
-    private Map<String, Neo4JEdgeProperty> originalProperties;
+    private final Neo4JUndoLog<Neo4JEdgeProperty> undo = new Neo4JUndoLog<>();
+    private boolean propertiesLoaded = true;
 
     Neo4JEdge(Neo4JGraph graph, Neo4JSession session, Neo4JElementIdProvider<?> edgeIdProvider, String label, Neo4JVertex out, Neo4JVertex in) {
         Objects.requireNonNull(graph, "graph cannot be null");
@@ -144,8 +146,6 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
         this.in = in;
         // generate id
         this.id = edgeIdProvider.generate();
-        // initialize original properties
-        originalProperties = new HashMap<>();
         // this is a new edge (transient)
         newEdge = true;
     }
@@ -164,22 +164,63 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
         // from relationship
         this.id = edgeIdProvider.get(relationship);
         this.label = relationship.type();
+        // vertices
+        this.out = out;
+        this.in = in;
+        // copy properties from relationship
+        loadProperties(relationship);
+        // this is a persisted edge
+        newEdge = false;
+    }
+
+    Neo4JEdge(Neo4JGraph graph, Neo4JSession session, Neo4JElementIdProvider<?> edgeIdProvider, Object id, String label, Neo4JVertex out, Neo4JVertex in) {
+        Objects.requireNonNull(graph, "graph cannot be null");
+        Objects.requireNonNull(session, "session cannot be null");
+        Objects.requireNonNull(edgeIdProvider, "edgeIdProvider cannot be null");
+        Objects.requireNonNull(label, "label cannot be null");
+        Objects.requireNonNull(out, "out cannot be null");
+        Objects.requireNonNull(in, "in cannot be null");
+        // store fields
+        this.graph = graph;
+        this.session = session;
+        this.edgeIdProvider = edgeIdProvider;
+        this.id = id;
+        this.label = label;
+        this.out = out;
+        this.in = in;
+        // properties are not in memory (hollow edge)
+        propertiesLoaded = false;
+        // this is a persisted edge
+        newEdge = false;
+    }
+
+    void loadProperties(MapAccessor entity) {
+        Objects.requireNonNull(entity, "entity cannot be null");
         // id field name (if any)
         String idFieldName = edgeIdProvider.fieldName();
-        // copy properties from relationship, remove idFieldName from map
-        StreamSupport.stream(relationship.keys().spliterator(), false).filter(key -> !key.equals(idFieldName)).forEach(key -> {
+        // copy properties from entity, remove idFieldName from map
+        StreamSupport.stream(entity.keys().spliterator(), false).filter(key -> !key.equals(idFieldName)).forEach(key -> {
             // value
-            Value value = relationship.get(key);
+            Value value = entity.get(key);
             // add property value
             properties.put(key, new Neo4JEdgeProperty<>(this, key, value.asObject()));
         });
-        // vertices
-        this.out = out;
-        this.in = in;
-        // initialize original properties
-        originalProperties = new HashMap<>(properties);
-        // this is a persisted edge
-        newEdge = false;
+        // properties are in memory
+        propertiesLoaded = true;
+    }
+
+    boolean isPropertiesLoaded() {
+        return propertiesLoaded;
+    }
+
+    private void ensurePropertiesLoaded() {
+        // check properties are in memory
+        if (!propertiesLoaded) {
+            // transaction should be ready for io operations
+            graph.tx().readWrite();
+            // load properties from server
+            session.loadProperties(this);
+        }
     }
 
     /**
@@ -207,6 +248,11 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
         return id != null ? id : generatedId;
     }
 
+    boolean isIdentityHashed() {
+        // edges without a provider generated identifier use identity hash codes (see hashCode())
+        return id == null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -243,8 +289,12 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
         Neo4JBoltSupport.checkPropertyValue(value);
         // transaction should be ready for io operations
         graph.tx().readWrite();
+        // properties must be in memory before updating them
+        ensurePropertiesLoaded();
         // property value for key
         Neo4JEdgeProperty<V> propertyValue = new Neo4JEdgeProperty<>(this, name, value);
+        // keep original value before modifying it
+        undo.record(name, properties.get(name));
         // update map
         properties.put(name, propertyValue);
         // set edge as dirty
@@ -262,6 +312,8 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
     @SuppressWarnings("unchecked")
     public <V> Property<V> property(String key) {
         Objects.requireNonNull(key, "key cannot be null");
+        // load properties if needed
+        ensurePropertiesLoaded();
         // property value
         Neo4JEdgeProperty propertyValue = properties.get(key);
         if (propertyValue != null)
@@ -288,6 +340,8 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
     @SuppressWarnings("unchecked")
     public <V> Iterator<Property<V>> properties(String... propertyKeys) {
         Objects.requireNonNull(propertyKeys, "propertyKeys cannot be null");
+        // load properties if needed
+        ensurePropertiesLoaded();
         // check filter is a single property
         if (propertyKeys.length == 1) {
             // property value
@@ -317,8 +371,6 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
     private Map<String, Object> statementParameters() {
         // process properties
         Map<String, Object> parameters = properties.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().value()));
-        // removed properties
-        removedProperties.forEach(name -> parameters.put(name, null));
         // append id field if required
         String idFieldName = edgeIdProvider.fieldName();
         if (id != null && idFieldName != null)
@@ -327,6 +379,23 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
         return parameters;
     }
 
+    private Map<String, Object> modifiedParameters() {
+        // create map
+        Map<String, Object> parameters = new HashMap<>();
+        // process keys modified in transaction
+        for (String name : undo.keys()) {
+            // current value (null removes the property)
+            Neo4JEdgeProperty property = properties.get(name);
+            parameters.put(name, property != null ? property.value() : null);
+        }
+        return parameters;
+    }
+
+    String batchKey() {
+        // edges sharing label and endpoint patterns can be processed in the same statement
+        return out.matchPattern(null) + "-[:`" + label + "`]->" + in.matchPattern(null);
+    }
+
     @Override
     public Neo4JDatabaseCommand insertCommand() {
         // parameters
@@ -355,18 +424,66 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
         return new Neo4JDatabaseCommand(statement, parameters);
     }
 
+    /**
+     * Generates a single Cypher CREATE statement for a batch of transient edges, example:
+     * <p>
+     * UNWIND $batch AS row MATCH (o:Label1) WHERE o.id = row.oid MATCH (i:Label2) WHERE i.id = row.iid CREATE (o)-[r:`label`]-&gt;(i) SET r = row.ep
+     * </p>
+     *
+     * @param edges The transient edges, all of them must share the same label and endpoint patterns (see {@link #batchKey()}).
+     * @return The {@link Neo4JDatabaseCommand} creating all edges in the database.
+     */
+    static Neo4JDatabaseCommand insertCommand(List<Neo4JEdge> edges) {
+        Objects.requireNonNull(edges, "edges cannot be null");
+        // first edge in batch (label, endpoint patterns and id provider are the same for all edges in batch)
+        Neo4JEdge first = edges.get(0);
+        // rows
+        List<Map<String, Object>> rows = edges.stream().map(edge -> {
+            // row parameters
+            Map<String, Object> row = new HashMap<>();
+            row.put("oid", edge.out.id());
+            row.put("iid", edge.in.id());
+            row.put("ep", edge.statementParameters());
+            // return row
+            return row;
+        }).collect(Collectors.toList());
+        // parameters
+        Map<String, Object> parameters = Collections.singletonMap("batch", rows);
+        // match endpoints
+        String match = first.out.unwindMatchStatement("o", "row.oid") + " " + first.in.unwindMatchStatement("i", "row.iid");
+        // check database side id generation is required
+        if (first.id == null) {
+            // create statement (use index in batch to map generated identifiers back to edges)
+            String statement = "UNWIND range(0, size($batch) - 1) AS index WITH index, $batch[index] AS row " + match + " CREATE (o)-[r:`" + first.label + "`]->(i) SET r = row.ep RETURN index, " + first.edgeIdProvider.matchPredicateOperand("r");
+            // command statement
+            return new Neo4JDatabaseCommand(statement, parameters, result -> {
+                // process records
+                while (result.hasNext()) {
+                    // record
+                    Record record = result.next();
+                    // edge in batch
+                    Neo4JEdge edge = edges.get(record.get(0).asInt());
+                    // process edge identifier
+                    edge.generatedId = edge.edgeIdProvider.processIdentifier(record.get(1).asObject());
+                }
+            });
+        }
+        // command statement
+        return new Neo4JDatabaseCommand("UNWIND $batch AS row " + match + " CREATE (o)-[r:`" + first.label + "`]->(i) SET r = row.ep", parameters);
+    }
+
     @Override
     public Neo4JDatabaseCommand updateCommand() {
         // check edge is dirty
         if (dirty) {
             // update statement
-            String statement = out.matchStatement("o", "oid") + " " + in.matchStatement("i", "iid") + " MATCH (o)-[r:`" + label + "`]->(i)" + " WHERE " + edgeIdProvider.matchPredicateOperand("r") + " = $id SET r = $rp";
+            String statement = out.matchStatement("o", "oid") + " " + in.matchStatement("i", "iid") + " MATCH (o)-[r:`" + label + "`]->(i)" + " WHERE " + edgeIdProvider.matchPredicateOperand("r") + " = $id SET r += $rp";
             // parameters
             Map<String, Object> parameters = new HashMap<>();
             parameters.put("oid", out.id());
             parameters.put("iid", in.id());
             parameters.put("id", id());
-            parameters.put("rp", statementParameters());
+            parameters.put("rp", modifiedParameters());
             // command statement
             return new Neo4JDatabaseCommand(statement, parameters, result -> {
             });
@@ -374,6 +491,41 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
         return null;
     }
 
+    /**
+     * Generates a single Cypher SET statement updating the properties of a batch of edges, example:
+     * <p>
+     * UNWIND $batch AS row MATCH (o:Label1) WHERE o.id = row.oid MATCH (i:Label2) WHERE i.id = row.iid MATCH (o)-[r:`label`]-&gt;(i) WHERE r.id = row.id SET r += row.rp
+     * </p>
+     *
+     * @param edges The dirty edges, all of them must share the same label and endpoint patterns (see {@link #batchKey()}).
+     * @return The {@link Neo4JDatabaseCommand} updating all edges in the database.
+     */
+    static Neo4JDatabaseCommand updateCommand(List<Neo4JEdge> edges) {
+        Objects.requireNonNull(edges, "edges cannot be null");
+        // first edge in batch (label, endpoint patterns and id provider are the same for all edges in batch)
+        Neo4JEdge first = edges.get(0);
+        // rows
+        List<Map<String, Object>> rows = edges.stream().map(edge -> {
+            // row parameters
+            Map<String, Object> row = new HashMap<>();
+            row.put("oid", edge.out.id());
+            row.put("iid", edge.in.id());
+            row.put("id", edge.id());
+            row.put("rp", edge.modifiedParameters());
+            // return row
+            return row;
+        }).collect(Collectors.toList());
+        // update statement
+        String statement = "UNWIND $batch AS row " + first.out.unwindMatchStatement("o", "row.oid") + " " + first.in.unwindMatchStatement("i", "row.iid") + " MATCH (o)-[r:`" + first.label + "`]->(i)" + " WHERE " + first.edgeIdProvider.matchPredicateOperand("r") + " = row.id SET r += row.rp";
+        // command statement
+        return new Neo4JDatabaseCommand(statement, Collections.singletonMap("batch", rows));
+    }
+
+    String deleteBatchKey() {
+        // edges identified by the database relationship id can be deleted without matching endpoints
+        return edgeIdProvider.fieldName() == null ? "" : batchKey();
+    }
+
     @Override
     public Neo4JDatabaseCommand deleteCommand() {
         // delete statement
@@ -388,11 +540,66 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
         });
     }
 
+    /**
+     * Generates a single Cypher DELETE statement for a batch of edges, examples:
+     * <p>
+     * UNWIND $ids AS id MATCH ()-[r]-&gt;() WHERE ID(r) = id DELETE r
+     * </p>
+     * <p>
+     * UNWIND $batch AS row MATCH (o:Label1) WHERE o.id = row.oid MATCH (i:Label2) WHERE i.id = row.iid MATCH (o)-[r:`label`]-&gt;(i) WHERE r.id = row.id DELETE r
+     * </p>
+     *
+     * @param edges The edges, all of them must share the same delete batch key (see {@link #deleteBatchKey()}).
+     * @return The {@link Neo4JDatabaseCommand} deleting all edges in the database.
+     */
+    static Neo4JDatabaseCommand deleteCommand(List<Neo4JEdge> edges) {
+        Objects.requireNonNull(edges, "edges cannot be null");
+        // first edge in batch (id provider is the same for all edges in batch)
+        Neo4JEdge first = edges.get(0);
+        // check edges are identified by the database relationship id
+        if (first.edgeIdProvider.fieldName() == null) {
+            // delete statement (relationship id seek, no need to match endpoints)
+            String statement = "UNWIND $ids AS id MATCH ()-[r]->() WHERE " + first.edgeIdProvider.matchPredicateOperand("r") + " = id DELETE r";
+            // command statement
+            return new Neo4JDatabaseCommand(statement, Collections.singletonMap("ids", edges.stream().map(Neo4JEdge::id).collect(Collectors.toList())));
+        }
+        // rows
+        List<Map<String, Object>> rows = edges.stream().map(edge -> {
+            // row parameters
+            Map<String, Object> row = new HashMap<>();
+            row.put("oid", edge.out.id());
+            row.put("iid", edge.in.id());
+            row.put("id", edge.id());
+            // return row
+            return row;
+        }).collect(Collectors.toList());
+        // delete statement
+        String statement = "UNWIND $batch AS row " + first.out.unwindMatchStatement("o", "row.oid") + " " + first.in.unwindMatchStatement("i", "row.iid") + " MATCH (o)-[r:`" + first.label + "`]->(i)" + " WHERE " + first.edgeIdProvider.matchPredicateOperand("r") + " = row.id DELETE r";
+        // command statement
+        return new Neo4JDatabaseCommand(statement, Collections.singletonMap("batch", rows));
+    }
+
+    /**
+     * Generates the batched Cypher statements executed on edges sharing the label and endpoint patterns of this edge:
+     * inserts, property updates and deletes.
+     *
+     * @return The set of Cypher statements.
+     */
+    Set<String> statements() {
+        // statements
+        Set<String> statements = new LinkedHashSet<>();
+        // batched statements
+        List<Neo4JEdge> batch = Collections.singletonList(this);
+        statements.add(insertCommand(batch).getStatement());
+        statements.add(updateCommand(batch).getStatement());
+        statements.add(deleteCommand(batch).getStatement());
+        // return statements
+        return statements;
+    }
+
     void commit() {
-        // commit property values
-        originalProperties = new HashMap<>(properties);
-        // reset removed properties
-        removedProperties.clear();
+        // discard undo log
+        undo.clear();
         // reset flags
         dirty = false;
         // this is no longer a transient edge
@@ -403,11 +610,18 @@ public class Neo4JEdge extends Neo4JElement implements Edge {
         // restore edge references
         out.addOutEdge(this);
         in.addInEdge(this);
-        // restore property values
-        properties.clear();
-        properties.putAll(originalProperties);
-        // reset removed properties
-        removedProperties.clear();
+        // replay undo log
+        undo.replay((name, property) -> {
+            // check property existed before modification
+            if (property != null) {
+                // restore property
+                properties.put(name, property);
+            }
+            else {
+                // remove property
+                properties.remove(name);
+            }
+        });
         // reset flags
         dirty = false;
     }
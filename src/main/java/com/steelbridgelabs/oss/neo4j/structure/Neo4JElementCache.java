@@ -0,0 +1,237 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.neo4j.driver.types.Node;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Second level cache of committed node snapshots shared by all sessions created by a {@link Neo4JGraph}. Nodes returned
+ * by the driver are immutable, they can be safely used to create vertices in different sessions.
+ * <p>
+ * Snapshots are stored in segments selected by the element id, each segment is locked and evicted (least recently
+ * used first) independently so sessions reading different elements do not contend on a single lock.
+ * <p>
+ * Snapshots are stamped with the bookmarks and the epoch of the transaction that loaded them. A reader can only use
+ * snapshots loaded with (at least) the same bookmarks. Bookmarks published by local commits are also satisfied by
+ * snapshots read after the commit was published (a local commit could causally follow remote commits that modified
+ * snapshots read before it).
+ * <p>
+ * Invalidations are stamped with an epoch, a snapshot is only stored if the transaction that read it started after the
+ * last invalidation of the element (a snapshot read before a concurrent commit could be stale).
+ *
+ * @author Rogelio J. Baucells
+ */
+final class Neo4JElementCache {
+
+    private static final int MaximumSegmentCount = 16;
+    private static final int MinimumSegmentCapacity = 64;
+
+    private static final class Snapshot {
+
+        private final Node node;
+        private final Set<String> bookmarks;
+        private final long epoch;
+
+        private Snapshot(Node node, Set<String> bookmarks, long epoch) {
+            this.node = node;
+            this.bookmarks = bookmarks;
+            this.epoch = epoch;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Map<Object, Snapshot> nodes = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<Object, Long> invalidations = new LinkedHashMap<>();
+        private final int capacity;
+        private long invalidationFloor = 0;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private synchronized Snapshot get(Object id) {
+            // find snapshot (updates access order)
+            return nodes.get(id);
+        }
+
+        private synchronized boolean put(Object id, Snapshot snapshot, long readEpoch) {
+            // check element was invalidated after the read started (snapshot could be stale)
+            if (readEpoch < invalidationFloor || readEpoch < invalidations.getOrDefault(id, 0L))
+                return false;
+            // store snapshot
+            nodes.put(id, snapshot);
+            // evict least recently used snapshots
+            Iterator<Object> iterator = nodes.keySet().iterator();
+            while (nodes.size() > capacity && iterator.hasNext()) {
+                // move to next entry
+                iterator.next();
+                // evict entry
+                iterator.remove();
+            }
+            // snapshot stored
+            return true;
+        }
+
+        private synchronized void invalidate(Object id, long stamp) {
+            // remove snapshot
+            nodes.remove(id);
+            // stamp invalidation (remove it first, invalidations are kept in epoch order)
+            invalidations.remove(id);
+            invalidations.put(id, stamp);
+            // evict oldest invalidations, reads started before the evicted epochs cannot store snapshots at all
+            Iterator<Map.Entry<Object, Long>> iterator = invalidations.entrySet().iterator();
+            while (invalidations.size() > capacity && iterator.hasNext()) {
+                // update floor
+                invalidationFloor = iterator.next().getValue();
+                // evict entry
+                iterator.remove();
+            }
+        }
+
+        private synchronized void clear(long floor) {
+            // remove all snapshots, reads started before floor cannot store snapshots at all
+            nodes.clear();
+            invalidations.clear();
+            invalidationFloor = Math.max(invalidationFloor, floor);
+        }
+
+        private synchronized int size() {
+            return nodes.size();
+        }
+    }
+
+    private final Segment[] segments;
+    private final Map<String, Long> localBookmarks = new ConcurrentHashMap<>();
+    private final Map<String, Long> localBookmarkOrder = new LinkedHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+    private final int capacity;
+
+    Neo4JElementCache(int capacity) {
+        // validate argument
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be greater than zero");
+        // store fields
+        this.capacity = capacity;
+        // number of segments (power of two, small caches use a single segment)
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MaximumSegmentCount, capacity / MinimumSegmentCapacity)));
+        // create segments
+        segments = new Segment[count];
+        for (int index = 0; index < count; index++)
+            segments[index] = new Segment((capacity + count - 1) / count);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int size() {
+        // sum segment sizes
+        int size = 0;
+        for (Segment segment : segments)
+            size += segment.size();
+        return size;
+    }
+
+    long epoch() {
+        return epoch.get();
+    }
+
+    private Segment segment(Object id) {
+        // spread hash bits (segment count is a power of two)
+        int hash = id.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    Node get(Object id, Set<String> bookmarks) {
+        Objects.requireNonNull(id, "id cannot be null");
+        Objects.requireNonNull(bookmarks, "bookmarks cannot be null");
+        // find snapshot
+        Snapshot snapshot = segment(id).get(id);
+        if (snapshot != null) {
+            // check snapshot satisfies all bookmarks (loaded with the bookmark or read after it was published by a local commit)
+            if (bookmarks.stream().allMatch(bookmark -> snapshot.bookmarks.contains(bookmark) || snapshot.epoch >= localBookmarks.getOrDefault(bookmark, Long.MAX_VALUE)))
+                return snapshot.node;
+        }
+        // not found or stale (must be loaded from server)
+        return null;
+    }
+
+    boolean put(Object id, Node node, Set<String> bookmarks, long readEpoch) {
+        Objects.requireNonNull(id, "id cannot be null");
+        Objects.requireNonNull(node, "node cannot be null");
+        Objects.requireNonNull(bookmarks, "bookmarks cannot be null");
+        // store snapshot in segment
+        return segment(id).put(id, new Snapshot(node, bookmarks, readEpoch), readEpoch);
+    }
+
+    void publish(Collection<Object> ids, Set<String> bookmarks) {
+        Objects.requireNonNull(ids, "ids cannot be null");
+        Objects.requireNonNull(bookmarks, "bookmarks cannot be null");
+        // new epoch, reads started before this point cannot store snapshots of the modified elements
+        long stamp = epoch.incrementAndGet();
+        // remove snapshots modified by local commit
+        for (Object id : ids)
+            segment(id).invalidate(id, stamp);
+        // readers started with these bookmarks can use snapshots read after this point
+        synchronized (localBookmarkOrder) {
+            // process bookmarks
+            for (String bookmark : bookmarks) {
+                // keep first publication
+                if (localBookmarkOrder.putIfAbsent(bookmark, stamp) == null)
+                    localBookmarks.put(bookmark, stamp);
+            }
+            // evict oldest bookmarks (readers with evicted bookmarks will refresh snapshots)
+            Iterator<String> iterator = localBookmarkOrder.keySet().iterator();
+            while (localBookmarkOrder.size() > capacity && iterator.hasNext()) {
+                // evict entry
+                localBookmarks.remove(iterator.next());
+                iterator.remove();
+            }
+        }
+    }
+
+    void invalidate() {
+        // new epoch, reads started before this point cannot store snapshots at all
+        long floor = epoch.incrementAndGet();
+        // remove all snapshots
+        for (Segment segment : segments)
+            segment.clear(floor);
+    }
+
+    void clear() {
+        // remove all snapshots
+        for (Segment segment : segments)
+            segment.clear(0);
+        // remove local bookmarks
+        synchronized (localBookmarkOrder) {
+            localBookmarkOrder.clear();
+            localBookmarks.clear();
+        }
+    }
+}
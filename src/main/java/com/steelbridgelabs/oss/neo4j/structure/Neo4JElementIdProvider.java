@@ -62,4 +62,14 @@ public interface Neo4JElementIdProvider<T> {
      * @return The MATCH WHERE predicate operand.
      */
     String matchPredicateOperand(String alias);
+
+    /**
+     * Gets whether all identifiers returned by the provider are {@link Long} values. Sessions use specialized data
+     * structures (without boxed keys) to index elements when identifiers are {@link Long} values.
+     *
+     * @return <code>true</code> if identifiers are {@link Long} values, otherwise <code>false</code>.
+     */
+    default boolean usesLongIdentifiers() {
+        return false;
+    }
 }
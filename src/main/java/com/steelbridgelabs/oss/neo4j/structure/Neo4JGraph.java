@@ -19,13 +19,15 @@
 package com.steelbridgelabs.oss.neo4j.structure;
 
 import com.steelbridgelabs.oss.neo4j.structure.partitions.NoReadPartition;
-import com.steelbridgelabs.oss.neo4j.structure.summary.ResultSummaryLogger;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.AbstractThreadLocalTransaction;
 import org.apache.tinkerpop.gremlin.structure.util.GraphFactoryClass;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
@@ -38,15 +40,16 @@ import org.neo4j.driver.SessionConfig;
 import org.neo4j.driver.Value;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author Rogelio J. Baucells
@@ -105,6 +108,11 @@ public class Neo4JGraph implements Graph {
         }
     }
 
+    static {
+        // register traversal strategies
+        TraversalStrategies.GlobalCache.registerStrategies(Neo4JGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(Neo4JGraphStepStrategy.instance()));
+    }
+
     private final Neo4JReadPartition partition;
     private final Set<String> vertexLabels;
     private final Driver driver;
@@ -118,6 +126,10 @@ public class Neo4JGraph implements Graph {
     private final Iterable<Bookmark> bookmarks;
 
     private final Set<Consumer<Neo4JGraph>> closeListeners = new HashSet<>();
+    private final Map<String, VertexProperty.Cardinality> vertexPropertyCardinalities = new ConcurrentHashMap<>();
+
+    private volatile Neo4JElementCache elementCache = null;
+    private volatile Neo4JStatementCache statementCache = null;
 
     /**
      * Creates a {@link Neo4JGraph} instance.
@@ -461,21 +473,26 @@ public class Neo4JGraph implements Graph {
         // get current session
         Neo4JSession session = this.session.get();
         if (session == null) {
-            // session config
-            SessionConfig.Builder config = SessionConfig.builder()
-                .withDefaultAccessMode(readonly ? AccessMode.READ : AccessMode.WRITE)
-                .withBookmarks(bookmarks);
-            // set database if needed
-            if (database != null)
-                config.withDatabase(database);
             // create new session
-            session = new Neo4JSession(this, driver.session(config.build()), vertexIdProvider, edgeIdProvider, readonly);
+            session = new Neo4JSession(this, driver.session(sessionConfig()), vertexIdProvider, edgeIdProvider, readonly);
             // attach it to current thread
             this.session.set(session);
         }
         return session;
     }
 
+    private SessionConfig sessionConfig() {
+        // session config
+        SessionConfig.Builder config = SessionConfig.builder()
+            .withDefaultAccessMode(readonly ? AccessMode.READ : AccessMode.WRITE)
+            .withBookmarks(bookmarks);
+        // set database if needed
+        if (database != null)
+            config.withDatabase(database);
+        // return configuration
+        return config.build();
+    }
+
     /**
      * Gets the {@link Neo4JReadPartition} that has been applied to current {@link Neo4JGraph}.
      *
@@ -543,6 +560,23 @@ public class Neo4JGraph implements Graph {
         return session.addVertex(keyValues);
     }
 
+    /**
+     * Creates a {@link Neo4JBulkLoader} writing vertices and edges straight to the database. The loader uses its own
+     * database session and transactions, elements added through the loader are not visible to the current
+     * {@link Neo4JGraph} session until they are committed.
+     *
+     * @param batchSize  The maximum number of elements written in a single Cypher statement.
+     * @param commitSize The number of elements written to the database before committing the loader transaction.
+     * @return The {@link Neo4JBulkLoader} instance, it must be closed to commit pending elements.
+     */
+    public Neo4JBulkLoader bulkLoader(int batchSize, int commitSize) {
+        // check graph is readonly
+        if (readonly)
+            throw Graph.Exceptions.vertexAdditionsNotSupported();
+        // create loader
+        return new Neo4JBulkLoader(this, driver.session(sessionConfig()), batchSize, commitSize);
+    }
+
     /**
      * Creates an index in the neo4j database.
      *
@@ -597,15 +631,9 @@ public class Neo4JGraph implements Graph {
         // transaction should be ready for io operations
         transaction.readWrite();
         // execute statement
-        Result result = session.executeStatement(statement, parameters);
+        Result result = session.executeUserStatement(statement, parameters);
         // find vertices
-        Iterator<Vertex> iterator = session.vertices(result)
-            .collect(Collectors.toCollection(LinkedList::new))
-            .iterator();
-        // process summary (query has been already consumed by collect)
-        ResultSummaryLogger.log(result.consume());
-        // return iterator
-        return iterator;
+        return Neo4JSession.combine(Stream.empty(), session.vertices(result), result, session.isStreamingEnabled());
     }
 
     public Iterator<Vertex> vertices(String statement, Value parameters) {
@@ -616,15 +644,9 @@ public class Neo4JGraph implements Graph {
         // transaction should be ready for io operations
         transaction.readWrite();
         // execute statement
-        Result result = session.executeStatement(statement, parameters);
+        Result result = session.executeUserStatement(statement, parameters);
         // find vertices
-        Iterator<Vertex> iterator = session.vertices(result)
-            .collect(Collectors.toCollection(LinkedList::new))
-            .iterator();
-        // process summary (query has been already consumed by collect)
-        ResultSummaryLogger.log(result.consume());
-        // return iterator
-        return iterator;
+        return Neo4JSession.combine(Stream.empty(), session.vertices(result), result, session.isStreamingEnabled());
     }
 
     public Iterator<Vertex> vertices(String statement) {
@@ -654,15 +676,9 @@ public class Neo4JGraph implements Graph {
         // transaction should be ready for io operations
         transaction.readWrite();
         // execute statement
-        Result result = session.executeStatement(statement, parameters);
+        Result result = session.executeUserStatement(statement, parameters);
         // find edges
-        Iterator<Edge> iterator = session.edges(result)
-            .collect(Collectors.toCollection(LinkedList::new))
-            .iterator();
-        // process summary (query has been already consumed by collect)
-        ResultSummaryLogger.log(result.consume());
-        // return iterator
-        return iterator;
+        return Neo4JSession.combine(Stream.empty(), session.edges(result), result, session.isStreamingEnabled());
     }
 
     public Iterator<Edge> edges(String statement, Value parameters) {
@@ -673,15 +689,9 @@ public class Neo4JGraph implements Graph {
         // transaction should be ready for io operations
         transaction.readWrite();
         // execute statement
-        Result result = session.executeStatement(statement, parameters);
+        Result result = session.executeUserStatement(statement, parameters);
         // find edges
-        Iterator<Edge> iterator = session.edges(result)
-            .collect(Collectors.toCollection(LinkedList::new))
-            .iterator();
-        // process summary (query has been already consumed by collect)
-        ResultSummaryLogger.log(result.consume());
-        // return iterator
-        return iterator;
+        return Neo4JSession.combine(Stream.empty(), session.edges(result), result, session.isStreamingEnabled());
     }
 
     public Iterator<Edge> edges(String statement) {
@@ -690,6 +700,54 @@ public class Neo4JGraph implements Graph {
         return edges(statement, Collections.emptyMap());
     }
 
+    /**
+     * Loads the adjacent edges of the given vertices in a single statement, subsequent calls to
+     * {@link Vertex#edges(Direction, String...)} and {@link Vertex#vertices(Direction, String...)} on these vertices
+     * with the same direction and labels will not hit the server. For example:
+     * <p>
+     * prefetchEdges(vertices, Direction.OUT, "knows") -&gt; UNWIND $ids AS id MATCH (n)-[r:`knows`]-&gt;(m) WHERE n.id = id RETURN n, r, m
+     *
+     * @param vertices  The vertices (frontier) to load adjacent edges for.
+     * @param direction The direction of the edges.
+     * @param labels    The edge labels, all edges if empty.
+     */
+    public void prefetchEdges(Collection<? extends Vertex> vertices, Direction direction, String... labels) {
+        Objects.requireNonNull(vertices, "vertices cannot be null");
+        Objects.requireNonNull(direction, "direction cannot be null");
+        Objects.requireNonNull(labels, "labels cannot be null");
+        // get current session
+        Neo4JSession session = currentSession();
+        // transaction should be ready for io operations
+        transaction.readWrite();
+        // load edges
+        session.prefetchEdges(vertices, direction, labels);
+    }
+
+    /**
+     * Warms up the server query plan cache by executing with EXPLAIN the Cypher statements generated for vertices with
+     * the given label sets (adjacent edges and vertices for all and for each of the given edge labels, batched property
+     * updates and deletes) and for edges with the given labels between them (batched inserts, property updates and
+     * deletes). Partition and additional labels are added to each label set. Statements generated by the
+     * {@link Neo4JGraphStepStrategy} (has, hop, count, groupCount and limit steps) are not warmed up, their shape
+     * depends on the predicates in each traversal. Statements are planned but not executed, for example:
+     * <p>
+     * warmUp(Collections.singleton(Collections.singleton("Person")), "knows") -&gt; EXPLAIN MATCH (n:`Person`)-[r:`knows`]-&gt;(m) WHERE n.id = $id RETURN n, r, m
+     *
+     * @param vertexLabels The vertex label sets.
+     * @param edgeLabels   The edge labels used in traversals.
+     * @return The number of statements planned in the server.
+     */
+    public int warmUp(Collection<Set<String>> vertexLabels, String... edgeLabels) {
+        Objects.requireNonNull(vertexLabels, "vertexLabels cannot be null");
+        Objects.requireNonNull(edgeLabels, "edgeLabels cannot be null");
+        // get current session
+        Neo4JSession session = currentSession();
+        // transaction should be ready for io operations
+        transaction.readWrite();
+        // plan statements
+        return session.warmUp(vertexLabels, new HashSet<>(Arrays.asList(edgeLabels)));
+    }
+
     /**
      * Executes the given statement on the current {@link Graph} instance. WARNING: There is no
      * guarantee that the results are confined within the current {@link Neo4JReadPartition}.
@@ -706,7 +764,7 @@ public class Neo4JGraph implements Graph {
         // transaction should be ready for io operations
         transaction.readWrite();
         // find execute statement
-        return session.executeStatement(statement, parameters);
+        return session.executeUserStatement(statement, parameters);
     }
 
     /**
@@ -736,6 +794,264 @@ public class Neo4JGraph implements Graph {
         session.setProfilerEnabled(value);
     }
 
+    /**
+     * Gets the maximum number of elements written to the database in a single Cypher statement at commit time.
+     *
+     * @return The batch size, <code>0</code> if elements are written one statement at a time.
+     */
+    public int getBatchSize() {
+        // get current session
+        Neo4JSession session = currentSession();
+        // get from session
+        return session.getBatchSize();
+    }
+
+    /**
+     * Sets the maximum number of elements written to the database in a single Cypher statement at commit time. Elements
+     * sharing the same shape (e.g. vertices with the same labels) are grouped and written with UNWIND statements in chunks
+     * of the given size, reducing the number of round trips to the server.
+     *
+     * @param value The batch size, <code>0</code> to write elements one statement at a time.
+     */
+    public void setBatchSize(int value) {
+        // get current session
+        Neo4JSession session = currentSession();
+        // set batch size
+        session.setBatchSize(value);
+    }
+
+    /**
+     * Gets whether query results are streamed from the server.
+     *
+     * @return <code>true</code> if query results are streamed, otherwise <code>false</code>.
+     */
+    public boolean isStreamingEnabled() {
+        // get current session
+        Neo4JSession session = currentSession();
+        // get from session
+        return session.isStreamingEnabled();
+    }
+
+    /**
+     * Enables/disables streaming of query results. When enabled, iterators returned by the graph, vertices and edges pull
+     * records from the server on demand instead of reading the entire query result before returning. Elements already
+     * in memory are copied at the time the iterator is created (changes applied in the middle of the iteration are not
+     * visible to the iterator), records pulled from the server skip elements deleted in the session. The session
+     * considers elements loaded from the server only after the iterator is exhausted.
+     *
+     * @param value <code>true</code> to stream query results, otherwise <code>false</code>.
+     */
+    public void setStreamingEnabled(boolean value) {
+        // get current session
+        Neo4JSession session = currentSession();
+        // enable/disable streaming
+        session.setStreamingEnabled(value);
+    }
+
+    /**
+     * Gets the maximum number of persisted vertices (and edges) kept in memory by the current session.
+     *
+     * @return The identity map capacity, <code>0</code> if the session keeps all elements in memory.
+     */
+    public int getIdentityMapCapacity() {
+        // get current session
+        Neo4JSession session = currentSession();
+        // get from session
+        return session.getIdentityMapCapacity();
+    }
+
+    /**
+     * Sets the maximum number of persisted vertices (and edges) kept in memory by the current session. Once the limit is
+     * reached clean elements are evicted from the session (least recently used first), dirty, transient and deleted
+     * elements are never evicted (neither are vertices with pending edge changes nor edges adjacent to them). Useful for
+     * long running read only traversals touching a large number of elements.
+     *
+     * @param value The identity map capacity, <code>0</code> to keep all elements in memory.
+     */
+    public void setIdentityMapCapacity(int value) {
+        // get current session
+        Neo4JSession session = currentSession();
+        // set identity map capacity
+        session.setIdentityMapCapacity(value);
+    }
+
+    /**
+     * Gets the maximum number of committed vertex snapshots shared by all sessions created by this {@link Neo4JGraph}.
+     *
+     * @return The element cache capacity, <code>0</code> if the second level cache is disabled.
+     */
+    public int getElementCacheCapacity() {
+        // current cache
+        Neo4JElementCache cache = elementCache;
+        // get capacity
+        return cache != null ? cache.capacity() : 0;
+    }
+
+    /**
+     * Sets the maximum number of committed vertex snapshots shared by all sessions created by this {@link Neo4JGraph}.
+     * When enabled, vertices requested by id are looked up in the cache before executing a statement in the server,
+     * only vertices loaded by id are stored in the cache (scans and traversals do not replace cached snapshots).
+     * Snapshots are evicted using a least recently used policy (per cache segment) and invalidated when a session
+     * commits changes on them.
+     * Snapshots are stamped with the session bookmarks, sessions created with bookmarks from other processes ignore
+     * snapshots loaded without them. Transactions executing user provided statements (see {@link #execute(String)})
+     * do not store snapshots, committing them on a read write session invalidates the whole cache.
+     *
+     * @param value The element cache capacity, <code>0</code> to disable the second level cache.
+     */
+    public void setElementCacheCapacity(int value) {
+        // validate argument
+        if (value < 0)
+            throw new IllegalArgumentException("value cannot be negative");
+        // replace cache
+        elementCache = value > 0 ? new Neo4JElementCache(value) : null;
+    }
+
+    Neo4JElementCache elementCache() {
+        return elementCache;
+    }
+
+    /**
+     * Gets the maximum number of generated Cypher statements shared by all sessions created by this {@link Neo4JGraph}.
+     *
+     * @return The statement cache capacity, <code>0</code> if the statement cache is disabled.
+     */
+    public int getStatementCacheCapacity() {
+        // current cache
+        Neo4JStatementCache cache = statementCache;
+        // get capacity
+        return cache != null ? cache.capacity() : 0;
+    }
+
+    /**
+     * Sets the maximum number of generated Cypher statements shared by all sessions created by this {@link Neo4JGraph}.
+     * When enabled, the statements used to match vertices and to load their adjacent edges and vertices are rendered once
+     * per shape (labels, direction, relationship types) and reused, relationship types are rendered in sorted order so
+     * the same shape always produces the same statement text.
+     *
+     * @param value The statement cache capacity, <code>0</code> to disable the statement cache.
+     */
+    public void setStatementCacheCapacity(int value) {
+        // validate argument
+        if (value < 0)
+            throw new IllegalArgumentException("value cannot be negative");
+        // replace cache
+        statementCache = value > 0 ? new Neo4JStatementCache(value) : null;
+    }
+
+    Neo4JStatementCache statementCache() {
+        return statementCache;
+    }
+
+    /**
+     * Gets whether vertex properties are loaded on first access.
+     *
+     * @return <code>true</code> if vertex properties are loaded on first access, otherwise <code>false</code>.
+     */
+    public boolean isLazyPropertiesEnabled() {
+        // get current session
+        Neo4JSession session = currentSession();
+        // get from session
+        return session.isLazyPropertiesEnabled();
+    }
+
+    /**
+     * Enables/disables lazy loading of vertex properties. When enabled, vertex queries return the vertex id and labels
+     * only, properties are loaded from the server the first time they are accessed (or modified). Useful for traversals
+     * that only need vertex ids or labels on vertices with large properties.
+     *
+     * @param value <code>true</code> to load vertex properties on first access, otherwise <code>false</code>.
+     */
+    public void setLazyPropertiesEnabled(boolean value) {
+        // get current session
+        Neo4JSession session = currentSession();
+        // enable/disable lazy properties
+        session.setLazyPropertiesEnabled(value);
+    }
+
+    /**
+     * Gets the declared cardinality of the given vertex property.
+     *
+     * @param key The vertex property key.
+     * @return The declared cardinality, {@link VertexProperty.Cardinality#single} if the property was not declared.
+     */
+    public VertexProperty.Cardinality getVertexPropertyCardinality(String key) {
+        Objects.requireNonNull(key, "key cannot be null");
+        // declared cardinality
+        return vertexPropertyCardinalities.getOrDefault(key, VertexProperty.Cardinality.single);
+    }
+
+    /**
+     * Declares the cardinality of the given vertex property. Properties with {@link VertexProperty.Cardinality#list}
+     * or {@link VertexProperty.Cardinality#set} cardinality are stored as lists in the server, has() predicates on them
+     * match any of the values. Predicates on single valued properties are compared directly, allowing the server to
+     * use property indexes.
+     *
+     * @param key         The vertex property key.
+     * @param cardinality The property cardinality.
+     */
+    public void setVertexPropertyCardinality(String key, VertexProperty.Cardinality cardinality) {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(cardinality, "cardinality cannot be null");
+        // declare cardinality
+        vertexPropertyCardinalities.put(key, cardinality);
+    }
+
+    /**
+     * Gets the number of pending changes (transient, dirty and deleted elements) that triggers a flush to the open
+     * transaction.
+     *
+     * @return The flush threshold, <code>0</code> if changes are flushed only at commit time.
+     */
+    public int getFlushThreshold() {
+        // get current session
+        Neo4JSession session = currentSession();
+        // get from session
+        return session.getFlushThreshold();
+    }
+
+    /**
+     * Sets the number of pending changes (transient, dirty and deleted elements) that triggers a flush to the open
+     * transaction. Flushed elements are released from the session write queues, changes are still visible to the
+     * current transaction and are persisted or discarded when the transaction is committed or rolled back. Changes are
+     * flushed only before a new graph operation starts (queries, user statements, vertex and edge creation), never while
+     * elements are being read or query results are being iterated.
+     *
+     * @param value The flush threshold, <code>0</code> to flush changes only at commit time.
+     */
+    public void setFlushThreshold(int value) {
+        // get current session
+        Neo4JSession session = currentSession();
+        // set flush threshold
+        session.setFlushThreshold(value);
+    }
+
+    /**
+     * Gets whether the statements written to the database at commit time are pipelined.
+     *
+     * @return <code>true</code> if statements are pipelined, otherwise <code>false</code>.
+     */
+    public boolean isPipelineEnabled() {
+        // get current session
+        Neo4JSession session = currentSession();
+        // get from session
+        return session.isPipelineEnabled();
+    }
+
+    /**
+     * Enables/disables pipelining of the statements written to the database at commit time. When enabled, statements are
+     * sent to the server without waiting for the results of the previous ones; results are processed before the
+     * transaction is committed (or when a statement depends on database generated identifiers).
+     *
+     * @param value <code>true</code> to pipeline statements, otherwise <code>false</code>.
+     */
+    public void setPipelineEnabled(boolean value) {
+        // get current session
+        Neo4JSession session = currentSession();
+        // enable/disable pipeline
+        session.setPipelineEnabled(value);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -812,6 +1128,6 @@ public class Neo4JGraph implements Graph {
      */
     @Override
     public Features features() {
-        return new Neo4JGraphFeatures(readonly);
+        return new Neo4JGraphFeatures(readonly, this::getVertexPropertyCardinality);
     }
 }
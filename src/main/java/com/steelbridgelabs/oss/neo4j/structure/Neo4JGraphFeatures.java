@@ -23,6 +23,8 @@ import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.FeatureDescriptor;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
+import java.util.function.Function;
+
 /**
  * @author Rogelio J. Baucells
  */
@@ -306,11 +308,13 @@ public final class Neo4JGraphFeatures implements Graph.Features {
 
         private final VertexPropertyFeatures vertexPropertyFeatures;
         private final boolean readonly;
+        private final Function<String, VertexProperty.Cardinality> cardinalities;
 
-        Neo4JVertexFeatures(boolean readonly) {
+        Neo4JVertexFeatures(boolean readonly, Function<String, VertexProperty.Cardinality> cardinalities) {
             super(readonly);
             // initialize fields
             this.readonly = readonly;
+            this.cardinalities = cardinalities;
             this.vertexPropertyFeatures = new Neo4JVertexPropertyFeatures(readonly);
         }
 
@@ -345,7 +349,7 @@ public final class Neo4JGraphFeatures implements Graph.Features {
 
         @Override
         public VertexProperty.Cardinality getCardinality(final String key) {
-            return VertexProperty.Cardinality.single;
+            return cardinalities.apply(key);
         }
     }
 
@@ -519,9 +523,9 @@ public final class Neo4JGraphFeatures implements Graph.Features {
     private final VertexFeatures vertexFeatures;
     private final EdgeFeatures edgeFeatures;
 
-    Neo4JGraphFeatures(boolean readonly) {
+    Neo4JGraphFeatures(boolean readonly, Function<String, VertexProperty.Cardinality> cardinalities) {
         // initialize fields
-        this.vertexFeatures = new Neo4JVertexFeatures(readonly);
+        this.vertexFeatures = new Neo4JVertexFeatures(readonly, cardinalities);
         this.edgeFeatures = new Neo4JEdgeFeatures(readonly);
     }
 
@@ -0,0 +1,378 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * {@link GraphStep} implementation that evaluates the folded {@link HasContainer} instances and the traversal limit in
+ * the server. For example:
+ * <p>
+ * g.V().hasLabel('Person').has('name', 'John').limit(10) -&gt; MATCH (n:`Person`) WHERE n.name = $p0 RETURN n LIMIT $limit
+ * <p>
+ * Predicates on properties declared with list or set cardinality (see
+ * {@link Neo4JGraph#setVertexPropertyCardinality(String, org.apache.tinkerpop.gremlin.structure.VertexProperty.Cardinality)})
+ * match any of the values, like the in memory evaluation does:
+ * <p>
+ * g.V().has('tags', 'a') -&gt; MATCH (n) WHERE any(v IN n.tags WHERE v = $p0) RETURN n
+ * <p>
+ * Adjacent vertex steps are compiled into the same statement, one MATCH clause per hop:
+ * <p>
+ * g.V(id).out('A').out('B') -&gt; MATCH (n0) WHERE n0.id IN $ids MATCH (n0)-[:`A`]-&gt;(n1) MATCH (n1)-[:`B`]-&gt;(n2) RETURN n2
+ *
+ * @author Rogelio J. Baucells
+ */
+public final class Neo4JGraphStep<S, E extends Element> extends GraphStep<S, E> implements HasContainerHolder {
+
+    private static final Map<BiPredicate<?, ?>, String> operators = new HashMap<>();
+
+    static {
+        // comparison operators
+        operators.put(Compare.eq, "=");
+        operators.put(Compare.neq, "<>");
+        operators.put(Compare.lt, "<");
+        operators.put(Compare.lte, "<=");
+        operators.put(Compare.gt, ">");
+        operators.put(Compare.gte, ">=");
+        // string operators
+        operators.put(Text.startingWith, "STARTS WITH");
+        operators.put(Text.endingWith, "ENDS WITH");
+        operators.put(Text.containing, "CONTAINS");
+    }
+
+    private static class Hop implements Serializable {
+
+        private final Direction direction;
+        private final String[] edgeLabels;
+        private final List<HasContainer> hasContainers = new ArrayList<>();
+
+        Hop(Direction direction, String[] edgeLabels) {
+            // store fields
+            this.direction = direction;
+            this.edgeLabels = edgeLabels;
+        }
+
+        String relationshipPattern() {
+            // relationship types
+            String types = Arrays.stream(edgeLabels).distinct().map(label -> "`" + label.replace("`", "``") + "`").collect(Collectors.joining("|", edgeLabels.length > 0 ? ":" : "", ""));
+            // pattern based on direction
+            return (direction == Direction.IN ? "<-[" : "-[") + types + (direction == Direction.OUT ? "]->" : "]-");
+        }
+
+        @Override
+        public String toString() {
+            return direction.name().toLowerCase() + Arrays.toString(edgeLabels) + (hasContainers.isEmpty() ? "" : hasContainers.toString());
+        }
+    }
+
+    private final List<HasContainer> hasContainers = new ArrayList<>();
+    private final List<Hop> hops = new ArrayList<>();
+
+    private long limit = -1;
+
+    public Neo4JGraphStep(GraphStep<S, E> originalGraphStep) {
+        super(originalGraphStep.getTraversal(), originalGraphStep.getReturnClass(), originalGraphStep.isStartStep(), originalGraphStep.getIds());
+        // copy labels
+        originalGraphStep.getLabels().forEach(this::addLabel);
+        // iterator supplier
+        this.setIteratorSupplier(() -> (Iterator<E>)(Vertex.class.isAssignableFrom(returnClass) ? (hops.isEmpty() ? vertices(limit) : adjacentVertices()) : edges()));
+    }
+
+    Iterator<Vertex> vertices(long limit) {
+        // graph
+        Neo4JGraph graph = (Neo4JGraph)getTraversal().getGraph().orElseThrow(() -> new IllegalStateException("Traversal is not bound to a graph"));
+        // check identifiers were provided, filter in memory
+        if (ids != null && ids.length > 0)
+            return IteratorUtils.filter(graph.vertices(ids), vertex -> HasContainer.testAll(vertex, hasContainers));
+        // check there is nothing to push down to the server
+        if (hasContainers.isEmpty() && limit < 0)
+            return graph.vertices();
+        // statement parameters
+        Map<String, Object> parameters = new HashMap<>();
+        // generate predicates
+        List<String> predicates = predicates(graph, "n", parameters);
+        // limit can be evaluated in server only if all containers are evaluated in server
+        long serverLimit = predicates.size() == hasContainers.size() ? limit : -1;
+        // get current session
+        Neo4JSession session = graph.currentSession();
+        // transaction should be ready for io operations
+        graph.tx().readWrite();
+        // execute query, results will be evaluated with the has containers
+        return session.vertices(predicates.isEmpty() ? null : String.join(" AND ", predicates), parameters, serverLimit, vertex -> HasContainer.testAll(vertex, hasContainers));
+    }
+
+    private Iterator<Vertex> adjacentVertices() {
+        // graph
+        Neo4JGraph graph = (Neo4JGraph)getTraversal().getGraph().orElseThrow(() -> new IllegalStateException("Traversal is not bound to a graph"));
+        // get current session
+        Neo4JSession session = graph.currentSession();
+        // transaction should be ready for io operations
+        graph.tx().readWrite();
+        // last hop
+        Hop last = hops.get(hops.size() - 1);
+        // statement parameters
+        Map<String, Object> parameters = new HashMap<>();
+        // predicates for start vertices and each hop
+        List<List<String>> predicates = new ArrayList<>();
+        predicates.add(predicates(graph, "n0", hasContainers, parameters));
+        for (int index = 0; index < hops.size(); index++)
+            predicates.add(predicates(graph, "n" + (index + 1), hops.get(index).hasContainers, parameters));
+        // all containers (except the ones in the last hop) must be evaluated in server, session must be in sync with server
+        boolean compile = !session.hasPendingChanges() && predicates.get(0).size() == hasContainers.size();
+        for (int index = 0; compile && index < hops.size() - 1; index++)
+            compile = predicates.get(index + 1).size() == hops.get(index).hasContainers.size();
+        // check traversal can be executed in a single statement
+        if (compile) {
+            // limit can be evaluated in server only if all containers are evaluated in server
+            long serverLimit = predicates.get(hops.size()).size() == last.hasContainers.size() ? limit : -1;
+            // execute statement, results will be evaluated with the has containers in last hop
+            return IteratorUtils.filter(session.vertices(ids, hops.stream().map(Hop::relationshipPattern).collect(Collectors.toList()), predicates.stream().map(items -> items.isEmpty() ? null : String.join(" AND ", items)).collect(Collectors.toList()), parameters, serverLimit), vertex -> HasContainer.testAll(vertex, last.hasContainers));
+        }
+        // expand start vertices one hop at a time (breadth-first, one statement per hop)
+        List<Vertex> frontier = IteratorUtils.list(vertices(-1));
+        for (Hop hop : hops) {
+            // load adjacent edges for all vertices in frontier
+            session.prefetchEdges(frontier, hop.direction, hop.edgeLabels);
+            // expand frontier (edges are in memory)
+            frontier = frontier.stream().flatMap(vertex -> IteratorUtils.stream(vertex.vertices(hop.direction, hop.edgeLabels))).filter(vertex -> HasContainer.testAll(vertex, hop.hasContainers)).collect(Collectors.toList());
+        }
+        return frontier.iterator();
+    }
+
+    long count() {
+        // graph
+        Neo4JGraph graph = (Neo4JGraph)getTraversal().getGraph().orElseThrow(() -> new IllegalStateException("Traversal is not bound to a graph"));
+        // statement parameters
+        Map<String, Object> parameters = new HashMap<>();
+        // generate predicates
+        List<String> predicates = predicates(graph, "n", parameters);
+        // check all containers can be evaluated in server
+        if (predicates.size() != hasContainers.size())
+            return IteratorUtils.count(vertices(-1));
+        // get current session
+        Neo4JSession session = graph.currentSession();
+        // transaction should be ready for io operations
+        graph.tx().readWrite();
+        // count vertices in server
+        return session.countVertices(predicates.isEmpty() ? null : String.join(" AND ", predicates), parameters, vertex -> HasContainer.testAll(vertex, hasContainers));
+    }
+
+    Map<String, Long> countByLabel() {
+        // graph
+        Neo4JGraph graph = (Neo4JGraph)getTraversal().getGraph().orElseThrow(() -> new IllegalStateException("Traversal is not bound to a graph"));
+        // statement parameters
+        Map<String, Object> parameters = new HashMap<>();
+        // generate predicates
+        List<String> predicates = predicates(graph, "n", parameters);
+        // check all containers can be evaluated in server
+        if (predicates.size() != hasContainers.size()) {
+            // counts by label
+            Map<String, Long> counts = new HashMap<>();
+            // count in memory
+            vertices(-1).forEachRemaining(vertex -> counts.merge(vertex.label(), 1L, Long::sum));
+            // return counts
+            return counts;
+        }
+        // get current session
+        Neo4JSession session = graph.currentSession();
+        // transaction should be ready for io operations
+        graph.tx().readWrite();
+        // count vertices in server
+        return session.countVerticesByLabel(predicates.isEmpty() ? null : String.join(" AND ", predicates), parameters, vertex -> HasContainer.testAll(vertex, hasContainers));
+    }
+
+    private Iterator<? extends Element> edges() {
+        // graph
+        Neo4JGraph graph = (Neo4JGraph)getTraversal().getGraph().orElseThrow(() -> new IllegalStateException("Traversal is not bound to a graph"));
+        // filter in memory
+        return IteratorUtils.filter(graph.edges(ids), edge -> HasContainer.testAll(edge, hasContainers));
+    }
+
+    List<String> predicates(Neo4JGraph graph, String alias, Map<String, Object> parameters) {
+        // use start vertices containers
+        return predicates(graph, alias, hasContainers, parameters);
+    }
+
+    private static List<String> predicates(Neo4JGraph graph, String alias, List<HasContainer> hasContainers, Map<String, Object> parameters) {
+        Objects.requireNonNull(graph, "graph cannot be null");
+        Objects.requireNonNull(alias, "alias cannot be null");
+        Objects.requireNonNull(parameters, "parameters cannot be null");
+        // predicates
+        List<String> predicates = new ArrayList<>();
+        // loop containers
+        for (HasContainer hasContainer : hasContainers) {
+            // generate predicate (null if container must be evaluated in memory)
+            String predicate = T.label.getAccessor().equals(hasContainer.getKey()) ? labelPredicate(graph, alias, hasContainer, parameters) : propertyPredicate(graph, alias, hasContainer, parameters);
+            if (predicate != null)
+                predicates.add(predicate);
+        }
+        return predicates;
+    }
+
+    private static String labelPredicate(Neo4JGraph graph, String alias, HasContainer hasContainer, Map<String, Object> parameters) {
+        // labels appended by the graph that are not part of the vertex label
+        List<String> graphLabels = graph.vertexLabels().stream().filter(label -> !graph.getPartition().validateLabel(label)).sorted().collect(Collectors.toList());
+        // check predicate
+        if (hasContainer.getBiPredicate() == Compare.eq && hasContainer.getValue() instanceof String)
+            return labelPredicate(alias, (String)hasContainer.getValue(), graphLabels, parameters);
+        // check predicate
+        if (hasContainer.getBiPredicate() == Contains.within && hasContainer.getValue() instanceof Collection && !((Collection<?>)hasContainer.getValue()).isEmpty()) {
+            // predicates
+            List<String> predicates = new ArrayList<>();
+            // loop values
+            for (Object value : (Collection<?>)hasContainer.getValue()) {
+                // only string labels can be evaluated in server
+                if (!(value instanceof String))
+                    return null;
+                // append predicate
+                predicates.add(labelPredicate(alias, (String)value, graphLabels, parameters));
+            }
+            return "(" + String.join(" OR ", predicates) + ")";
+        }
+        // evaluate in memory
+        return null;
+    }
+
+    private static String labelPredicate(String alias, String label, List<String> graphLabels, Map<String, Object> parameters) {
+        // vertex labels
+        String[] labels = label.split(Neo4JVertex.LabelDelimiter);
+        // match labels
+        String match = alias + Arrays.stream(labels).map(item -> ":`" + item.replace("`", "``") + "`").collect(Collectors.joining(""));
+        // check graph labels must be ignored
+        if (!graphLabels.isEmpty()) {
+            // use parameter for graph labels
+            parameters.put("graphLabels", graphLabels);
+            // vertex must not have labels other than the requested ones
+            return "(" + match + " AND size([l IN labels(" + alias + ") WHERE NOT l IN $graphLabels]) = " + labels.length + ")";
+        }
+        // vertex must not have labels other than the requested ones
+        return "(" + match + " AND size(labels(" + alias + ")) = " + labels.length + ")";
+    }
+
+    private static String propertyPredicate(Neo4JGraph graph, String alias, HasContainer hasContainer, Map<String, Object> parameters) {
+        // property name
+        String key = hasContainer.getKey();
+        // tokens (id, key, value) are evaluated in memory
+        if (key == null || key.startsWith("~"))
+            return null;
+        // property value
+        Object value = hasContainer.getValue();
+        // property operand
+        String operand = alias + ".`" + key.replace("`", "``") + "`";
+        // multi-valued properties are stored as lists (predicate must match any of the values)
+        VertexProperty.Cardinality cardinality = graph.getVertexPropertyCardinality(key);
+        boolean multiValued = cardinality == VertexProperty.Cardinality.list || cardinality == VertexProperty.Cardinality.set;
+        // parameter name
+        String parameter = "p" + parameters.size();
+        // check predicate is a collection predicate
+        if (hasContainer.getBiPredicate() == Contains.within || hasContainer.getBiPredicate() == Contains.without) {
+            // values must be supported by server
+            if (!(value instanceof Collection) || !((Collection<?>)value).stream().allMatch(Neo4JGraphStep::isScalar))
+                return null;
+            // store parameter
+            parameters.put(parameter, new ArrayList<>((Collection<?>)value));
+            // predicate
+            String predicate = (hasContainer.getBiPredicate() == Contains.without ? "NOT " : "") + (multiValued ? "v" : operand) + " IN $" + parameter;
+            // check property is multi-valued
+            return multiValued ? "any(v IN " + operand + " WHERE " + predicate + ")" : predicate;
+        }
+        // operator
+        String operator = operators.get(hasContainer.getBiPredicate());
+        if (operator == null || !isScalar(value))
+            return null;
+        // store parameter
+        parameters.put(parameter, value);
+        // check property is multi-valued
+        if (multiValued)
+            return "any(v IN " + operand + " WHERE v " + operator + " $" + parameter + ")";
+        // predicate
+        return operand + " " + operator + " $" + parameter;
+    }
+
+    private static boolean isScalar(Object value) {
+        return value instanceof String || value instanceof Number || value instanceof Boolean;
+    }
+
+    void addHop(Direction direction, String... edgeLabels) {
+        Objects.requireNonNull(direction, "direction cannot be null");
+        Objects.requireNonNull(edgeLabels, "edgeLabels cannot be null");
+        // append hop, has containers added from now on are evaluated on adjacent vertices
+        hops.add(new Hop(direction, edgeLabels));
+    }
+
+    int getHopCount() {
+        return hops.size();
+    }
+
+    long getLimit() {
+        return limit;
+    }
+
+    void setLimit(long limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public List<HasContainer> getHasContainers() {
+        // containers evaluated on the elements emitted by this step
+        return Collections.unmodifiableList(hops.isEmpty() ? hasContainers : hops.get(hops.size() - 1).hasContainers);
+    }
+
+    @Override
+    public void addHasContainer(HasContainer hasContainer) {
+        Objects.requireNonNull(hasContainer, "hasContainer cannot be null");
+        // append container to start vertices or last hop
+        (hops.isEmpty() ? hasContainers : hops.get(hops.size() - 1).hasContainers).add(hasContainer);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, returnClass.getSimpleName().toLowerCase(), Arrays.toString(ids), hasContainers, hops, limit);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ hasContainers.hashCode() ^ hops.toString().hashCode() ^ Long.hashCode(limit);
+    }
+}
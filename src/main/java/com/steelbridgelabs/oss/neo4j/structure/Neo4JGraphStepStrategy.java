@@ -0,0 +1,136 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TokenTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.PathFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PathStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TreeStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.TreeSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link TraversalStrategy} that replaces {@link GraphStep} instances with {@link Neo4JGraphStep} instances, folding
+ * the {@link HasStep} instances, the adjacent {@link VertexStep} instances and the limit that follow the graph step so
+ * they can be evaluated in the server. Vertex counts (count() and groupCount().by(label)) are also evaluated in the
+ * server.
+ *
+ * @author Rogelio J. Baucells
+ */
+public final class Neo4JGraphStepStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final Neo4JGraphStepStrategy instance = new Neo4JGraphStepStrategy();
+
+    private static final List<Class> pathSteps = Arrays.asList(PathStep.class, PathFilterStep.class, TreeStep.class, TreeSideEffectStep.class, LambdaHolder.class);
+
+    private Neo4JGraphStepStrategy() {
+    }
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        // strategy is not supported on graph computer
+        if (TraversalHelper.onGraphComputer(traversal))
+            return;
+        // loop graph steps
+        for (GraphStep<?, ?> originalGraphStep : TraversalHelper.getStepsOfClass(GraphStep.class, traversal)) {
+            // create step
+            Neo4JGraphStep<?, ?> graphStep = new Neo4JGraphStep<>(originalGraphStep);
+            // replace step
+            TraversalHelper.replaceStep((Step)originalGraphStep, graphStep, traversal);
+            // fold has steps
+            Step<?, ?> currentStep = foldHasSteps(graphStep, traversal);
+            // fold adjacent vertex steps (traversal must not depend on the intermediate vertices)
+            while (graphStep.returnsVertex() && graphStep.getLabels().isEmpty() && currentStep instanceof VertexStep && ((VertexStep<?>)currentStep).returnsVertex() && !TraversalHelper.hasStepOfAssignableClassRecursively(pathSteps, TraversalHelper.getRootTraversal(traversal))) {
+                // append hop
+                graphStep.addHop(((VertexStep<?>)currentStep).getDirection(), ((VertexStep<?>)currentStep).getEdgeLabels());
+                // keep step labels (graph step emits the adjacent vertices)
+                TraversalHelper.copyLabels(currentStep, graphStep, false);
+                // remove step
+                traversal.removeStep(currentStep);
+                // fold has steps on adjacent vertices
+                currentStep = foldHasSteps(graphStep, traversal);
+            }
+            // check vertices can be counted in server (root traversal only)
+            if (graphStep.returnsVertex() && graphStep.getHopCount() == 0 && (graphStep.getIds() == null || graphStep.getIds().length == 0) && graphStep.getLabels().isEmpty() && currentStep.getLabels().isEmpty() && traversal.getStartStep() == graphStep && traversal.getParent() instanceof EmptyStep) {
+                // count()
+                if (currentStep instanceof CountGlobalStep) {
+                    // replace steps
+                    TraversalHelper.replaceStep((Step)graphStep, new Neo4JCountGlobalStep<>(graphStep), traversal);
+                    traversal.removeStep(currentStep);
+                    continue;
+                }
+                // groupCount().by(label)
+                if (currentStep instanceof GroupCountStep && ((GroupCountStep<?, ?>)currentStep).getLocalChildren().size() == 1 && ((GroupCountStep<?, ?>)currentStep).getLocalChildren().get(0) instanceof TokenTraversal && ((TokenTraversal<?, ?>)((GroupCountStep<?, ?>)currentStep).getLocalChildren().get(0)).getToken() == T.label) {
+                    // replace steps
+                    TraversalHelper.replaceStep((Step)graphStep, new Neo4JGroupCountStep<>(graphStep), traversal);
+                    traversal.removeStep(currentStep);
+                    continue;
+                }
+            }
+            // check limit (range step is kept, results not matching the has containers are discarded in memory)
+            if (currentStep instanceof RangeGlobalStep && ((RangeGlobalStep<?>)currentStep).getLowRange() == 0 && ((RangeGlobalStep<?>)currentStep).getHighRange() >= 0)
+                graphStep.setLimit(((RangeGlobalStep<?>)currentStep).getHighRange());
+        }
+    }
+
+    private static Step<?, ?> foldHasSteps(Neo4JGraphStep<?, ?> graphStep, Traversal.Admin<?, ?> traversal) {
+        // loop steps after graph step
+        Step<?, ?> currentStep = graphStep.getNextStep();
+        while (currentStep instanceof HasStep || currentStep instanceof NoOpBarrierStep) {
+            // check step is a has step
+            if (currentStep instanceof HasStep) {
+                // loop containers
+                for (HasContainer hasContainer : ((HasContainerHolder)currentStep).getHasContainers()) {
+                    // identifiers are processed by graph step (start vertices only)
+                    if (graphStep.getHopCount() != 0 || !GraphStep.processHasContainerIds(graphStep, hasContainer))
+                        graphStep.addHasContainer(hasContainer);
+                }
+                // keep step labels
+                TraversalHelper.copyLabels(currentStep, currentStep.getPreviousStep(), false);
+                // remove step
+                traversal.removeStep(currentStep);
+            }
+            currentStep = currentStep.getNextStep();
+        }
+        return currentStep;
+    }
+
+    public static Neo4JGraphStepStrategy instance() {
+        return instance;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.Map;
+
+/**
+ * Step that replaces a {@link Neo4JGraphStep} followed by a group count step (by label), the vertices are counted in
+ * the server. For example:
+ * <p>
+ * g.V().groupCount().by(label) -&gt; MATCH (n) RETURN [l IN labels(n) WHERE NOT l IN $graphLabels] AS labels, count(*)
+ *
+ * @author Rogelio J. Baucells
+ */
+public final class Neo4JGroupCountStep<S> extends AbstractStep<S, Map<String, Long>> {
+
+    private Neo4JGraphStep<?, ?> graphStep;
+    private boolean done = false;
+
+    public Neo4JGroupCountStep(Neo4JGraphStep<?, ?> graphStep) {
+        super(graphStep.getTraversal());
+        // store fields
+        this.graphStep = graphStep;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Traverser.Admin<Map<String, Long>> processNextStart() {
+        // check counts have been already emitted
+        if (done)
+            throw FastNoSuchElementException.instance();
+        // update flag
+        done = true;
+        // emit counts
+        return getTraversal().getTraverserGenerator().generate(graphStep.countByLabel(), (Step)this, 1L);
+    }
+
+    @Override
+    public void setTraversal(Traversal.Admin<?, ?> traversal) {
+        super.setTraversal(traversal);
+        // graph step must use the same traversal
+        graphStep.setTraversal(traversal);
+    }
+
+    @Override
+    public Neo4JGroupCountStep<S> clone() {
+        Neo4JGroupCountStep<S> clone = (Neo4JGroupCountStep<S>)super.clone();
+        // clone graph step
+        clone.graphStep = (Neo4JGraphStep<?, ?>)graphStep.clone();
+        return clone;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        // reset flag
+        done = false;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, graphStep);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ graphStep.hashCode();
+    }
+}
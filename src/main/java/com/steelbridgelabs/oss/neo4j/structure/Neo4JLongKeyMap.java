@@ -0,0 +1,418 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * {@link Map} implementation storing {@link Long} keys in an open addressing table (linear probing) of primitive values,
+ * avoiding boxed keys and entry objects for each mapping. Keys of any other type are stored in a regular {@link HashMap}.
+ * This class is not thread safe.
+ *
+ * @author Rogelio J. Baucells
+ */
+final class Neo4JLongKeyMap<V> extends AbstractMap<Object, V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final byte FREE = 0;
+    private static final byte USED = 1;
+    private static final byte REMOVED = 2;
+
+    private abstract class TableIterator<T> implements Iterator<T> {
+
+        private final Iterator<Map.Entry<Object, V>> iterator = others.entrySet().iterator();
+
+        private int expectedModificationCount = modificationCount;
+        private int next = advance(0);
+        private int current = -1;
+        private boolean other = false;
+
+        private int advance(int index) {
+            // find next used slot
+            while (index < states.length && states[index] != USED)
+                index++;
+            return index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < states.length || iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            // check map has not been modified
+            if (expectedModificationCount != modificationCount)
+                throw new ConcurrentModificationException();
+            // check we have slots in table
+            if (next < states.length) {
+                // current slot
+                current = next;
+                // move to next slot
+                next = advance(next + 1);
+                // return element
+                return element(current);
+            }
+            // check we have other keys
+            if (!iterator.hasNext())
+                throw new NoSuchElementException();
+            // iterating other keys
+            current = -1;
+            other = true;
+            // return element
+            return element(iterator.next());
+        }
+
+        @Override
+        public void remove() {
+            // check slot in table
+            if (current >= 0) {
+                // remove slot
+                removeSlot(current);
+                // update fields
+                current = -1;
+                expectedModificationCount = modificationCount;
+                return;
+            }
+            // check other keys
+            if (!other)
+                throw new IllegalStateException();
+            // remove entry
+            iterator.remove();
+            // update field
+            other = false;
+        }
+
+        protected abstract T element(int index);
+
+        protected abstract T element(Map.Entry<Object, V> entry);
+    }
+
+    private final Map<Object, V> others = new HashMap<>();
+
+    private long[] keys;
+    private Object[] values;
+    private byte[] states;
+    private int size = 0;
+    private int occupied = 0;
+    private int modificationCount = 0;
+
+    Neo4JLongKeyMap() {
+        // allocate table
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        // create arrays
+        keys = new long[capacity];
+        values = new Object[capacity];
+        states = new byte[capacity];
+    }
+
+    private static int hash(long key) {
+        // mix bits (sequential identifiers must not cluster in table)
+        long hash = key * 0x9E3779B97F4A7C15L;
+        // fold to integer
+        return (int)(hash ^ (hash >>> 32));
+    }
+
+    private int find(long key) {
+        // table mask
+        int mask = states.length - 1;
+        // probe table until we find a free slot
+        for (int index = hash(key) & mask; states[index] != FREE; index = (index + 1) & mask) {
+            // check key
+            if (states[index] == USED && keys[index] == key)
+                return index;
+        }
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        // current arrays
+        long[] currentKeys = keys;
+        Object[] currentValues = values;
+        byte[] currentStates = states;
+        // allocate table
+        allocate(capacity);
+        // table mask
+        int mask = capacity - 1;
+        // copy used slots
+        for (int index = 0; index < currentStates.length; index++) {
+            // check slot
+            if (currentStates[index] == USED) {
+                // find free slot
+                int slot = hash(currentKeys[index]) & mask;
+                while (states[slot] != FREE)
+                    slot = (slot + 1) & mask;
+                // copy slot
+                keys[slot] = currentKeys[index];
+                values[slot] = currentValues[index];
+                states[slot] = USED;
+            }
+        }
+        // removed slots are gone
+        occupied = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V removeSlot(int index) {
+        // value
+        V value = (V)values[index];
+        // mark slot as removed (keeps probe sequences intact)
+        states[index] = REMOVED;
+        values[index] = null;
+        // update fields
+        size--;
+        modificationCount++;
+        // return value
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return size + others.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0 && others.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        // check key type
+        if (key instanceof Long)
+            return find((Long)key) >= 0;
+        // other keys
+        return others.containsKey(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        // check key type
+        if (key instanceof Long) {
+            // find slot
+            int index = find((Long)key);
+            // return value
+            return index >= 0 ? (V)values[index] : null;
+        }
+        // other keys
+        return others.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(Object key, V value) {
+        // check key type
+        if (!(key instanceof Long))
+            return others.put(key, value);
+        // long key
+        long id = (Long)key;
+        // find slot
+        int index = find(id);
+        if (index >= 0) {
+            // previous value
+            V previous = (V)values[index];
+            // replace value
+            values[index] = value;
+            // return previous value
+            return previous;
+        }
+        // grow table (or remove deleted slots) if needed, keep load factor under 75%
+        if ((occupied + 1) * 4L >= states.length * 3L)
+            rehash(size * 4L >= states.length ? states.length * 2 : states.length);
+        // table mask
+        int mask = states.length - 1;
+        // find first slot not in use
+        index = hash(id) & mask;
+        while (states[index] == USED)
+            index = (index + 1) & mask;
+        // check slot was never used
+        if (states[index] == FREE)
+            occupied++;
+        // store key & value
+        keys[index] = id;
+        values[index] = value;
+        states[index] = USED;
+        // update fields
+        size++;
+        modificationCount++;
+        // no previous value
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        // check key type
+        if (key instanceof Long) {
+            // find slot
+            int index = find((Long)key);
+            // remove slot
+            return index >= 0 ? removeSlot(index) : null;
+        }
+        // other keys
+        return others.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        // check table is large
+        if (states.length > DEFAULT_CAPACITY) {
+            // release memory
+            allocate(DEFAULT_CAPACITY);
+        }
+        else {
+            // clear arrays
+            Arrays.fill(values, null);
+            Arrays.fill(states, FREE);
+        }
+        // update fields
+        size = 0;
+        occupied = 0;
+        modificationCount++;
+        // clear other keys
+        others.clear();
+    }
+
+    @Override
+    public Set<Object> keySet() {
+        return new AbstractSet<Object>() {
+
+            @Override
+            public Iterator<Object> iterator() {
+                return new TableIterator<Object>() {
+
+                    @Override
+                    protected Object element(int index) {
+                        return keys[index];
+                    }
+
+                    @Override
+                    protected Object element(Map.Entry<Object, V> entry) {
+                        return entry.getKey();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return Neo4JLongKeyMap.this.size();
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return containsKey(key);
+            }
+
+            @Override
+            public boolean remove(Object key) {
+                // check key exists (value could be null)
+                if (containsKey(key)) {
+                    // remove key
+                    Neo4JLongKeyMap.this.remove(key);
+                    return true;
+                }
+                return false;
+            }
+
+            @Override
+            public void clear() {
+                Neo4JLongKeyMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+
+            @Override
+            public Iterator<V> iterator() {
+                return new TableIterator<V>() {
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    protected V element(int index) {
+                        return (V)values[index];
+                    }
+
+                    @Override
+                    protected V element(Map.Entry<Object, V> entry) {
+                        return entry.getValue();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return Neo4JLongKeyMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                Neo4JLongKeyMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<Object, V>> entrySet() {
+        return new AbstractSet<Map.Entry<Object, V>>() {
+
+            @Override
+            public Iterator<Map.Entry<Object, V>> iterator() {
+                return new TableIterator<Map.Entry<Object, V>>() {
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    protected Map.Entry<Object, V> element(int index) {
+                        return new AbstractMap.SimpleImmutableEntry<>(keys[index], (V)values[index]);
+                    }
+
+                    @Override
+                    protected Map.Entry<Object, V> element(Map.Entry<Object, V> entry) {
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return Neo4JLongKeyMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                Neo4JLongKeyMap.this.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compact storage for the properties of a {@link Neo4JVertex}. Keys are interned and stored in a flat array, values with
+ * single cardinality are stored inline (no collection per key), list and set values are stored in collections. The store
+ * is not copy-on-write, properties are modified in place: the value a key had before its first modification in a
+ * transaction is recorded in an undo log, the log is allocated on the first modification and released on commit or
+ * rollback.
+ *
+ * @author Rogelio J. Baucells
+ */
+final class Neo4JPropertyStore {
+
+    private static final class Entry {
+
+        private final VertexProperty.Cardinality cardinality;
+        private final Object value;
+
+        private Entry(VertexProperty.Cardinality cardinality, Object value) {
+            this.cardinality = cardinality;
+            this.value = value;
+        }
+    }
+
+    private static final String[] EMPTY_KEYS = new String[0];
+    private static final Object[] EMPTY_VALUES = new Object[0];
+    private static final VertexProperty.Cardinality[] EMPTY_CARDINALITIES = new VertexProperty.Cardinality[0];
+
+    private String[] keys = EMPTY_KEYS;
+    private Object[] values = EMPTY_VALUES;
+    private VertexProperty.Cardinality[] cardinalities = EMPTY_CARDINALITIES;
+    private int size = 0;
+    private Neo4JUndoLog<Entry> undo = null;
+
+    Neo4JPropertyStore() {
+    }
+
+    Neo4JPropertyStore(int capacity) {
+        // allocate arrays
+        ensureCapacity(capacity);
+    }
+
+    private void ensureCapacity(int capacity) {
+        // check arrays need to grow
+        if (capacity > keys.length) {
+            // resize arrays
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+    }
+
+    private int indexOf(String key) {
+        // linear search (vertices have a small number of properties)
+        for (int index = 0; index < size; index++) {
+            if (keys[index].equals(key))
+                return index;
+        }
+        return -1;
+    }
+
+    private void set(String key, VertexProperty.Cardinality cardinality, Object value) {
+        // find key
+        int index = indexOf(key);
+        if (index < 0) {
+            // grow arrays if needed
+            ensureCapacity(size == keys.length ? Math.max(4, size + (size >> 1)) : size);
+            // append key (interned, keys are shared by all vertices)
+            index = size++;
+            keys[index] = key.intern();
+        }
+        // store value
+        values[index] = value;
+        cardinalities[index] = cardinality;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    VertexProperty.Cardinality cardinality(String key) {
+        Objects.requireNonNull(key, "key cannot be null");
+        // find key
+        int index = indexOf(key);
+        // cardinality
+        return index >= 0 ? cardinalities[index] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    Collection<VertexProperty> get(String key) {
+        Objects.requireNonNull(key, "key cannot be null");
+        // find key
+        int index = indexOf(key);
+        if (index >= 0) {
+            // check cardinality
+            return cardinalities[index] == VertexProperty.Cardinality.single ? Collections.singletonList((VertexProperty)values[index]) : (Collection<VertexProperty>)values[index];
+        }
+        return null;
+    }
+
+    void put(String key, VertexProperty property) {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(property, "property cannot be null");
+        // store property inline
+        set(key, VertexProperty.Cardinality.single, property);
+    }
+
+    void put(String key, VertexProperty.Cardinality cardinality, Collection<VertexProperty> properties) {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(cardinality, "cardinality cannot be null");
+        Objects.requireNonNull(properties, "properties cannot be null");
+        // store collection
+        set(key, cardinality, properties);
+    }
+
+    boolean remove(String key) {
+        Objects.requireNonNull(key, "key cannot be null");
+        // find key
+        int index = indexOf(key);
+        if (index >= 0) {
+            // shift entries after index
+            int count = size - index - 1;
+            System.arraycopy(keys, index + 1, keys, index, count);
+            System.arraycopy(values, index + 1, values, index, count);
+            System.arraycopy(cardinalities, index + 1, cardinalities, index, count);
+            // release last entry
+            size--;
+            keys[size] = null;
+            values[size] = null;
+            cardinalities[size] = null;
+            return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Stream<VertexProperty> stream(int index) {
+        // check cardinality
+        return cardinalities[index] == VertexProperty.Cardinality.single ? Stream.of((VertexProperty)values[index]) : ((Collection<VertexProperty>)values[index]).stream();
+    }
+
+    Stream<VertexProperty> stream() {
+        // all properties
+        return IntStream.range(0, size).boxed().flatMap(this::stream);
+    }
+
+    Stream<VertexProperty> stream(String key) {
+        Objects.requireNonNull(key, "key cannot be null");
+        // find key
+        int index = indexOf(key);
+        // properties for key
+        return index >= 0 ? stream(index) : Stream.empty();
+    }
+
+    private Object value(int index) {
+        // check cardinality
+        if (cardinalities[index] == VertexProperty.Cardinality.single) {
+            // single value
+            return ((VertexProperty)values[index]).value();
+        }
+        // list of values
+        return stream(index).map(Property::value).collect(Collectors.toList());
+    }
+
+    Map<String, Object> values() {
+        // create map
+        Map<String, Object> map = new HashMap<>(size * 2);
+        // process properties
+        for (int index = 0; index < size; index++)
+            map.put(keys[index], value(index));
+        return map;
+    }
+
+    Map<String, Object> modifiedValues() {
+        // check keys were modified in transaction
+        if (undo == null)
+            return Collections.emptyMap();
+        // create map
+        Map<String, Object> map = new HashMap<>();
+        // process keys modified in transaction
+        for (String key : undo.keys()) {
+            // find key
+            int index = indexOf(key);
+            // current value (null removes the property)
+            map.put(key, index >= 0 ? value(index) : null);
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    void track(String key) {
+        Objects.requireNonNull(key, "key cannot be null");
+        // allocate undo log on first modification in transaction
+        if (undo == null)
+            undo = new Neo4JUndoLog<>();
+        // check key was already modified in transaction
+        if (!undo.contains(key)) {
+            // find key
+            int index = indexOf(key);
+            if (index >= 0) {
+                // value
+                Object value = values[index];
+                // copy collections (they are modified in place)
+                if (cardinalities[index] == VertexProperty.Cardinality.list) {
+                    // copy list
+                    value = new ArrayList<>((Collection<VertexProperty>)value);
+                }
+                else if (cardinalities[index] == VertexProperty.Cardinality.set) {
+                    // copy set
+                    value = new HashSet<>((Collection<VertexProperty>)value);
+                }
+                // record entry
+                undo.record(key, new Entry(cardinalities[index], value));
+            }
+            else {
+                // key did not exist
+                undo.record(key, null);
+            }
+        }
+    }
+
+    boolean isModified() {
+        return undo != null && !undo.isEmpty();
+    }
+
+    void commit() {
+        // discard undo log
+        undo = null;
+    }
+
+    void rollback() {
+        // check keys were modified in transaction
+        if (undo == null)
+            return;
+        // undo log (released before replaying it)
+        Neo4JUndoLog<Entry> log = undo;
+        undo = null;
+        // replay undo log
+        log.replay((key, entry) -> {
+            // check key existed before modification
+            if (entry != null) {
+                // restore entry
+                set(key, entry.cardinality, entry.value);
+            }
+            else {
+                // remove key
+                remove(key);
+            }
+        });
+    }
+}
@@ -25,30 +25,42 @@ import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.neo4j.driver.Bookmark;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Result;
 import org.neo4j.driver.Session;
 import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
 import org.neo4j.driver.exceptions.ClientException;
+import org.neo4j.driver.internal.types.TypeConstructor;
+import org.neo4j.driver.internal.types.TypeRepresentation;
 import org.neo4j.driver.types.Node;
-import org.neo4j.driver.types.Relationship;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -58,6 +70,52 @@ import java.util.stream.StreamSupport;
  */
 class Neo4JSession implements AutoCloseable {
 
+    private static class StreamingIterator<T> implements Iterator<T> {
+
+        private final Iterator<T> memory;
+        private final Iterator<T> query;
+        private final Runnable completion;
+
+        private boolean completed = false;
+
+        StreamingIterator(Iterator<T> memory, Iterator<T> query, Runnable completion) {
+            // store fields
+            this.memory = memory;
+            this.query = query;
+            this.completion = completion;
+        }
+
+        @Override
+        public boolean hasNext() {
+            // elements in memory first
+            if (memory.hasNext())
+                return true;
+            // pull next record from server
+            if (query.hasNext())
+                return true;
+            // check we need to notify completion (once)
+            if (!completed) {
+                // update flag
+                completed = true;
+                // notify
+                completion.run();
+            }
+            return false;
+        }
+
+        @Override
+        public T next() {
+            // check there are more elements
+            if (!hasNext())
+                throw new NoSuchElementException();
+            // elements in memory first
+            if (memory.hasNext())
+                return memory.next();
+            // next record from server
+            return query.next();
+        }
+    }
+
     private static final Logger logger = LoggerFactory.getLogger(Neo4JSession.class);
 
     private final Neo4JGraph graph;
@@ -65,24 +123,42 @@ class Neo4JSession implements AutoCloseable {
     private final Session session;
     private final Neo4JElementIdProvider<?> vertexIdProvider;
     private final Neo4JElementIdProvider<?> edgeIdProvider;
-    private final Map<Object, Neo4JVertex> vertices = new HashMap<>();
-    private final Map<Object, Neo4JEdge> edges = new HashMap<>();
-    private final Set<Object> deletedVertices = new HashSet<>();
-    private final Set<Object> deletedEdges = new HashSet<>();
+    private Map<Object, Neo4JVertex> vertices;
+    private Map<Object, Neo4JEdge> edges;
+    private final Set<Object> deletedVertices;
+    private final Set<Object> deletedEdges;
     private final Set<Neo4JVertex> transientVertices = new HashSet<>();
     private final Set<Neo4JEdge> transientEdges = new HashSet<>();
-    private final Map<Object, Neo4JVertex> transientVertexIndex = new HashMap<>();
-    private final Map<Object, Neo4JEdge> transientEdgeIndex = new HashMap<>();
+    private final Map<Object, Neo4JVertex> transientVertexIndex;
+    private final Map<Object, Neo4JEdge> transientEdgeIndex;
     private final Set<Neo4JVertex> vertexUpdateQueue = new HashSet<>();
     private final Set<Neo4JEdge> edgeUpdateQueue = new HashSet<>();
     private final Set<Neo4JVertex> vertexDeleteQueue = new HashSet<>();
     private final Set<Neo4JEdge> edgeDeleteQueue = new HashSet<>();
+    private final Set<Neo4JVertex> hollowVertices = new HashSet<>();
+    private final Set<Neo4JEdge> hollowEdges = new HashSet<>();
+    private final Set<Neo4JVertex> pinnedVertices = new HashSet<>();
+    private final Set<Object> modifiedVertexIds;
+    private final List<Runnable> pendingCommands = new LinkedList<>();
     private final boolean readonly;
 
     private org.neo4j.driver.Transaction transaction;
+    private Set<String> transactionBookmarks = Collections.emptySet();
+    private Neo4JElementCache transactionCache = null;
+    private long transactionEpoch = 0;
+    private boolean userStatementsExecuted = false;
     private boolean verticesLoaded = false;
     private boolean edgesLoaded = false;
     private boolean profilerEnabled = false;
+    private int batchSize = 0;
+    private boolean pipelineEnabled = false;
+    private boolean streamingEnabled = false;
+    private int flushThreshold = 0;
+    private boolean flushed = false;
+    private boolean lazyPropertiesEnabled = false;
+    private int identityMapCapacity = 0;
+    private long evictedVertexCount = 0;
+    private long evictedEdgeCount = 0;
 
     Neo4JSession(Neo4JGraph graph, Session session, Neo4JElementIdProvider<?> vertexIdProvider, Neo4JElementIdProvider<?> edgeIdProvider, boolean readonly) {
         Objects.requireNonNull(graph, "graph cannot be null");
@@ -99,12 +175,61 @@ class Neo4JSession implements AutoCloseable {
         this.vertexIdProvider = vertexIdProvider;
         this.edgeIdProvider = edgeIdProvider;
         this.readonly = readonly;
+        // identity maps (access order is used to evict least recently used elements)
+        this.vertices = identityMap(vertexIdProvider, Collections.emptyMap(), false);
+        this.edges = identityMap(edgeIdProvider, Collections.emptyMap(), false);
+        // indexes by id
+        this.deletedVertices = Collections.newSetFromMap(createMap(vertexIdProvider, HashMap::new));
+        this.deletedEdges = Collections.newSetFromMap(createMap(edgeIdProvider, HashMap::new));
+        this.transientVertexIndex = createMap(vertexIdProvider, HashMap::new);
+        this.transientEdgeIndex = createMap(edgeIdProvider, HashMap::new);
+        this.modifiedVertexIds = Collections.newSetFromMap(createMap(vertexIdProvider, HashMap::new));
+    }
+
+    private static <V> Map<Object, V> createMap(Neo4JElementIdProvider<?> provider, Supplier<Map<Object, V>> supplier) {
+        // use map without boxed keys if provider uses long identifiers
+        return provider.usesLongIdentifiers() ? new Neo4JLongKeyMap<>() : supplier.get();
+    }
+
+    private static <V> Map<Object, V> identityMap(Neo4JElementIdProvider<?> provider, Map<Object, V> current, boolean bounded) {
+        // bounded maps must keep access order (least recently used elements are evicted first)
+        if (bounded) {
+            // check current map keeps access order
+            if (current instanceof LinkedHashMap)
+                return current;
+            // create map in access order
+            Map<Object, V> map = new LinkedHashMap<>(16, 0.75f, true);
+            map.putAll(current);
+            return map;
+        }
+        // unbounded maps do not track access order, check provider uses long identifiers
+        if (provider.usesLongIdentifiers()) {
+            // check current map uses long keys
+            if (current instanceof Neo4JLongKeyMap)
+                return current;
+            // unbounded map without boxed keys
+            Map<Object, V> map = new Neo4JLongKeyMap<>();
+            map.putAll(current);
+            return map;
+        }
+        // check current map is a plain hash map (access ordered maps reorder entries on every lookup)
+        if (current.getClass() == HashMap.class)
+            return current;
+        // unbounded map
+        return new HashMap<>(current);
     }
 
     public org.neo4j.driver.Transaction beginTransaction() {
         // check we have a transaction already in progress
         if (transaction != null && transaction.isOpen())
             throw Transaction.Exceptions.transactionAlreadyOpen();
+        // bookmarks the transaction is started with (reads are causally consistent with these bookmarks)
+        transactionBookmarks = bookmarkValues(session.lastBookmark());
+        // second level cache epoch (snapshots of elements invalidated after this point cannot be stored)
+        transactionCache = graph.elementCache();
+        transactionEpoch = transactionCache != null ? transactionCache.epoch() : 0;
+        // reset flag
+        userStatementsExecuted = false;
         // begin transaction
         transaction = session.beginTransaction();
         // log information
@@ -130,29 +255,20 @@ class Neo4JSession implements AutoCloseable {
             transaction.commit();
             // close neo4j transaction
             transaction.close();
-            // commit transient vertices
-            transientVertices.forEach(Neo4JVertex::commit);
-            // commit transient edges
-            transientEdges.forEach(Neo4JEdge::commit);
-            // commit dirty vertices
-            vertexUpdateQueue.forEach(Neo4JVertex::commit);
-            // commit dirty edges
-            edgeUpdateQueue.forEach(Neo4JEdge::commit);
-            // move transient vertices to vertices
-            transientVertices.forEach(vertex -> vertices.put(vertex.id(), vertex));
-            // move transient edges to edges
-            transientEdges.forEach(edge -> edges.put(edge.id(), edge));
-            // clean internal structures
-            deletedEdges.clear();
-            edgeDeleteQueue.clear();
-            deletedVertices.clear();
-            vertexDeleteQueue.clear();
-            transientEdges.clear();
-            transientVertices.clear();
-            transientVertexIndex.clear();
-            transientEdgeIndex.clear();
-            vertexUpdateQueue.clear();
-            edgeUpdateQueue.clear();
+            // flushed elements are now in sync with database
+            releaseFlushedElements();
+            // second level cache
+            Neo4JElementCache cache = graph.elementCache();
+            if (cache != null) {
+                // snapshots of vertices modified in transaction are not valid anymore, publish commit bookmark
+                cache.publish(modifiedVertexIds, bookmarkValues(session.lastBookmark()));
+                // statements provided by the user could modify any element
+                if (userStatementsExecuted && !readonly)
+                    cache.invalidate();
+            }
+            modifiedVertexIds.clear();
+            // reset flag
+            flushed = false;
             // log information
             if (logger.isDebugEnabled())
                 logger.debug("Successfully committed transaction [{}]", transaction.hashCode());
@@ -161,6 +277,36 @@ class Neo4JSession implements AutoCloseable {
         }
     }
 
+    private void releaseFlushedElements() {
+        // keep track of vertices modified in transaction
+        vertexUpdateQueue.forEach(vertex -> modifiedVertexIds.add(vertex.id()));
+        modifiedVertexIds.addAll(deletedVertices);
+        // commit transient vertices
+        transientVertices.forEach(Neo4JVertex::commit);
+        // commit transient edges
+        transientEdges.forEach(Neo4JEdge::commit);
+        // commit dirty vertices
+        vertexUpdateQueue.forEach(Neo4JVertex::commit);
+        // commit dirty edges
+        edgeUpdateQueue.forEach(Neo4JEdge::commit);
+        // move transient vertices to vertices
+        transientVertices.forEach(vertex -> vertices.put(vertex.id(), vertex));
+        // move transient edges to edges
+        transientEdges.forEach(edge -> edges.put(edge.id(), edge));
+        // clean internal structures
+        deletedEdges.clear();
+        edgeDeleteQueue.clear();
+        deletedVertices.clear();
+        vertexDeleteQueue.clear();
+        transientEdges.clear();
+        transientVertices.clear();
+        transientVertexIndex.clear();
+        transientEdgeIndex.clear();
+        vertexUpdateQueue.clear();
+        edgeUpdateQueue.clear();
+        pinnedVertices.clear();
+    }
+
     void rollback() {
         // check we have an open transaction
         if (transaction != null) {
@@ -206,6 +352,19 @@ class Neo4JSession implements AutoCloseable {
             transientEdgeIndex.clear();
             vertexUpdateQueue.clear();
             edgeUpdateQueue.clear();
+            pinnedVertices.clear();
+            modifiedVertexIds.clear();
+            // check elements were flushed to the transaction being rolled back
+            if (flushed) {
+                // elements in memory could reflect changes that were never committed, evict them
+                vertices.clear();
+                edges.clear();
+                // reset loaded flags
+                verticesLoaded = false;
+                edgesLoaded = false;
+                // reset flag
+                flushed = false;
+            }
             // log information
             if (logger.isDebugEnabled())
                 logger.debug("Successfully rolled-back transaction [{}]", transaction.hashCode());
@@ -232,8 +391,15 @@ class Neo4JSession implements AutoCloseable {
         return session.lastBookmark();
     }
 
+    private static Set<String> bookmarkValues(Bookmark bookmark) {
+        // bookmark values (session could be created without bookmarks)
+        return bookmark != null ? new HashSet<>(bookmark.values()) : Collections.emptySet();
+    }
+
     Neo4JVertex addVertex(Object... keyValues) {
         Objects.requireNonNull(keyValues, "keyValues cannot be null");
+        // flush pending changes if needed (statement boundary)
+        autoFlush();
         // verify parameters are key/value pairs
         ElementHelper.legalPropertyKeyValueArray(keyValues);
         // id cannot be present
@@ -258,6 +424,8 @@ class Neo4JSession implements AutoCloseable {
         Objects.requireNonNull(out, "out cannot be null");
         Objects.requireNonNull(in, "in cannot be null");
         Objects.requireNonNull(keyValues, "keyValues cannot be null");
+        // flush pending changes if needed (statement boundary)
+        autoFlush();
         // validate label
         ElementHelper.validateLabel(label);
         // verify parameters are key/value pairs
@@ -269,6 +437,9 @@ class Neo4JSession implements AutoCloseable {
         Neo4JEdge edge = new Neo4JEdge(graph, this, edgeIdProvider, label, out, in);
         // register transient edge (before processing properties to avoid having a transient edge in update queue)
         transientEdges.add(edge);
+        // in memory adjacency of both vertices differs from the server until the edge is flushed
+        pinnedVertices.add(out);
+        pinnedVertices.add(in);
         // attach properties
         ElementHelper.attachProperties(edge, keyValues);
         // register transient edge with adjacent vertices
@@ -301,18 +472,169 @@ class Neo4JSession implements AutoCloseable {
         this.profilerEnabled = profilerEnabled;
     }
 
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    void setBatchSize(int batchSize) {
+        // validate argument
+        if (batchSize < 0)
+            throw new IllegalArgumentException("batchSize cannot be negative");
+        // store value
+        this.batchSize = batchSize;
+    }
+
+    int getIdentityMapCapacity() {
+        return identityMapCapacity;
+    }
+
+    void setIdentityMapCapacity(int identityMapCapacity) {
+        // validate argument
+        if (identityMapCapacity < 0)
+            throw new IllegalArgumentException("identityMapCapacity cannot be negative");
+        // store value
+        this.identityMapCapacity = identityMapCapacity;
+        // identity maps (access order only if bounded, plain hash maps otherwise)
+        vertices = identityMap(vertexIdProvider, vertices, identityMapCapacity > 0);
+        edges = identityMap(edgeIdProvider, edges, identityMapCapacity > 0);
+    }
+
+    boolean isStreamingEnabled() {
+        return streamingEnabled;
+    }
+
+    void setStreamingEnabled(boolean streamingEnabled) {
+        this.streamingEnabled = streamingEnabled;
+    }
+
+    int getFlushThreshold() {
+        return flushThreshold;
+    }
+
+    void setFlushThreshold(int flushThreshold) {
+        // validate argument
+        if (flushThreshold < 0)
+            throw new IllegalArgumentException("flushThreshold cannot be negative");
+        // store value
+        this.flushThreshold = flushThreshold;
+    }
+
+    void autoFlush() {
+        // check pending changes exceed threshold (called before a new operation starts, never while elements are being iterated)
+        if (flushThreshold > 0 && transaction != null && pendingElementCount() >= flushThreshold) {
+            // log information
+            if (logger.isDebugEnabled())
+                logger.debug("Flushing pending changes in transaction [{}]", transaction.hashCode());
+            // flush session
+            flush();
+            // flushed elements are in sync with the open transaction
+            releaseFlushedElements();
+            // elements must be evicted from memory on rollback
+            flushed = true;
+        }
+    }
+
+    private int pendingElementCount() {
+        return transientVertices.size() + transientEdges.size() + vertexUpdateQueue.size() + edgeUpdateQueue.size() + vertexDeleteQueue.size() + edgeDeleteQueue.size();
+    }
+
+    boolean hasPendingChanges() {
+        return pendingElementCount() != 0 || !deletedVertices.isEmpty() || !deletedEdges.isEmpty();
+    }
+
+    boolean isLazyPropertiesEnabled() {
+        return lazyPropertiesEnabled;
+    }
+
+    void setLazyPropertiesEnabled(boolean lazyPropertiesEnabled) {
+        this.lazyPropertiesEnabled = lazyPropertiesEnabled;
+    }
+
+    boolean isPipelineEnabled() {
+        return pipelineEnabled;
+    }
+
+    void setPipelineEnabled(boolean pipelineEnabled) {
+        this.pipelineEnabled = pipelineEnabled;
+    }
+
+    long countVertices(String predicate, Map<String, Object> parameters, Predicate<Vertex> filter) {
+        Objects.requireNonNull(parameters, "parameters cannot be null");
+        Objects.requireNonNull(filter, "filter cannot be null");
+        // flush pending changes if needed (statement boundary)
+        autoFlush();
+        // check we have all vertices already loaded
+        if (verticesLoaded) {
+            // no need to execute query, all items in memory
+            return Stream.concat(transientVertices.stream(), vertices.values().stream()).filter(filter).count();
+        }
+        // statement parameters
+        Map<String, Object> statementParameters = new HashMap<>(parameters);
+        // execute statement
+        Result result = executeStatement(countStatement(predicate, statementParameters, "count(*)"), statementParameters);
+        // count in server
+        long count = result.single().get(0).asLong();
+        // log information
+        ResultSummaryLogger.log(result.consume());
+        // add vertices in memory (transient and modified)
+        return count + Stream.concat(transientVertices.stream(), vertexUpdateQueue.stream()).filter(filter).count();
+    }
+
+    Map<String, Long> countVerticesByLabel(String predicate, Map<String, Object> parameters, Predicate<Vertex> filter) {
+        Objects.requireNonNull(parameters, "parameters cannot be null");
+        Objects.requireNonNull(filter, "filter cannot be null");
+        // flush pending changes if needed (statement boundary)
+        autoFlush();
+        // counts by label
+        Map<String, Long> counts = new HashMap<>();
+        // check we have all vertices already loaded
+        if (verticesLoaded) {
+            // no need to execute query, all items in memory
+            Stream.concat(transientVertices.stream(), vertices.values().stream()).filter(filter).forEach(vertex -> counts.merge(vertex.label(), 1L, Long::sum));
+            // return counts
+            return counts;
+        }
+        // statement parameters
+        Map<String, Object> statementParameters = new HashMap<>(parameters);
+        // labels appended by the graph that are not part of the vertex label
+        statementParameters.put("graphLabels", graph.vertexLabels().stream().filter(label -> !partition.validateLabel(label)).collect(Collectors.toList()));
+        // execute statement
+        Result result = executeStatement(countStatement(predicate, statementParameters, "[l IN labels(n) WHERE NOT l IN $graphLabels] AS labels, count(*)"), statementParameters);
+        // process records (labels are returned in any order)
+        result.forEachRemaining(record -> counts.merge(record.get(0).asList(Value::asString).stream().sorted().collect(Collectors.joining(Neo4JVertex.LabelDelimiter)), record.get(1).asLong(), Long::sum));
+        // log information
+        ResultSummaryLogger.log(result.consume());
+        // add vertices in memory (transient and modified)
+        Stream.concat(transientVertices.stream(), vertexUpdateQueue.stream()).filter(filter).forEach(vertex -> counts.merge(vertex.label(), 1L, Long::sum));
+        // return counts
+        return counts;
+    }
+
+    private String countStatement(String predicate, Map<String, Object> parameters, String projection) {
+        // vertices deleted or modified in session are excluded from server counts
+        List<Object> excluded = Stream.concat(deletedVertices.stream(), vertexUpdateQueue.stream().map(Neo4JVertex::id)).collect(Collectors.toList());
+        if (!excluded.isEmpty())
+            parameters.put("excluded", excluded);
+        // combine predicates
+        String where = Stream.of(partition.vertexMatchPredicate("n"), predicate, excluded.isEmpty() ? null : "NOT " + vertexIdProvider.matchPredicateOperand("n") + " IN $excluded").filter(Objects::nonNull).collect(Collectors.joining(" AND "));
+        // statement
+        return "MATCH " + generateVertexMatchPattern("n") + (!where.isEmpty() ? " WHERE " + where : "") + " RETURN " + projection;
+    }
+
     public Iterator<Vertex> vertices(Object[] ids) {
         Objects.requireNonNull(ids, "ids cannot be null");
         // verify identifiers
         verifyIdentifiers(Vertex.class, ids);
+        // flush pending changes if needed (statement boundary)
+        autoFlush();
         // check we have all vertices already loaded
         if (!verticesLoaded) {
             // check ids
             if (ids.length > 0) {
                 // parameters as a stream
                 Set<Object> identifiers = Arrays.stream(ids).map(id -> processIdentifier(vertexIdProvider, id)).collect(Collectors.toSet());
-                // filter ids, remove ids already in memory (only ids that might exist on server)
-                List<Object> filter = identifiers.stream().filter(id -> !vertices.containsKey(id) && !transientVertexIndex.containsKey(id)).collect(Collectors.toList());
+                // filter ids, remove ids already in memory or in second level cache (only ids that might exist on server)
+                List<Object> filter = identifiers.stream().filter(id -> !vertices.containsKey(id) && !transientVertexIndex.containsKey(id) && !loadCachedVertex(id)).collect(Collectors.toList());
                 // check we need to execute statement in server
                 if (!filter.isEmpty()) {
                     // vertex match predicate
@@ -320,26 +642,18 @@ class Neo4JSession implements AutoCloseable {
                     // change operator on single id filtering (performance optimization)
                     if (filter.size() == 1) {
                         // execute statement
-                        Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + " WHERE " + vertexIdProvider.matchPredicateOperand("n") + " = $id" + (predicate != null ? " AND " + predicate : "") + " RETURN n", Collections.singletonMap("id", filter.get(0)));
-                        // create stream from query
-                        Stream<Vertex> query = vertices(result);
+                        Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + " WHERE " + vertexIdProvider.matchPredicateOperand("n") + " = $id" + (predicate != null ? " AND " + predicate : "") + " RETURN " + vertexProjection("n"), Collections.singletonMap("id", filter.get(0)));
+                        // create stream from query (snapshots are stored in second level cache)
+                        Stream<Vertex> query = vertices(result, true);
                         // combine stream from memory and query result
-                        Iterator<Vertex> iterator = combine(Stream.concat(identifiers.stream().filter(vertices::containsKey).map(id -> (Vertex)vertices.get(id)), identifiers.stream().filter(transientVertexIndex::containsKey).map(id -> (Vertex)transientVertexIndex.get(id))), query);
-                        // process summary (query has been already consumed by combine)
-                        ResultSummaryLogger.log(result.consume());
-                        // return iterator
-                        return iterator;
+                        return combine(Stream.concat(identifiers.stream().filter(vertices::containsKey).map(id -> (Vertex)vertices.get(id)), identifiers.stream().filter(transientVertexIndex::containsKey).map(id -> (Vertex)transientVertexIndex.get(id))), query, result, streamingEnabled);
                     }
                     // execute statement
-                    Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + " WHERE " + vertexIdProvider.matchPredicateOperand("n") + " IN $ids" + (predicate != null ? " AND " + predicate : "") + " RETURN n", Collections.singletonMap("ids", filter));
-                    // create stream from query
-                    Stream<Vertex> query = vertices(result);
+                    Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + " WHERE " + vertexIdProvider.matchPredicateOperand("n") + " IN $ids" + (predicate != null ? " AND " + predicate : "") + " RETURN " + vertexProjection("n"), Collections.singletonMap("ids", filter));
+                    // create stream from query (snapshots are stored in second level cache)
+                    Stream<Vertex> query = vertices(result, true);
                     // combine stream from memory and query result
-                    Iterator<Vertex> iterator = combine(Stream.concat(identifiers.stream().filter(vertices::containsKey).map(id -> (Vertex)vertices.get(id)), identifiers.stream().filter(transientVertexIndex::containsKey).map(id -> (Vertex)transientVertexIndex.get(id))), query);
-                    // process summary (query has been already consumed by combine)
-                    ResultSummaryLogger.log(result.consume());
-                    // return iterator
-                    return iterator;
+                    return combine(Stream.concat(identifiers.stream().filter(vertices::containsKey).map(id -> (Vertex)vertices.get(id)), identifiers.stream().filter(transientVertexIndex::containsKey).map(id -> (Vertex)transientVertexIndex.get(id))), query, result, streamingEnabled);
                 }
                 // no need to execute query, only items in memory
                 return combine(identifiers.stream().filter(vertices::containsKey).map(id -> (Vertex)vertices.get(id)), identifiers.stream().filter(transientVertexIndex::containsKey).map(id -> (Vertex)transientVertexIndex.get(id)));
@@ -347,17 +661,16 @@ class Neo4JSession implements AutoCloseable {
             // vertex match predicate
             String predicate = partition.vertexMatchPredicate("n");
             // execute statement
-            Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + (predicate != null ? " WHERE " + predicate : "") + " RETURN n", Collections.emptyMap());
+            Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + (predicate != null ? " WHERE " + predicate : "") + " RETURN " + vertexProjection("n"), Collections.emptyMap());
             // create stream from query
             Stream<Vertex> query = vertices(result);
+            // evicted vertices before loading all vertices
+            long evicted = evictedVertexCount;
             // combine stream from memory (transient) and query result
-            Iterator<Vertex> iterator = combine(transientVertices.stream().map(vertex -> (Vertex)vertex), query);
-            // process summary (query has been already consumed by combine)
-            ResultSummaryLogger.log(result.consume());
-            // it is safe to update loaded flag at this time
-            verticesLoaded = true;
-            // return iterator
-            return iterator;
+            return combine(transientVertices.stream().map(vertex -> (Vertex)vertex), query, result, streamingEnabled, () -> {
+                // it is safe to update loaded flag at this time (all vertices are in memory if none was evicted)
+                verticesLoaded = evicted == evictedVertexCount;
+            });
         }
         // check ids
         if (ids.length > 0) {
@@ -370,11 +683,108 @@ class Neo4JSession implements AutoCloseable {
         return combine(transientVertices.stream().map(vertex -> (Vertex)vertex), vertices.values().stream().map(vertex -> (Vertex)vertex));
     }
 
+    Iterator<Vertex> vertices(String predicate, Map<String, Object> parameters, long limit, Predicate<Vertex> filter) {
+        Objects.requireNonNull(parameters, "parameters cannot be null");
+        Objects.requireNonNull(filter, "filter cannot be null");
+        // flush pending changes if needed (statement boundary)
+        autoFlush();
+        // check we have all vertices already loaded
+        if (!verticesLoaded) {
+            // vertex match predicate
+            String partitionPredicate = partition.vertexMatchPredicate("n");
+            // combine predicates
+            String where = Stream.of(partitionPredicate, predicate).filter(Objects::nonNull).collect(Collectors.joining(" AND "));
+            // limit can be evaluated in server only if all vertices in server are still valid in session
+            boolean useLimit = limit >= 0 && deletedVertices.isEmpty() && vertexUpdateQueue.isEmpty();
+            // statement parameters
+            Map<String, Object> statementParameters = new HashMap<>(parameters);
+            if (useLimit)
+                statementParameters.put("limit", limit);
+            // execute statement
+            Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + (!where.isEmpty() ? " WHERE " + where : "") + " RETURN " + vertexProjection("n") + (useLimit ? " LIMIT $limit" : ""), statementParameters);
+            // create stream from query (vertices modified in session are evaluated from memory)
+            Stream<Vertex> query = vertices(result).filter(vertex -> !vertexUpdateQueue.contains(vertex));
+            // combine stream from memory (transient and modified) and query result
+            return IteratorUtils.filter(combine(Stream.concat(transientVertices.stream(), vertexUpdateQueue.stream()).map(vertex -> (Vertex)vertex), query, result, streamingEnabled), filter);
+        }
+        // no need to execute query, all items in memory
+        return IteratorUtils.filter(combine(transientVertices.stream().map(vertex -> (Vertex)vertex), vertices.values().stream().map(vertex -> (Vertex)vertex)), filter);
+    }
+
+    Iterator<Vertex> vertices(Object[] ids, List<String> relationships, List<String> predicates, Map<String, Object> parameters, long limit) {
+        Objects.requireNonNull(ids, "ids cannot be null");
+        Objects.requireNonNull(relationships, "relationships cannot be null");
+        Objects.requireNonNull(predicates, "predicates cannot be null");
+        Objects.requireNonNull(parameters, "parameters cannot be null");
+        // verify identifiers
+        verifyIdentifiers(Vertex.class, ids);
+        // flush pending changes if needed (statement boundary)
+        autoFlush();
+        // statement parameters
+        Map<String, Object> statementParameters = new HashMap<>(parameters);
+        // create string builder
+        StringBuilder builder = new StringBuilder();
+        // loop vertices in path (start vertices + one per relationship), each hop in its own MATCH clause (allows relationships to be traversed more than once)
+        for (int index = 0; index <= relationships.size(); index++) {
+            // vertex alias
+            String alias = "n" + index;
+            // match clause
+            builder.append(index == 0 ? "MATCH " : " MATCH (n" + (index - 1) + ")" + relationships.get(index - 1)).append(generateVertexMatchPattern(alias));
+            // predicates
+            List<String> where = new ArrayList<>();
+            // check start vertices are filtered by id
+            if (index == 0 && ids.length > 0) {
+                // filter by ids
+                where.add(vertexIdProvider.matchPredicateOperand(alias) + " IN $ids");
+                // ids parameter
+                statementParameters.put("ids", Arrays.stream(ids).map(id -> processIdentifier(vertexIdProvider, id)).distinct().collect(Collectors.toList()));
+            }
+            // vertex match predicate
+            String partitionPredicate = partition.vertexMatchPredicate(alias);
+            if (partitionPredicate != null)
+                where.add(partitionPredicate);
+            // vertex predicate
+            if (predicates.get(index) != null)
+                where.add(predicates.get(index));
+            // append where clause
+            if (!where.isEmpty())
+                builder.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        // return clause
+        builder.append(" RETURN ").append(vertexProjection("n" + relationships.size()));
+        // check limit
+        if (limit >= 0) {
+            // append limit
+            builder.append(" LIMIT $limit");
+            // limit parameter
+            statementParameters.put("limit", limit);
+        }
+        // execute statement
+        Result result = executeStatement(builder.toString(), statementParameters);
+        // results are loaded into session
+        return combine(Stream.empty(), vertices(result), result, streamingEnabled);
+    }
+
     Stream<Vertex> vertices(Result result) {
+        // scans are not stored in second level cache (avoid flushing snapshots used by id lookups)
+        return vertices(result, false);
+    }
+
+    private Stream<Vertex> vertices(Result result, boolean cache) {
         Objects.requireNonNull(result, "result cannot be null");
         // create stream from result, skip deleted vertices
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(result, Spliterator.NONNULL | Spliterator.IMMUTABLE), false)
-            .map(this::loadVertex)
+            .map(record -> loadVertex(record, cache))
+            .filter(Objects::nonNull);
+    }
+
+    Stream<Vertex> vertices(Result result, Predicate<Object> excludedEdges) {
+        Objects.requireNonNull(result, "result cannot be null");
+        Objects.requireNonNull(excludedEdges, "excludedEdges cannot be null");
+        // create stream from result, skip records on excluded edges (edge id in second column) and deleted vertices
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(result, Spliterator.NONNULL | Spliterator.IMMUTABLE), false)
+            .filter(record -> !excludedEdges.test(edgeIdProvider.processIdentifier(record.get(1).asObject())))
+            .map(record -> loadVertex(record, false))
             .filter(Objects::nonNull);
     }
 
@@ -382,6 +792,8 @@ class Neo4JSession implements AutoCloseable {
         Objects.requireNonNull(ids, "ids cannot be null");
         // verify identifiers
         verifyIdentifiers(Edge.class, ids);
+        // flush pending changes if needed (statement boundary)
+        autoFlush();
         // check we have all edges already loaded
         if (!edgesLoaded) {
             // check ids
@@ -395,42 +807,33 @@ class Neo4JSession implements AutoCloseable {
                     // change operator on single id filtering (performance optimization)
                     if (filter.size() == 1) {
                         // execute statement
-                        Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + "-[r]->" + generateVertexMatchPattern("m") + " WHERE " + edgeIdProvider.matchPredicateOperand("r") + " = $id" + (partition.usesMatchPredicate() ? " AND " + partition.vertexMatchPredicate("n") + " AND " + partition.vertexMatchPredicate("m") : "") + " RETURN n, r, m", Collections.singletonMap("id", filter.get(0)));
+                        Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + "-[r]->" + generateVertexMatchPattern("m") + " WHERE " + edgeIdProvider.matchPredicateOperand("r") + " = $id" + (partition.usesMatchPredicate() ? " AND " + partition.vertexMatchPredicate("n") + " AND " + partition.vertexMatchPredicate("m") : "") + " RETURN " + edgeProjection("n", "r", "m"), Collections.singletonMap("id", filter.get(0)));
                         // find edges
                         Stream<Edge> query = edges(result);
                         // combine stream from memory and query result
-                        Iterator<Edge> iterator = combine(Stream.concat(identifiers.stream().filter(edges::containsKey).map(id -> (Edge)edges.get(id)), identifiers.stream().filter(transientEdgeIndex::containsKey).map(id -> (Edge)transientEdgeIndex.get(id))), query);
-                        // process summary (query has been already consumed by combine)
-                        ResultSummaryLogger.log(result.consume());
-                        // return iterator
-                        return iterator;
+                        return combine(Stream.concat(identifiers.stream().filter(edges::containsKey).map(id -> (Edge)edges.get(id)), identifiers.stream().filter(transientEdgeIndex::containsKey).map(id -> (Edge)transientEdgeIndex.get(id))), query, result, streamingEnabled);
                     }
                     // execute statement
-                    Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + "-[r]->" + generateVertexMatchPattern("m") + " WHERE " + edgeIdProvider.matchPredicateOperand("r") + " in $ids" + (partition.usesMatchPredicate() ? " AND " + partition.vertexMatchPredicate("n") + " AND " + partition.vertexMatchPredicate("m") : "") + " RETURN n, r, m", Collections.singletonMap("ids", filter));
+                    Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + "-[r]->" + generateVertexMatchPattern("m") + " WHERE " + edgeIdProvider.matchPredicateOperand("r") + " in $ids" + (partition.usesMatchPredicate() ? " AND " + partition.vertexMatchPredicate("n") + " AND " + partition.vertexMatchPredicate("m") : "") + " RETURN " + edgeProjection("n", "r", "m"), Collections.singletonMap("ids", filter));
                     // find edges
                     Stream<Edge> query = edges(result);
                     // combine stream from memory and query result
-                    Iterator<Edge> iterator = combine(Stream.concat(identifiers.stream().filter(edges::containsKey).map(id -> (Edge)edges.get(id)), identifiers.stream().filter(transientEdgeIndex::containsKey).map(id -> (Edge)transientEdgeIndex.get(id))), query);
-                    // process summary (query has been already consumed by combine)
-                    ResultSummaryLogger.log(result.consume());
-                    // return iterator
-                    return iterator;
+                    return combine(Stream.concat(identifiers.stream().filter(edges::containsKey).map(id -> (Edge)edges.get(id)), identifiers.stream().filter(transientEdgeIndex::containsKey).map(id -> (Edge)transientEdgeIndex.get(id))), query, result, streamingEnabled);
                 }
                 // no need to execute query, only items in memory
                 return combine(identifiers.stream().filter(edges::containsKey).map(id -> (Edge)edges.get(id)), identifiers.stream().filter(transientEdgeIndex::containsKey).map(id -> (Edge)transientEdgeIndex.get(id)));
             }
             // execute statement
-            Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + "-[r]->" + generateVertexMatchPattern("m") + (partition.usesMatchPredicate() ? " WHERE " + partition.vertexMatchPredicate("n") + " AND " + partition.vertexMatchPredicate("m") : "") + " RETURN n, r, m", Collections.emptyMap());
+            Result result = executeStatement("MATCH " + generateVertexMatchPattern("n") + "-[r]->" + generateVertexMatchPattern("m") + (partition.usesMatchPredicate() ? " WHERE " + partition.vertexMatchPredicate("n") + " AND " + partition.vertexMatchPredicate("m") : "") + " RETURN " + edgeProjection("n", "r", "m"), Collections.emptyMap());
             // find edges
             Stream<Edge> query = edges(result);
+            // evicted edges before loading all edges
+            long evicted = evictedEdgeCount;
             // combine stream from memory (transient) and query result
-            Iterator<Edge> iterator = combine(transientEdges.stream().map(edge -> (Edge)edge), query);
-            // process summary (query has been already consumed by combine)
-            ResultSummaryLogger.log(result.consume());
-            // it is safe to update loaded flag at this time
-            edgesLoaded = true;
-            // return iterator
-            return iterator;
+            return combine(transientEdges.stream().map(edge -> (Edge)edge), query, result, streamingEnabled, () -> {
+                // it is safe to update loaded flag at this time (all edges are in memory if none was evicted)
+                edgesLoaded = evicted == evictedEdgeCount;
+            });
         }
         // check ids
         if (ids.length > 0) {
@@ -451,6 +854,84 @@ class Neo4JSession implements AutoCloseable {
             .filter(Objects::nonNull);
     }
 
+    Stream<Edge> edges(Result result, Predicate<Object> excludedEdges) {
+        Objects.requireNonNull(result, "result cannot be null");
+        Objects.requireNonNull(excludedEdges, "excludedEdges cannot be null");
+        // create stream from result, skip excluded and deleted edges
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(result, Spliterator.NONNULL | Spliterator.IMMUTABLE), false)
+            .filter(record -> !excludedEdges.test(edgeId(record.get(1))))
+            .map(this::loadEdge)
+            .filter(Objects::nonNull);
+    }
+
+    int warmUp(Collection<Set<String>> vertexLabels, Set<String> edgeLabels) {
+        Objects.requireNonNull(vertexLabels, "vertexLabels cannot be null");
+        Objects.requireNonNull(edgeLabels, "edgeLabels cannot be null");
+        // statements (remove duplicated shapes)
+        Set<String> statements = new LinkedHashSet<>();
+        // vertices used to generate statements (not registered in session)
+        List<Neo4JVertex> vertices = new ArrayList<>(vertexLabels.size());
+        // process vertex label sets
+        vertexLabels.forEach(labels -> {
+            // node labels in database (additional labels are stored in all vertices)
+            Set<String> nodeLabels = new HashSet<>(labels);
+            nodeLabels.addAll(graph.vertexLabels());
+            // vertex used to generate statements
+            Neo4JVertex vertex = new Neo4JVertex(graph, this, vertexIdProvider, edgeIdProvider, null, nodeLabels);
+            // append statements
+            statements.addAll(vertex.statements(edgeLabels));
+            // store vertex
+            vertices.add(vertex);
+        });
+        // process edge labels between all vertex label sets
+        for (Neo4JVertex out : vertices) {
+            for (Neo4JVertex in : vertices) {
+                for (String label : edgeLabels) {
+                    // edge used to generate statements, identifier value is not part of the statements (a null identifier selects the database generated identifier insert statement)
+                    Neo4JEdge edge = new Neo4JEdge(graph, this, edgeIdProvider, edgeIdProvider.fieldName() != null ? label : null, label, out, in);
+                    // append statements
+                    statements.addAll(edge.statements());
+                }
+            }
+        }
+        // plan statements in server
+        statements.forEach(statement -> {
+            // execute statement (profiler is not applied to EXPLAIN statements)
+            Result result = executeStatement("EXPLAIN " + statement, Collections.emptyMap());
+            // log information
+            ResultSummaryLogger.log(result.consume());
+        });
+        // number of statements
+        return statements.size();
+    }
+
+    void prefetchEdges(Collection<? extends Vertex> frontier, Direction direction, String... labels) {
+        Objects.requireNonNull(frontier, "frontier cannot be null");
+        Objects.requireNonNull(direction, "direction cannot be null");
+        Objects.requireNonNull(labels, "labels cannot be null");
+        // load labels in hash set (remove duplicates)
+        Set<String> set = new HashSet<>(Arrays.asList(labels));
+        // vertices with adjacent edges not in memory (transient vertices have all edges in memory)
+        List<Neo4JVertex> candidates = frontier.stream().filter(vertex -> vertex instanceof Neo4JVertex).map(vertex -> (Neo4JVertex)vertex).distinct().filter(vertex -> !vertex.hasEdgesLoaded(direction, set)).collect(Collectors.toList());
+        // check we need to execute statement in server
+        if (!candidates.isEmpty()) {
+            // relationship pattern
+            String relationship = (direction == Direction.IN ? "<-[r" : "-[r") + set.stream().map(label -> "`" + label + "`").collect(Collectors.joining("|", set.isEmpty() ? "" : ":", "")) + (direction == Direction.OUT ? "]->" : "]-");
+            // group vertices by match pattern (vertex labels are used to locate vertices by id)
+            Map<String, List<Neo4JVertex>> groups = candidates.stream().collect(Collectors.groupingBy(Neo4JVertex::batchKey, LinkedHashMap::new, Collectors.toList()));
+            for (List<Neo4JVertex> group : groups.values()) {
+                // execute statement
+                Result result = executeStatement("UNWIND $ids AS id " + group.get(0).unwindMatchStatement("n", "id") + " MATCH (n)" + relationship + generateVertexMatchPattern("m") + (partition.usesMatchPredicate() ? " WHERE " + partition.vertexMatchPredicate("m") : "") + " RETURN " + edgeProjection("n", "r", "m"), Collections.singletonMap("ids", group.stream().map(Neo4JVertex::id).collect(Collectors.toList())));
+                // load edges into session, edges are registered with adjacent vertices
+                edges(result).forEach(edge -> { });
+                // log information
+                ResultSummaryLogger.log(result.consume());
+            }
+            // after this line it is safe to update loaded flags and labels in memory
+            candidates.forEach(vertex -> vertex.edgesLoaded(direction, set));
+        }
+    }
+
     private static <T> Iterator<T> combine(Stream<T> collection, Stream<T> query) {
         // create a copy of first stream (state can be modified in the middle of the iteration)
         List<T> copy = collection.collect(Collectors.toCollection(LinkedList::new));
@@ -460,6 +941,35 @@ class Neo4JSession implements AutoCloseable {
         return copy.iterator();
     }
 
+    static <T> Iterator<T> combine(Stream<T> collection, Stream<T> query, Result result, boolean streaming) {
+        // use overloaded method
+        return combine(collection, query, result, streaming, () -> {
+        });
+    }
+
+    static <T> Iterator<T> combine(Stream<T> collection, Stream<T> query, Result result, boolean streaming, Runnable completion) {
+        // check query results must be streamed
+        if (streaming) {
+            // create a copy of first stream (state can be modified in the middle of the iteration)
+            List<T> copy = collection.collect(Collectors.toCollection(LinkedList::new));
+            // records are pulled from server as the iterator advances
+            return new StreamingIterator<>(copy.iterator(), query.iterator(), () -> {
+                // process summary
+                ResultSummaryLogger.log(result.consume());
+                // query has been consumed
+                completion.run();
+            });
+        }
+        // combine streams
+        Iterator<T> iterator = combine(collection, query);
+        // process summary (query has been already consumed by combine)
+        ResultSummaryLogger.log(result.consume());
+        // query has been consumed
+        completion.run();
+        // return iterator
+        return iterator;
+    }
+
     void removeEdge(Neo4JEdge edge, boolean explicit) {
         // edge id
         Object id = edge.id();
@@ -495,6 +1005,8 @@ class Neo4JSession implements AutoCloseable {
                 });
                 // add to delete queue
                 edgeDeleteQueue.add(edge);
+                // in memory adjacency of both vertices differs from the server until the edge is flushed
+                edge.vertices(Direction.BOTH).forEachRemaining(vertex -> pinnedVertices.add((Neo4JVertex)vertex));
             }
             // remove it from update queue (avoid issuing MERGE command for an element that has been deleted)
             edgeUpdateQueue.remove(edge);
@@ -532,24 +1044,33 @@ class Neo4JSession implements AutoCloseable {
         return provider.processIdentifier(id);
     }
 
-    private Vertex loadVertex(Record record) {
-        // node
-        Node node = record.get(0).asNode();
+    private Vertex loadVertex(Record record, boolean cache) {
+        // value (node or hollow vertex projection)
+        Value value = record.get(0);
         // vertex id
-        Object vertexId = vertexIdProvider.get(node);
+        Object vertexId = vertexId(value);
         // check vertex has been deleted
         if (!deletedVertices.contains(vertexId)) {
             // check this vertex has been already loaded into this session
-            Vertex vertex = vertices.get(vertexId);
+            Neo4JVertex vertex = vertices.get(vertexId);
             if (vertex == null) {
+                // node labels
+                List<String> labels = nodeLabels(value);
                 // check node belongs to partition
-                if (partition.containsVertex(StreamSupport.stream(node.labels().spliterator(), false).collect(Collectors.toSet()))) {
+                if (partition.containsVertex(new HashSet<>(labels))) {
                     // create and register vertex
-                    return registerVertex(new Neo4JVertex(graph, this, vertexIdProvider, edgeIdProvider, node));
+                    return registerVertex(createVertex(value, vertexId, labels, cache));
                 }
                 // skip vertex (not in partition)
                 return null;
             }
+            // check we can complete a hollow vertex
+            if (!vertex.isPropertiesLoaded() && isType(value, TypeConstructor.NODE)) {
+                // copy properties from node
+                vertex.loadProperties(value.asNode());
+                // vertex is not hollow anymore
+                hollowVertices.remove(vertex);
+            }
             // return vertex
             return vertex;
         }
@@ -557,30 +1078,208 @@ class Neo4JSession implements AutoCloseable {
         return null;
     }
 
+    private boolean loadCachedVertex(Object id) {
+        // second level cache
+        Neo4JElementCache cache = graph.elementCache();
+        if (cache != null) {
+            // find node snapshot
+            Node node = cache.get(id, transactionBookmarks);
+            if (node != null) {
+                // check vertex has been deleted or node does not belong to partition
+                if (!deletedVertices.contains(id) && partition.containsVertex(StreamSupport.stream(node.labels().spliterator(), false).collect(Collectors.toSet()))) {
+                    // create and register vertex
+                    registerVertex(new Neo4JVertex(graph, this, vertexIdProvider, edgeIdProvider, node));
+                }
+                // id resolved, no need to execute statement in server
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Neo4JVertex createVertex(Value value, Object vertexId, List<String> labels, boolean cache) {
+        // check value is a node
+        if (isType(value, TypeConstructor.NODE)) {
+            // node
+            Node node = value.asNode();
+            // second level cache
+            if (cache && transactionCache != null && !flushed && !userStatementsExecuted) {
+                // store committed snapshot (node does not reflect changes flushed to the open transaction)
+                transactionCache.put(vertexId, node, transactionBookmarks, transactionEpoch);
+            }
+            // create vertex
+            return new Neo4JVertex(graph, this, vertexIdProvider, edgeIdProvider, node);
+        }
+        // create hollow vertex, properties are loaded on first access
+        Neo4JVertex vertex = new Neo4JVertex(graph, this, vertexIdProvider, edgeIdProvider, vertexId, labels);
+        // keep track of hollow vertices (properties are loaded in batches)
+        hollowVertices.add(vertex);
+        // return vertex
+        return vertex;
+    }
+
+    private Object vertexId(Value value) {
+        // node or hollow vertex projection
+        return isType(value, TypeConstructor.NODE) ? vertexIdProvider.get(value.asNode()) : vertexIdProvider.processIdentifier(value.get("id").asObject());
+    }
+
+    private Object edgeId(Value value) {
+        // relationship or hollow edge projection
+        return isType(value, TypeConstructor.RELATIONSHIP) ? edgeIdProvider.get(value.asRelationship()) : edgeIdProvider.processIdentifier(value.get("id").asObject());
+    }
+
+    private static List<String> nodeLabels(Value value) {
+        // node or hollow vertex projection
+        return isType(value, TypeConstructor.NODE) ? StreamSupport.stream(value.asNode().labels().spliterator(), false).collect(Collectors.toList()) : value.get("labels").asList(Value::asString);
+    }
+
+    private static long nodeId(Value value) {
+        // node or hollow vertex projection
+        return isType(value, TypeConstructor.NODE) ? value.asNode().id() : value.get("nodeId").asLong();
+    }
+
+    private static boolean isType(Value value, TypeConstructor constructor) {
+        // check value type
+        return ((TypeRepresentation)value.type()).constructor() == constructor;
+    }
+
+    void loadProperties(Neo4JVertex vertex) {
+        Objects.requireNonNull(vertex, "vertex cannot be null");
+        // fault in all hollow vertices in session (not deleted) together with the requested vertex
+        Map<Object, Neo4JVertex> batch = new HashMap<>();
+        hollowVertices.stream().filter(item -> !deletedVertices.contains(item.id())).forEach(item -> batch.put(item.id(), item));
+        batch.put(vertex.id(), vertex);
+        // vertices are not hollow anymore
+        hollowVertices.clear();
+        // group vertices by match pattern (vertex labels are used to locate vertices by id)
+        Map<String, List<Neo4JVertex>> groups = batch.values().stream().collect(Collectors.groupingBy(Neo4JVertex::batchKey, LinkedHashMap::new, Collectors.toList()));
+        for (List<Neo4JVertex> group : groups.values()) {
+            // statement
+            String statement = "UNWIND $ids AS id " + group.get(0).unwindMatchStatement("n", "id") + " RETURN id, properties(n)";
+            // vertex ids
+            List<Object> ids = group.stream().map(Neo4JVertex::id).collect(Collectors.toList());
+            // split ids in chunks of batchSize elements (single statement if batches are not enabled)
+            int chunkSize = batchSize > 0 ? batchSize : ids.size();
+            for (int index = 0; index < ids.size(); index += chunkSize) {
+                // execute statement
+                Result result = executeStatement(statement, Collections.singletonMap("ids", ids.subList(index, Math.min(index + chunkSize, ids.size()))));
+                // process records
+                result.forEachRemaining(record -> {
+                    // vertex in batch
+                    Neo4JVertex item = batch.remove(vertexIdProvider.processIdentifier(record.get(0).asObject()));
+                    if (item != null) {
+                        // vertex properties
+                        item.loadProperties(record.get(1));
+                    }
+                });
+                // log information
+                ResultSummaryLogger.log(result.consume());
+            }
+        }
+        // vertices not found in server (deleted by another transaction)
+        batch.values().forEach(item -> item.loadProperties(Values.value(Collections.emptyMap())));
+    }
+
+    void loadProperties(Neo4JEdge edge) {
+        Objects.requireNonNull(edge, "edge cannot be null");
+        // fault in all hollow edges in session (not deleted) together with the requested edge
+        Map<Object, Neo4JEdge> batch = new HashMap<>();
+        hollowEdges.stream().filter(item -> !deletedEdges.contains(item.id())).forEach(item -> batch.put(item.id(), item));
+        batch.put(edge.id(), edge);
+        // edges are not hollow anymore
+        hollowEdges.clear();
+        // group edges by label and adjacent vertices match patterns (vertex labels are used to locate adjacent vertices by id)
+        Map<String, List<Neo4JEdge>> groups = batch.values().stream().collect(Collectors.groupingBy(Neo4JEdge::batchKey, LinkedHashMap::new, Collectors.toList()));
+        for (List<Neo4JEdge> group : groups.values()) {
+            // first edge in group (all edges share label and adjacent vertices match patterns)
+            Neo4JEdge first = group.get(0);
+            // statement
+            String statement = "UNWIND $edges AS edge " + ((Neo4JVertex)first.outVertex()).unwindMatchStatement("n", "edge.out") + " " + ((Neo4JVertex)first.inVertex()).unwindMatchStatement("m", "edge.in") + " MATCH (n)-[r:`" + first.label() + "`]->(m) WHERE " + edgeIdProvider.matchPredicateOperand("r") + " = edge.id RETURN edge.id, properties(r)";
+            // statement parameters (use adjacent vertices to locate relationships)
+            List<Map<String, Object>> parameters = group.stream().map(item -> {
+                // edge parameters
+                Map<String, Object> map = new HashMap<>();
+                map.put("id", item.id());
+                map.put("out", item.outVertex().id());
+                map.put("in", item.inVertex().id());
+                // return map
+                return map;
+            }).collect(Collectors.toList());
+            // split edges in chunks of batchSize elements (single statement if batches are not enabled)
+            int chunkSize = batchSize > 0 ? batchSize : parameters.size();
+            for (int index = 0; index < parameters.size(); index += chunkSize) {
+                // execute statement
+                Result result = executeStatement(statement, Collections.singletonMap("edges", parameters.subList(index, Math.min(index + chunkSize, parameters.size()))));
+                // process records
+                result.forEachRemaining(record -> {
+                    // edge in batch
+                    Neo4JEdge item = batch.remove(edgeIdProvider.processIdentifier(record.get(0).asObject()));
+                    if (item != null) {
+                        // edge properties
+                        item.loadProperties(record.get(1));
+                    }
+                });
+                // log information
+                ResultSummaryLogger.log(result.consume());
+            }
+        }
+        // edges not found in server (deleted by another transaction)
+        batch.values().forEach(item -> item.loadProperties(Values.value(Collections.emptyMap())));
+    }
+
+    String vertexProjection(String alias) {
+        // use overloaded method
+        return vertexProjection(alias, vertexIdProvider, lazyPropertiesEnabled);
+    }
+
+    static String vertexProjection(String alias, Neo4JElementIdProvider<?> vertexIdProvider, boolean hollow) {
+        // return id and labels only if properties are loaded on first access
+        return hollow ? "{id: " + vertexIdProvider.matchPredicateOperand(alias) + ", labels: labels(" + alias + "), nodeId: ID(" + alias + ")} AS " + alias : alias;
+    }
+
+    String edgeProjection(String vertexAlias, String edgeAlias, String otherVertexAlias) {
+        // use overloaded method
+        return edgeProjection(vertexAlias, edgeAlias, otherVertexAlias, vertexIdProvider, edgeIdProvider, lazyPropertiesEnabled);
+    }
+
+    static String edgeProjection(String vertexAlias, String edgeAlias, String otherVertexAlias, Neo4JElementIdProvider<?> vertexIdProvider, Neo4JElementIdProvider<?> edgeIdProvider, boolean hollow) {
+        // check properties are loaded on first access
+        if (hollow) {
+            // id, type and start node only
+            return vertexProjection(vertexAlias, vertexIdProvider, true) + ", {id: " + edgeIdProvider.matchPredicateOperand(edgeAlias) + ", type: type(" + edgeAlias + "), startNodeId: ID(startNode(" + edgeAlias + "))} AS " + edgeAlias + ", " + vertexProjection(otherVertexAlias, vertexIdProvider, true);
+        }
+        return vertexAlias + ", " + edgeAlias + ", " + otherVertexAlias;
+    }
+
     private Edge loadEdge(Record record) {
-        // relationship
-        Relationship relationship = record.get(1).asRelationship();
+        // value (relationship or hollow edge projection)
+        Value value = record.get(1);
+        // check value is a relationship
+        boolean relationship = isType(value, TypeConstructor.RELATIONSHIP);
         // edge id
-        Object edgeId = edgeIdProvider.get(relationship);
+        Object edgeId = edgeId(value);
         // check edge has been deleted
         if (!deletedEdges.contains(edgeId)) {
             // check we have record in memory
             Neo4JEdge edge = edges.get(edgeId);
             if (edge == null) {
                 // nodes
-                Node firstNode = record.get(0).asNode();
-                Node secondNode = record.get(2).asNode();
+                Value firstNode = record.get(0);
+                Value secondNode = record.get(2);
                 // node ids
-                Object firstNodeId = vertexIdProvider.get(firstNode);
-                Object secondNodeId = vertexIdProvider.get(secondNode);
+                Object firstNodeId = vertexId(firstNode);
+                Object secondNodeId = vertexId(secondNode);
+                // node labels
+                List<String> firstNodeLabels = nodeLabels(firstNode);
+                List<String> secondNodeLabels = nodeLabels(secondNode);
                 // check edge has been deleted (one of the vertices was deleted) or the vertices are not in the read partition
-                if (deletedVertices.contains(firstNodeId) || deletedVertices.contains(secondNodeId) || !partition.containsVertex(StreamSupport.stream(firstNode.labels().spliterator(), false).collect(Collectors.toSet())) || !partition.containsVertex(StreamSupport.stream(secondNode.labels().spliterator(), false).collect(Collectors.toSet())))
+                if (deletedVertices.contains(firstNodeId) || deletedVertices.contains(secondNodeId) || !partition.containsVertex(new HashSet<>(firstNodeLabels)) || !partition.containsVertex(new HashSet<>(secondNodeLabels)))
                     return null;
                 // check we have first vertex in memory
                 Neo4JVertex firstVertex = vertices.get(firstNodeId);
                 if (firstVertex == null) {
                     // create vertex
-                    firstVertex = new Neo4JVertex(graph, this, vertexIdProvider, edgeIdProvider, firstNode);
+                    firstVertex = createVertex(firstNode, firstNodeId, firstNodeLabels, false);
                     // register it
                     registerVertex(firstVertex);
                 }
@@ -588,21 +1287,38 @@ class Neo4JSession implements AutoCloseable {
                 Neo4JVertex secondVertex = vertices.get(secondNodeId);
                 if (secondVertex == null) {
                     // create vertex
-                    secondVertex = new Neo4JVertex(graph, this, vertexIdProvider, edgeIdProvider, secondNode);
+                    secondVertex = createVertex(secondNode, secondNodeId, secondNodeLabels, false);
                     // register it
                     registerVertex(secondVertex);
                 }
                 // find out start and end of the relationship (edge could come in either direction)
-                Neo4JVertex out = relationship.startNodeId() == firstNode.id() ? firstVertex : secondVertex;
-                Neo4JVertex in = relationship.endNodeId() == firstNode.id() ? firstVertex : secondVertex;
-                // create edge
-                edge = new Neo4JEdge(graph, this, edgeIdProvider, out, relationship, in);
+                boolean outgoing = (relationship ? value.asRelationship().startNodeId() : value.get("startNodeId").asLong()) == nodeId(firstNode);
+                Neo4JVertex out = outgoing ? firstVertex : secondVertex;
+                Neo4JVertex in = outgoing ? secondVertex : firstVertex;
+                // check we have the full relationship
+                if (relationship) {
+                    // create edge
+                    edge = new Neo4JEdge(graph, this, edgeIdProvider, out, value.asRelationship(), in);
+                }
+                else {
+                    // create hollow edge, properties are loaded on first access
+                    edge = new Neo4JEdge(graph, this, edgeIdProvider, edgeId, value.get("type").asString(), out, in);
+                    // keep track of hollow edges (properties are loaded in batches)
+                    hollowEdges.add(edge);
+                }
                 // register with adjacent vertices
                 out.addOutEdge(edge);
                 in.addInEdge(edge);
                 // register edge
                 return registerEdge(edge);
             }
+            // check we can complete a hollow edge
+            if (!edge.isPropertiesLoaded() && relationship) {
+                // copy properties from relationship
+                edge.loadProperties(value.asRelationship());
+                // edge is not hollow anymore
+                hollowEdges.remove(edge);
+            }
             // return edge
             return edge;
         }
@@ -613,6 +1329,9 @@ class Neo4JSession implements AutoCloseable {
     private Vertex registerVertex(Neo4JVertex vertex) {
         // map vertex
         vertices.put(vertex.id(), vertex);
+        // check identity map is bounded
+        if (identityMapCapacity > 0 && vertices.size() > identityMapCapacity)
+            evictVertices();
         // return vertex
         return vertex;
     }
@@ -622,10 +1341,58 @@ class Neo4JSession implements AutoCloseable {
         Object id = edge.id();
         // map edge
         edges.put(id, edge);
+        // check identity map is bounded
+        if (identityMapCapacity > 0 && edges.size() > identityMapCapacity)
+            evictEdges();
         // return vertex
         return edge;
     }
 
+    private boolean isPinned(Neo4JVertex vertex) {
+        // dirty vertices and vertices with transient or deleted adjacent edges must stay in memory until changes are sent to the server
+        return vertexUpdateQueue.contains(vertex) || pinnedVertices.contains(vertex);
+    }
+
+    private void evictVertices() {
+        // iterate vertices in access order (least recently used first)
+        Iterator<Neo4JVertex> iterator = vertices.values().iterator();
+        while (vertices.size() > identityMapCapacity && iterator.hasNext()) {
+            // vertex
+            Neo4JVertex vertex = iterator.next();
+            // check vertex is pinned
+            if (!isPinned(vertex)) {
+                // evict vertex
+                iterator.remove();
+                // vertex is not tracked anymore
+                hollowVertices.remove(vertex);
+                // not all vertices are in memory anymore
+                verticesLoaded = false;
+                // update counter
+                evictedVertexCount++;
+            }
+        }
+    }
+
+    private void evictEdges() {
+        // iterate edges in access order (least recently used first)
+        Iterator<Neo4JEdge> iterator = edges.values().iterator();
+        while (edges.size() > identityMapCapacity && iterator.hasNext()) {
+            // edge
+            Neo4JEdge edge = iterator.next();
+            // dirty edges and edges adjacent to pinned vertices must stay in memory until changes are sent to the server
+            if (!edgeUpdateQueue.contains(edge) && !isPinned((Neo4JVertex)edge.outVertex()) && !isPinned((Neo4JVertex)edge.inVertex())) {
+                // evict edge
+                iterator.remove();
+                // edge is not tracked anymore
+                hollowEdges.remove(edge);
+                // not all edges are in memory anymore
+                edgesLoaded = false;
+                // update counter
+                evictedEdgeCount++;
+            }
+        }
+    }
+
     void removeVertex(Neo4JVertex vertex) {
         // vertex id
         Object id = vertex.id();
@@ -656,6 +1423,10 @@ class Neo4JSession implements AutoCloseable {
     void dirtyVertex(Neo4JVertex vertex) {
         // check element is a transient one
         if (!transientVertices.contains(vertex)) {
+            // vertex could have been evicted from the identity map, register it again (changes must be visible to the transaction)
+            Neo4JVertex registered = deletedVertices.contains(vertex.id()) ? null : vertices.putIfAbsent(vertex.id(), vertex);
+            if (registered != null && registered != vertex)
+                throw new IllegalStateException("Vertex [" + vertex.id() + "] was evicted from the session and loaded again, changes must be applied to the instance returned by the session");
             // add vertex to processing queue
             vertexUpdateQueue.add(vertex);
         }
@@ -664,6 +1435,10 @@ class Neo4JSession implements AutoCloseable {
     void dirtyEdge(Neo4JEdge edge) {
         // check element is a transient one
         if (!transientEdges.contains(edge)) {
+            // edge could have been evicted from the identity map, register it again (changes must be visible to the transaction)
+            Neo4JEdge registered = deletedEdges.contains(edge.id()) ? null : edges.putIfAbsent(edge.id(), edge);
+            if (registered != null && registered != edge)
+                throw new IllegalStateException("Edge [" + edge.id() + "] was evicted from the session and loaded again, changes must be applied to the instance returned by the session");
             // add edge to processing queue
             edgeUpdateQueue.add(edge);
         }
@@ -677,12 +1452,17 @@ class Neo4JSession implements AutoCloseable {
             deleteVertices();
             // create vertices
             createVertices();
+            // edges cannot be created until database generated vertex identifiers are available
+            if (transientVertices.stream().anyMatch(vertex -> vertex.id() == null))
+                completePendingCommands();
             // create edges
             createEdges();
             // update edges
             updateEdges();
             // update vertices (after edges to be able to locate the vertex if referenced by an edge)
             updateVertices();
+            // wait for all statements in flight
+            completePendingCommands();
         }
         catch (ClientException ex) {
             // log error
@@ -691,96 +1471,190 @@ class Neo4JSession implements AutoCloseable {
             // throw original exception
             throw ex;
         }
+        finally {
+            // discard statements not completed (error condition)
+            pendingCommands.clear();
+        }
     }
 
     private void createVertices() {
+        // check we need to insert vertices in batches
+        if (batchSize > 0) {
+            // group vertices by labels (all vertices in the same batch statement must share labels)
+            Map<SortedSet<String>, List<Neo4JVertex>> groups = transientVertices.stream().collect(Collectors.groupingBy(Neo4JVertex::insertLabels));
+            // insert vertices
+            groups.values().forEach(group -> executeBatches(group, Neo4JVertex::insertCommand));
+            return;
+        }
         // insert vertices
         for (Neo4JVertex vertex : transientVertices) {
             // create command
             Neo4JDatabaseCommand command = vertex.insertCommand();
-            // execute statement
-            Result result = executeStatement(command.getStatement(), command.getParameters());
-            // process result
-            command.getCallback().accept(result);
-            // process summary
-            ResultSummaryLogger.log(result.consume());
+            // execute command
+            executeCommand(command);
         }
     }
 
     private void updateVertices() {
+        // check we need to update vertices in batches
+        if (batchSize > 0) {
+            // group vertices with dirty properties by match pattern
+            Map<String, List<Neo4JVertex>> groups = vertexUpdateQueue.stream().filter(Neo4JVertex::hasDirtyProperties).collect(Collectors.groupingBy(Neo4JVertex::batchKey));
+            // update properties
+            groups.values().forEach(group -> executeBatches(group, Neo4JVertex::updatePropertiesCommand));
+            // group vertices with added labels by match pattern and labels
+            Map<List<Object>, List<Neo4JVertex>> added = vertexUpdateQueue.stream().filter(vertex -> !vertex.addedLabels().isEmpty()).collect(Collectors.groupingBy(vertex -> Arrays.asList(vertex.batchKey(), vertex.addedLabels())));
+            // add labels
+            added.values().forEach(group -> executeBatches(group, Neo4JVertex::addLabelsCommand));
+            // group vertices with removed labels by match pattern and labels (removed last, vertices are matched using labels in database)
+            Map<List<Object>, List<Neo4JVertex>> removed = vertexUpdateQueue.stream().filter(vertex -> !vertex.removedLabels().isEmpty()).collect(Collectors.groupingBy(vertex -> Arrays.asList(vertex.batchKey(), vertex.removedLabels())));
+            // remove labels
+            removed.values().forEach(group -> executeBatches(group, Neo4JVertex::removeLabelsCommand));
+            return;
+        }
         // update vertices
         for (Neo4JVertex vertex : vertexUpdateQueue) {
             // create command
             Neo4JDatabaseCommand command = vertex.updateCommand();
             if (command != null) {
-                // execute statement
-                Result result = executeStatement(command.getStatement(), command.getParameters());
-                // process result
-                command.getCallback().accept(result);
-                // process summary
-                ResultSummaryLogger.log(result.consume());
+                // execute command
+                executeCommand(command);
             }
         }
     }
 
     private void deleteVertices() {
+        // check we need to delete vertices in batches
+        if (batchSize > 0) {
+            // group vertices by match pattern
+            Map<String, List<Neo4JVertex>> groups = vertexDeleteQueue.stream().collect(Collectors.groupingBy(Neo4JVertex::batchKey));
+            // delete vertices
+            groups.values().forEach(group -> executeBatches(group, Neo4JVertex::deleteCommand));
+            return;
+        }
         // delete vertices
         for (Neo4JVertex vertex : vertexDeleteQueue) {
             // create command
             Neo4JDatabaseCommand command = vertex.deleteCommand();
-            // execute statement
-            Result result = executeStatement(command.getStatement(), command.getParameters());
-            // process result
-            command.getCallback().accept(result);
-            // process summary
-            ResultSummaryLogger.log(result.consume());
+            // execute command
+            executeCommand(command);
         }
     }
 
     private void createEdges() {
+        // check we need to insert edges in batches
+        if (batchSize > 0) {
+            // group edges by label and endpoint patterns (all edges in the same batch statement must share them)
+            Map<String, List<Neo4JEdge>> groups = transientEdges.stream().collect(Collectors.groupingBy(Neo4JEdge::batchKey));
+            // insert edges
+            groups.values().forEach(group -> executeBatches(group, Neo4JEdge::insertCommand));
+            return;
+        }
         // insert edges
         for (Neo4JEdge edge : transientEdges) {
             // create command
             Neo4JDatabaseCommand command = edge.insertCommand();
-            // execute statement
-            Result result = executeStatement(command.getStatement(), command.getParameters());
-            // process result
-            command.getCallback().accept(result);
-            // process summary
-            ResultSummaryLogger.log(result.consume());
+            // execute command
+            executeCommand(command);
         }
     }
 
     private void updateEdges() {
+        // check we need to update edges in batches
+        if (batchSize > 0) {
+            // group dirty edges by label and endpoint patterns
+            Map<String, List<Neo4JEdge>> groups = edgeUpdateQueue.stream().filter(Neo4JEdge::isDirty).collect(Collectors.groupingBy(Neo4JEdge::batchKey));
+            // update edges
+            groups.values().forEach(group -> executeBatches(group, Neo4JEdge::updateCommand));
+            return;
+        }
         // update edges
         for (Neo4JEdge edge : edgeUpdateQueue) {
             // create command
             Neo4JDatabaseCommand command = edge.updateCommand();
             if (command != null) {
-                // execute statement
-                Result result = executeStatement(command.getStatement(), command.getParameters());
-                // process result
-                command.getCallback().accept(result);
-                // process summary
-                ResultSummaryLogger.log(result.consume());
+                // execute command
+                executeCommand(command);
             }
         }
     }
 
     private void deleteEdges() {
+        // check we need to delete edges in batches
+        if (batchSize > 0) {
+            // group edges by delete batch key
+            Map<String, List<Neo4JEdge>> groups = edgeDeleteQueue.stream().collect(Collectors.groupingBy(Neo4JEdge::deleteBatchKey));
+            // delete edges
+            groups.values().forEach(group -> executeBatches(group, Neo4JEdge::deleteCommand));
+            return;
+        }
         // delete edges
         for (Neo4JEdge edge : edgeDeleteQueue) {
             // create command
             Neo4JDatabaseCommand command = edge.deleteCommand();
-            // execute statement
-            Result result = executeStatement(command.getStatement(), command.getParameters());
-            // process result
-            command.getCallback().accept(result);
-            // process summary
-            ResultSummaryLogger.log(result.consume());
+            // execute command
+            executeCommand(command);
         }
     }
 
+    private <T extends Neo4JElement> void executeBatches(List<T> elements, Function<List<T>, Neo4JDatabaseCommand> factory) {
+        // split elements in chunks of batchSize elements
+        for (int index = 0; index < elements.size(); index += batchSize) {
+            // create command for chunk
+            Neo4JDatabaseCommand command = factory.apply(elements.subList(index, Math.min(index + batchSize, elements.size())));
+            // execute command
+            executeCommand(command);
+        }
+    }
+
+    private void executeCommand(Neo4JDatabaseCommand command) {
+        // execute statement (the driver sends the statement to the server without waiting for a response)
+        Result result = executeStatement(command.getStatement(), command.getParameters());
+        // check statement results can be processed later
+        if (pipelineEnabled) {
+            // defer result processing, statements are executed by the server in the order they were sent
+            pendingCommands.add(() -> completeCommand(command, result));
+            return;
+        }
+        // process result
+        completeCommand(command, result);
+    }
+
+    private void completePendingCommands() {
+        // process results in execution order (blocks until the server responds)
+        for (Runnable pending : pendingCommands) {
+            // complete command
+            pending.run();
+        }
+        // all statements completed
+        pendingCommands.clear();
+    }
+
+    private static void completeCommand(Neo4JDatabaseCommand command, Result result) {
+        // process result
+        command.getCallback().accept(result);
+        // process summary
+        ResultSummaryLogger.log(result.consume());
+    }
+
+    Result executeUserStatement(String statement, Map<String, Object> parameters) {
+        // flush pending changes if needed (statement boundary)
+        autoFlush();
+        // nodes returned by the statement could reflect changes not committed yet
+        userStatementsExecuted = true;
+        // execute statement
+        return executeStatement(statement, parameters);
+    }
+
+    Result executeUserStatement(String statement, Value parameters) {
+        // flush pending changes if needed (statement boundary)
+        autoFlush();
+        // nodes returned by the statement could reflect changes not committed yet
+        userStatementsExecuted = true;
+        // execute statement
+        return executeStatement(statement, parameters);
+    }
+
     Result executeStatement(String statement, Map<String, Object> parameters) {
         try {
             // statement (we are modifying text)
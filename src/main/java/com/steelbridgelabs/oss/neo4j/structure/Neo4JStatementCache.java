@@ -0,0 +1,141 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Cache of generated Cypher statements shared by all sessions created by a {@link Neo4JGraph}. Statements are keyed by
+ * the values used to render them (operation, label sets, direction, etc.), key values must not be modified once they
+ * are used in a key. Cache hits do not acquire locks nor update shared counters, statements are evicted using the CLOCK
+ * policy (a hit sets the entry reference bit, eviction walks entries in insertion order giving referenced entries a
+ * second chance) with a bounded number of steps per evicted entry.
+ *
+ * @author Rogelio J. Baucells
+ */
+final class Neo4JStatementCache {
+
+    private static final int MaximumEvictionSteps = 8;
+
+    private static final class Entry {
+
+        private final List<Object> key;
+        private final String statement;
+        private volatile boolean referenced = false;
+
+        private Entry(List<Object> key, String statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+    }
+
+    private final Map<List<Object>, Entry> statements = new ConcurrentHashMap<>();
+    private final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final Object evictionLock = new Object();
+    private final int capacity;
+
+    Neo4JStatementCache(int capacity) {
+        // validate argument
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be greater than zero");
+        // store fields
+        this.capacity = capacity;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    String statement(List<Object> key, Supplier<String> generator) {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(generator, "generator cannot be null");
+        // find statement
+        Entry entry = statements.get(key);
+        if (entry != null) {
+            // set reference bit (avoid writing shared memory if already set)
+            if (!entry.referenced)
+                entry.referenced = true;
+            // return statement
+            return entry.statement;
+        }
+        // render statement
+        Entry rendered = new Entry(key, generator.get());
+        // store statement (another thread could have stored it already)
+        entry = statements.putIfAbsent(key, rendered);
+        if (entry != null)
+            return entry.statement;
+        // append entry to clock
+        clock.offer(rendered);
+        // evict statements (capacity is checked after entry is in clock, entries stored by other threads are evicted by them)
+        if (statements.size() > capacity)
+            evict();
+        return rendered.statement;
+    }
+
+    private void evict() {
+        // only one thread evicts entries (cache misses only)
+        synchronized (evictionLock) {
+            while (statements.size() > capacity) {
+                // walk clock a bounded number of steps
+                Entry victim = null;
+                for (int step = 0; step < MaximumEvictionSteps && victim == null; ) {
+                    // next entry in clock
+                    Entry entry = clock.poll();
+                    if (entry == null)
+                        break;
+                    // skip entries no longer in cache (cache cleared)
+                    if (statements.get(entry.key) != entry)
+                        continue;
+                    // give referenced entries a second chance
+                    if (entry.referenced && step < MaximumEvictionSteps - 1) {
+                        // clear reference bit
+                        entry.referenced = false;
+                        // move entry to the end of the clock
+                        clock.offer(entry);
+                    }
+                    else
+                        victim = entry;
+                    // next step
+                    step++;
+                }
+                // check clock is empty (entries being stored by other threads, they will evict once stored)
+                if (victim == null)
+                    return;
+                // evict entry
+                statements.remove(victim.key, victim);
+            }
+        }
+    }
+
+    void clear() {
+        // clear cache and clock (stale clock entries are skipped while evicting)
+        statements.clear();
+        clock.clear();
+    }
+}
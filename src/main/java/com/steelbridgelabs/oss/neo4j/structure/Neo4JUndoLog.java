@@ -0,0 +1,69 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Per key undo log used to track the modifications of an element in a transaction. The log stores the value a key had
+ * before its first modification in the transaction, so commit only discards the log and rollback replays the changed keys.
+ *
+ * @param <V> The type of the recorded values, a {@code null} value means the key did not exist.
+ * @author Rogelio J. Baucells
+ */
+final class Neo4JUndoLog<V> {
+
+    private Map<String, V> entries = Collections.emptyMap();
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    Set<String> keys() {
+        return entries.keySet();
+    }
+
+    boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    void record(String key, V previous) {
+        // allocate map on first modification
+        if (entries.isEmpty())
+            entries = new HashMap<>();
+        // keep value before the first modification only
+        entries.putIfAbsent(key, previous);
+    }
+
+    void clear() {
+        // release entries
+        entries = Collections.emptyMap();
+    }
+
+    void replay(BiConsumer<String, V> consumer) {
+        // restore recorded values
+        entries.forEach(consumer);
+        // release entries
+        clear();
+    }
+}
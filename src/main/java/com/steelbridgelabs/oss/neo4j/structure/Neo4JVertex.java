@@ -18,7 +18,6 @@
 
 package com.steelbridgelabs.oss.neo4j.structure;
 
-import com.steelbridgelabs.oss.neo4j.structure.summary.ResultSummaryLogger;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
@@ -32,6 +31,7 @@ import org.neo4j.driver.Record;
 import org.neo4j.driver.Result;
 import org.neo4j.driver.Value;
 import org.neo4j.driver.internal.types.TypeRepresentation;
+import org.neo4j.driver.types.MapAccessor;
 import org.neo4j.driver.types.Node;
 
 import java.util.ArrayList;
@@ -41,6 +41,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -50,6 +51,8 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -69,7 +72,6 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
 
         public Neo4JVertexProperty(Neo4JVertex vertex, Object id, String name, T value) {
             Objects.requireNonNull(vertex, "vertex cannot be null");
-            Objects.requireNonNull(id, "id cannot be null");
             Objects.requireNonNull(name, "name cannot be null");
             Objects.requireNonNull(value, "value cannot be null");
             // store fields
@@ -117,8 +119,10 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
         @Override
         public void remove() {
             // check cardinality
-            Cardinality cardinality = vertex.cardinalities.get(name);
+            Cardinality cardinality = vertex.properties.cardinality(name);
             if (cardinality != null) {
+                // keep original value before modifying it
+                vertex.properties.track(name);
                 // check it is single value
                 if (cardinality != Cardinality.single) {
                     // get list of properties in vertex
@@ -130,10 +134,6 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
                         if (vertexProperties.isEmpty()) {
                             // remove property
                             vertex.properties.remove(name);
-                            // remove cardinality
-                            vertex.cardinalities.remove(name);
-                            // mark property as removed
-                            vertex.removedProperties.add(name);
                             // mark vertex as dirty
                             vertex.dirty = true;
                             // notify session
@@ -144,10 +144,6 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
                 else {
                     // remove property
                     vertex.properties.remove(name);
-                    // remove cardinality
-                    vertex.cardinalities.remove(name);
-                    // mark property as removed
-                    vertex.removedProperties.add(name);
                     // mark vertex as dirty
                     vertex.dirty = true;
                     // notify session
@@ -182,14 +178,11 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
     private final Neo4JSession session;
     private final Neo4JElementIdProvider<?> vertexIdProvider;
     private final Neo4JElementIdProvider<?> edgeIdProvider;
-    private final Map<String, Collection<VertexProperty>> properties = new HashMap<>();
-    private final Map<String, VertexProperty.Cardinality> cardinalities = new HashMap<>();
-    private final Set<Neo4JEdge> outEdges = new HashSet<>();
-    private final Set<Neo4JEdge> inEdges = new HashSet<>();
-    private final Set<String> outEdgeLabels = new HashSet<>();
-    private final Set<String> inEdgeLabels = new HashSet<>();
-    private final SortedSet<String> labelsAdded = new TreeSet<>();
-    private final SortedSet<String> labelsRemoved = new TreeSet<>();
+    private Neo4JPropertyStore properties = new Neo4JPropertyStore();
+    private Neo4JAdjacency outEdges = null;
+    private Neo4JAdjacency inEdges = null;
+    private SortedSet<String> labelsAdded = Collections.emptySortedSet();
+    private SortedSet<String> labelsRemoved = Collections.emptySortedSet();
     private final SortedSet<String> labels;
     private final Set<String> additionalLabels;
 
@@ -197,12 +190,10 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
     private boolean outEdgesLoaded = false;
     private boolean inEdgesLoaded = false;
     private boolean dirty = false;
+    private boolean propertiesLoaded = true;
     private SortedSet<String> matchLabels;
     private SortedSet<String> originalLabels;
     private Set<String> graphLabels;
-    private Set<String> removedProperties = new HashSet<>();
-    private Map<String, Collection<VertexProperty>> originalProperties;
-    private Map<String, VertexProperty.Cardinality> originalCardinalities;
 
     Neo4JVertex(Neo4JGraph graph, Neo4JSession session, Neo4JElementIdProvider<?> vertexIdProvider, Neo4JElementIdProvider<?> edgeIdProvider, Collection<String> labels) {
         Objects.requireNonNull(graph, "graph cannot be null");
@@ -224,9 +215,6 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
         this.matchLabels = Collections.emptySortedSet();
         // graph labels
         this.graphLabels = additionalLabels;
-        // initialize original properties and cardinalities
-        this.originalProperties = new HashMap<>();
-        this.originalCardinalities = new HashMap<>();
         // generate id
         this.id = vertexIdProvider.generate();
         // this is a new vertex, everything is in memory
@@ -235,11 +223,17 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
     }
 
     Neo4JVertex(Neo4JGraph graph, Neo4JSession session, Neo4JElementIdProvider<?> vertexIdProvider, Neo4JElementIdProvider<?> edgeIdProvider, Node node) {
+        this(graph, session, vertexIdProvider, edgeIdProvider, vertexIdProvider.get(Objects.requireNonNull(node, "node cannot be null")), node.labels());
+        // copy properties from node
+        loadProperties(node);
+    }
+
+    Neo4JVertex(Neo4JGraph graph, Neo4JSession session, Neo4JElementIdProvider<?> vertexIdProvider, Neo4JElementIdProvider<?> edgeIdProvider, Object id, Iterable<String> nodeLabels) {
         Objects.requireNonNull(graph, "graph cannot be null");
         Objects.requireNonNull(session, "session cannot be null");
         Objects.requireNonNull(vertexIdProvider, "vertexIdProvider cannot be null");
         Objects.requireNonNull(edgeIdProvider, "edgeIdProvider cannot be null");
-        Objects.requireNonNull(node, "node cannot be null");
+        Objects.requireNonNull(nodeLabels, "nodeLabels cannot be null");
         // store fields
         this.graph = graph;
         this.partition = graph.getPartition();
@@ -247,44 +241,62 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
         this.session = session;
         this.vertexIdProvider = vertexIdProvider;
         this.edgeIdProvider = edgeIdProvider;
-        // from node
-        this.id = vertexIdProvider.get(node);
+        this.id = id;
         // graph labels (additional & partition labels in original node)
-        this.graphLabels = StreamSupport.stream(node.labels().spliterator(), false).filter(label -> additionalLabels.contains(label) && !partition.validateLabel(label)).collect(Collectors.toSet());
+        this.graphLabels = StreamSupport.stream(nodeLabels.spliterator(), false).filter(label -> additionalLabels.contains(label) && !partition.validateLabel(label)).collect(Collectors.toSet());
         // labels, do not store additional && partition labels
-        this.labels = StreamSupport.stream(node.labels().spliterator(), false).filter(label -> !graphLabels.contains(label)).collect(Collectors.toCollection(TreeSet::new));
+        this.labels = StreamSupport.stream(nodeLabels.spliterator(), false).filter(label -> !graphLabels.contains(label)).collect(Collectors.toCollection(TreeSet::new));
         // this is the original set of labels
         this.originalLabels = new TreeSet<>(this.labels);
         // labels used to match the vertex in the database
-        this.matchLabels = StreamSupport.stream(node.labels().spliterator(), false).collect(Collectors.toCollection(TreeSet::new));
+        this.matchLabels = StreamSupport.stream(nodeLabels.spliterator(), false).collect(Collectors.toCollection(TreeSet::new));
+        // properties are not in memory (hollow vertex)
+        this.propertiesLoaded = false;
+    }
+
+    void loadProperties(MapAccessor entity) {
+        Objects.requireNonNull(entity, "entity cannot be null");
+        // property store sized for entity
+        Neo4JPropertyStore store = new Neo4JPropertyStore(entity.size());
         // id field name (if any)
         String idFieldName = vertexIdProvider.fieldName();
-        // copy properties from node, exclude identifier
-        StreamSupport.stream(node.keys().spliterator(), false).filter(key -> !key.equals(idFieldName)).forEach(key -> {
+        // copy properties from entity, exclude identifier
+        StreamSupport.stream(entity.keys().spliterator(), false).filter(key -> !key.equals(idFieldName)).forEach(key -> {
             // value
-            Value value = node.get(key);
+            Value value = entity.get(key);
             TypeRepresentation type = (TypeRepresentation)value.type();
             // process value type
             switch (type.constructor()) {
                 case LIST:
                     // process values
-                    properties.put(key, value.asList().stream().map(item -> new Neo4JVertexProperty<>(this, propertyIdProvider.incrementAndGet(), key, item)).collect(Collectors.toList()));
-                    // cardinality
-                    cardinalities.put(key, VertexProperty.Cardinality.list);
+                    store.put(key, VertexProperty.Cardinality.list, value.asList().stream().map(item -> new Neo4JVertexProperty<>(this, propertyIdProvider.incrementAndGet(), key, item)).collect(Collectors.toList()));
                     break;
                 case MAP:
                     throw new RuntimeException("TODO: implement maps");
                 default:
                     // add property
-                    properties.put(key, Collections.singletonList(new Neo4JVertexProperty<>(this, propertyIdProvider.incrementAndGet(), key, value.asObject())));
-                    // cardinality
-                    cardinalities.put(key, VertexProperty.Cardinality.single);
+                    store.put(key, new Neo4JVertexProperty<>(this, propertyIdProvider.incrementAndGet(), key, value.asObject()));
                     break;
             }
         });
-        // initialize original properties and cardinalities
-        this.originalProperties = new HashMap<>(properties);
-        this.originalCardinalities = new HashMap<>(cardinalities);
+        // use store, original values are recorded on first modification
+        this.properties = store;
+        // properties are in memory
+        this.propertiesLoaded = true;
+    }
+
+    boolean isPropertiesLoaded() {
+        return propertiesLoaded;
+    }
+
+    private void ensurePropertiesLoaded() {
+        // check properties are in memory
+        if (!propertiesLoaded) {
+            // transaction should be ready for io operations
+            graph.tx().readWrite();
+            // load properties from server
+            session.loadProperties(this);
+        }
     }
 
     /**
@@ -317,6 +329,9 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
         if (labels.add(label)) {
             // notify session
             session.dirtyVertex(this);
+            // allocate set on first use
+            if (labelsAdded.isEmpty())
+                labelsAdded = new TreeSet<>();
             // we need to update labels
             labelsAdded.add(label);
             // indicate label was added
@@ -336,9 +351,16 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
         // remove label from set
         if (labels.remove(label)) {
             // check this label was previously added in this session
-            if (!labelsAdded.remove(label)) {
+            if (labelsAdded.contains(label)) {
+                // no need to update label
+                labelsAdded.remove(label);
+            }
+            else {
                 // notify session
                 session.dirtyVertex(this);
+                // allocate set on first use
+                if (labelsRemoved.isEmpty())
+                    labelsRemoved = new TreeSet<>();
                 // we need to update labels
                 labelsRemoved.add(label);
             }
@@ -359,10 +381,13 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
      */
     public String matchPattern(String alias) {
         // generate match pattern
-        if (alias != null)
-            return "(" + alias + processLabels(matchLabels, false) + ")";
-        // pattern without alias
-        return "(" + processLabels(matchLabels, false) + ")";
+        return statement(Arrays.asList("pattern", alias, matchLabels), () -> {
+            // check alias
+            if (alias != null)
+                return "(" + alias + processLabels(matchLabels, false) + ")";
+            // pattern without alias
+            return "(" + processLabels(matchLabels, false) + ")";
+        });
     }
 
     /**
@@ -378,10 +403,15 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
     public String matchPredicate(String alias, String idParameterName) {
         Objects.requireNonNull(alias, "alias cannot be null");
         Objects.requireNonNull(idParameterName, "idParameterName cannot be null");
+        // create match predicate
+        return idMatchPredicate(alias, "$" + idParameterName);
+    }
+
+    private String idMatchPredicate(String alias, String idExpression) {
         // get partition
         Neo4JReadPartition partition = graph.getPartition();
         // create match predicate
-        return vertexIdProvider.matchPredicateOperand(alias) + " = $" + idParameterName + (partition.usesMatchPredicate() ? " AND (" + partition.vertexMatchPredicate(alias) + ")" : "");
+        return vertexIdProvider.matchPredicateOperand(alias) + " = " + idExpression + (partition.usesMatchPredicate() ? " AND (" + partition.vertexMatchPredicate(alias) + ")" : "");
     }
 
     /**
@@ -398,7 +428,25 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
         Objects.requireNonNull(alias, "alias cannot be null");
         Objects.requireNonNull(idParameterName, "idParameterName cannot be null");
         // create statement
-        return "MATCH " + matchPattern(alias) + " WHERE " + matchPredicate(alias, idParameterName);
+        return statement(Arrays.asList("match", alias, idParameterName, matchLabels), () -> "MATCH " + matchPattern(alias) + " WHERE " + matchPredicate(alias, idParameterName));
+    }
+
+    /**
+     * Generates a Cypher MATCH statement for the vertex where the vertex id is read from an expression (e.g. a variable
+     * introduced by an UNWIND clause), example:
+     * <p>
+     * MATCH (alias) WHERE alias.id = row.id AND (alias:Label1 OR alias:Label2)
+     * </p>
+     *
+     * @param alias        The node alias.
+     * @param idExpression The Cypher expression that evaluates to the vertex id.
+     * @return the Cypher MATCH statement.
+     */
+    String unwindMatchStatement(String alias, String idExpression) {
+        Objects.requireNonNull(alias, "alias cannot be null");
+        Objects.requireNonNull(idExpression, "idExpression cannot be null");
+        // create statement
+        return statement(Arrays.asList("unwind", alias, idExpression, matchLabels), () -> "MATCH " + matchPattern(alias) + " WHERE " + idMatchPredicate(alias, idExpression));
     }
 
     @Override
@@ -431,29 +479,47 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
 
     void removeEdge(Neo4JEdge edge) {
         // remove edge from internal references
-        outEdges.remove(edge);
-        inEdges.remove(edge);
+        if (outEdges != null)
+            outEdges.remove(edge);
+        if (inEdges != null)
+            inEdges.remove(edge);
     }
 
-    private void processEdgesWhereClause(String vertexAlias, List<Object> identifiers, String alias, StringBuilder builder, Map<String, Object> parameters) {
-        // generate match predicate
-        String predicate = partition.vertexMatchPredicate(vertexAlias);
-        // check identifiers are empty
-        if (!identifiers.isEmpty()) {
-            // filter edges
-            builder.append(" AND NOT ").append(edgeIdProvider.matchPredicateOperand(alias)).append(" IN $ids");
-            // ids parameters
-            parameters.put("ids", identifiers);
-            // check we need to add in predicate
-            if (predicate != null) {
-                // append predicate
+    private static Predicate<Object> excludedEdges(Neo4JAdjacency adjacency, Set<String> labels) {
+        // check membership in adjacency (labels marked as loaded are not queried, no need to check identifiers if there are no edges in memory)
+        return adjacency.isEmpty(labels) ? id -> false : id -> adjacency.contains(labels, id);
+    }
+
+    private String adjacentStatement(Direction direction, Set<String> relationshipLabels, boolean returnEdges) {
+        // lazy properties
+        boolean lazyProperties = session.isLazyPropertiesEnabled();
+        // sort relationship labels (same set of labels must generate the same statement)
+        SortedSet<String> types = new TreeSet<>(relationshipLabels);
+        // statement
+        return statement(Arrays.asList(returnEdges ? "edges" : "vertices", direction, matchLabels, types, lazyProperties), () -> {
+            // create string builder
+            StringBuilder builder = new StringBuilder();
+            // match clause
+            builder.append("MATCH ").append(matchPattern("n")).append(direction == Direction.IN ? "<-[r" : "-[r");
+            if (!types.isEmpty())
+                builder.append(types.stream().map(label -> "`" + label + "`").collect(Collectors.joining("|", ":", "")));
+            builder.append(direction == Direction.OUT ? "]->(m" : "]-(m").append(processLabels(Collections.emptySet(), true)).append(")").append(" WHERE ").append(vertexIdProvider.matchPredicateOperand("n")).append(" = $id");
+            // generate match predicate
+            String predicate = partition.vertexMatchPredicate("m");
+            if (predicate != null)
                 builder.append(" AND ").append(predicate);
-            }
-        }
-        else if (predicate != null) {
-            // append WHERE
-            builder.append(" AND ").append(predicate);
-        }
+            // return (edge id is required to skip edges in memory)
+            builder.append(" RETURN ").append(returnEdges ? Neo4JSession.edgeProjection("n", "r", "m", vertexIdProvider, edgeIdProvider, lazyProperties) : Neo4JSession.vertexProjection("m", vertexIdProvider, lazyProperties) + ", " + edgeIdProvider.matchPredicateOperand("r"));
+            // statement
+            return builder.toString();
+        });
+    }
+
+    private String statement(List<Object> key, Supplier<String> generator) {
+        // statement cache (if enabled)
+        Neo4JStatementCache cache = graph.statementCache();
+        // render statement
+        return cache != null ? cache.statement(key, generator) : generator.get();
     }
 
     /**
@@ -476,41 +542,25 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
             // check we have all edges in memory
             if (!outEdgesLoaded) {
                 // labels we need to query for
-                Set<String> relationshipLabels = set.stream().filter(item -> !outEdgeLabels.contains(item)).collect(Collectors.toSet());
+                Set<String> relationshipLabels = set.stream().filter(item -> !outEdges().isLoaded(item)).collect(Collectors.toSet());
                 // check query is required for labels
                 if (set.isEmpty() || !relationshipLabels.isEmpty()) {
-                    // create string builder
-                    StringBuilder builder = new StringBuilder();
-                    // match clause
-                    builder.append("MATCH ").append(matchPattern("n")).append("-[r");
-                    if (!relationshipLabels.isEmpty())
-                        builder.append(relationshipLabels.stream().map(label -> "`" + label + "`").collect(Collectors.joining("|", ":", "")));
-                    builder.append("]->(m").append(processLabels(Collections.emptySet(), true)).append(")").append(" WHERE ").append(vertexIdProvider.matchPredicateOperand("n")).append(" = $id");
-                    // edge ids already in memory
-                    List<Object> identifiers = outEdges.stream().map(Neo4JEdge::id).filter(Objects::nonNull).collect(Collectors.toList());
-                    // process where clause
-                    processEdgesWhereClause("m", identifiers, "r", builder, parameters);
-                    // return
-                    builder.append(" RETURN n, r, m");
+                    // edges already in memory for queried labels (skipped while reading the query results)
+                    Predicate<Object> identifiers = excludedEdges(outEdges(), relationshipLabels);
                     // execute statement
-                    Result result = session.executeStatement(builder.toString(), parameters);
+                    Result result = session.executeStatement(adjacentStatement(Direction.OUT, relationshipLabels, true), parameters);
                     // execute command
-                    Stream<Edge> query = session.edges(result);
+                    Stream<Edge> query = session.edges(result, identifiers);
                     // edges in memory plus the ones in database (return copy since edges can be deleted in the middle of the loop)
-                    Iterator<Edge> iterator = Stream.concat((labels.length != 0 ? outEdges.stream().filter(edge -> set.contains(edge.label())) : outEdges.stream()).map(edge -> (Edge)edge), query)
-                        .collect(Collectors.toList())
-                        .iterator();
-                    // process summary (query has been already consumed by combine)
-                    ResultSummaryLogger.log(result.consume());
-                    // after this line it is safe to update loaded flag and labels in memory
-                    outEdgesLoaded = labels.length == 0;
-                    outEdgeLabels.addAll(set);
-                    // return iterator
-                    return iterator;
+                    return Neo4JSession.combine(outEdges().stream(set).map(edge -> (Edge)edge), query, result, session.isStreamingEnabled(), () -> {
+                        // after this line it is safe to update loaded flag and labels in memory
+                        outEdgesLoaded = labels.length == 0;
+                        outEdges().loaded(set);
+                    });
                 }
             }
             // edges in memory (return copy since edges can be deleted in the middle of the loop)
-            return outEdges.stream().filter(edge -> labels.length == 0 || set.contains(edge.label()))
+            return outEdges().stream(set)
                 .map(edge -> (Edge)edge)
                 .collect(Collectors.toList())
                 .iterator();
@@ -520,41 +570,25 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
             // check we have all edges in memory
             if (!inEdgesLoaded) {
                 // labels we need to query for
-                Set<String> relationshipLabels = set.stream().filter(item -> !inEdgeLabels.contains(item)).collect(Collectors.toSet());
+                Set<String> relationshipLabels = set.stream().filter(item -> !inEdges().isLoaded(item)).collect(Collectors.toSet());
                 // check query is required for labels
                 if (set.isEmpty() || !relationshipLabels.isEmpty()) {
-                    // create string builder
-                    StringBuilder builder = new StringBuilder();
-                    // match clause
-                    builder.append("MATCH ").append(matchPattern("n")).append("<-[r");
-                    if (!relationshipLabels.isEmpty())
-                        builder.append(relationshipLabels.stream().map(label -> "`" + label + "`").collect(Collectors.joining("|", ":", "")));
-                    builder.append("]-(m").append(processLabels(Collections.emptySet(), true)).append(")").append(" WHERE ").append(vertexIdProvider.matchPredicateOperand("n")).append(" = $id");
-                    // edge ids already in memory
-                    List<Object> identifiers = inEdges.stream().map(Neo4JEdge::id).filter(Objects::nonNull).collect(Collectors.toList());
-                    // process where clause
-                    processEdgesWhereClause("m", identifiers, "r", builder, parameters);
-                    // return
-                    builder.append(" RETURN n, r, m");
+                    // edges already in memory for queried labels (skipped while reading the query results)
+                    Predicate<Object> identifiers = excludedEdges(inEdges(), relationshipLabels);
                     // execute statement
-                    Result result = session.executeStatement(builder.toString(), parameters);
+                    Result result = session.executeStatement(adjacentStatement(Direction.IN, relationshipLabels, true), parameters);
                     // execute command
-                    Stream<Edge> query = session.edges(result);
+                    Stream<Edge> query = session.edges(result, identifiers);
                     // edges in memory plus the ones in database (return copy since edges can be deleted in the middle of the loop)
-                    Iterator<Edge> iterator = Stream.concat((labels.length != 0 ? inEdges.stream().filter(edge -> set.contains(edge.label())) : inEdges.stream()).map(edge -> (Edge)edge), query)
-                        .collect(Collectors.toList())
-                        .iterator();
-                    // process summary (query has been already consumed by combine)
-                    ResultSummaryLogger.log(result.consume());
-                    // after this line it is safe to update loaded flag and labels in memory
-                    inEdgesLoaded = labels.length == 0;
-                    inEdgeLabels.addAll(set);
-                    // return iterator
-                    return iterator;
+                    return Neo4JSession.combine(inEdges().stream(set).map(edge -> (Edge)edge), query, result, session.isStreamingEnabled(), () -> {
+                        // after this line it is safe to update loaded flag and labels in memory
+                        inEdgesLoaded = labels.length == 0;
+                        inEdges().loaded(set);
+                    });
                 }
             }
             // edges in memory (return copy since edges can be deleted in the middle of the loop)
-            return inEdges.stream().filter(edge -> labels.length == 0 || set.contains(edge.label()))
+            return inEdges().stream(set)
                 .map(edge -> (Edge)edge)
                 .collect(Collectors.toList())
                 .iterator();
@@ -562,42 +596,26 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
         // check we have all edges in memory
         if (!outEdgesLoaded || !inEdgesLoaded) {
             // check we have labels already in memory
-            if (set.isEmpty() || !outEdgeLabels.containsAll(set) || !inEdgeLabels.containsAll(set)) {
-                // create string builder
-                StringBuilder builder = new StringBuilder();
-                // match clause
-                builder.append("MATCH ").append(matchPattern("n")).append("-[r");
-                if (!set.isEmpty())
-                    builder.append(set.stream().map(label -> "`" + label + "`").collect(Collectors.joining("|", ":", "")));
-                builder.append("]-(m").append(processLabels(Collections.emptySet(), true)).append(")").append(" WHERE ").append(vertexIdProvider.matchPredicateOperand("n")).append(" = $id");
-                // edge ids already in memory
-                List<Object> identifiers = Stream.concat(outEdges.stream(), inEdges.stream()).map(Neo4JEdge::id).filter(Objects::nonNull).collect(Collectors.toList());
-                // process where clause
-                processEdgesWhereClause("m", identifiers, "r", builder, parameters);
-                // return
-                builder.append(" RETURN n, r, m");
+            if (set.isEmpty() || !outEdges().isLoaded(set) || !inEdges().isLoaded(set)) {
+                // edges already in memory for queried labels (skipped while reading the query results)
+                Predicate<Object> identifiers = excludedEdges(outEdges(), set).or(excludedEdges(inEdges(), set));
                 // execute statement
-                Result result = session.executeStatement(builder.toString(), parameters);
+                Result result = session.executeStatement(adjacentStatement(Direction.BOTH, set, true), parameters);
                 // execute command
-                Stream<Edge> query = session.edges(result);
+                Stream<Edge> query = session.edges(result, identifiers);
                 // edges in memory plus the ones in database (return copy since edges can be deleted in the middle of the loop)
-                Iterator<Edge> iterator = Stream.concat(Stream.concat(labels.length != 0 ? outEdges.stream().filter(edge -> set.contains(edge.label())) : outEdges.stream(), labels.length != 0 ? inEdges.stream().filter(edge -> set.contains(edge.label())) : inEdges.stream()).map(edge -> (Edge)edge), query)
-                    .collect(Collectors.toList())
-                    .iterator();
-                // process summary (query has been already consumed by combine)
-                ResultSummaryLogger.log(result.consume());
-                // after this line it is safe to update loaded flags
-                outEdgesLoaded = outEdgesLoaded || labels.length == 0;
-                inEdgesLoaded = inEdgesLoaded || labels.length == 0;
-                // update labels in memory
-                outEdgeLabels.addAll(set);
-                inEdgeLabels.addAll(set);
-                // return iterator
-                return iterator;
+                return Neo4JSession.combine(Stream.concat(outEdges().stream(set), inEdges().stream(set)).map(edge -> (Edge)edge), query, result, session.isStreamingEnabled(), () -> {
+                    // after this line it is safe to update loaded flags
+                    outEdgesLoaded = outEdgesLoaded || labels.length == 0;
+                    inEdgesLoaded = inEdgesLoaded || labels.length == 0;
+                    // update labels in memory
+                    outEdges().loaded(set);
+                    inEdges().loaded(set);
+                });
             }
         }
         // edges in memory (return copy since edges can be deleted in the middle of the loop)
-        return Stream.concat(labels.length != 0 ? inEdges.stream().filter(edge -> set.contains(edge.label())) : inEdges.stream(), labels.length != 0 ? outEdges.stream().filter(edge -> set.contains(edge.label())) : outEdges.stream())
+        return Stream.concat(inEdges().stream(set), outEdges().stream(set))
             .map(edge -> (Edge)edge)
             .collect(Collectors.toList())
             .iterator();
@@ -623,38 +641,21 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
             // check we have all edges in memory
             if (!outEdgesLoaded) {
                 // labels we need to query for
-                Set<String> relationshipLabels = set.stream().filter(item -> !outEdgeLabels.contains(item)).collect(Collectors.toSet());
+                Set<String> relationshipLabels = set.stream().filter(item -> !outEdges().isLoaded(item)).collect(Collectors.toSet());
                 // check query is required for labels
                 if (set.isEmpty() || !relationshipLabels.isEmpty()) {
-                    // create string builder
-                    StringBuilder builder = new StringBuilder();
-                    // match clause
-                    builder.append("MATCH ").append(matchPattern("n")).append("-[r");
-                    if (!relationshipLabels.isEmpty())
-                        builder.append(relationshipLabels.stream().map(label -> "`" + label + "`").collect(Collectors.joining("|", ":", "")));
-                    builder.append("]->(m").append(processLabels(Collections.emptySet(), true)).append(")").append(" WHERE ").append(vertexIdProvider.matchPredicateOperand("n")).append(" = $id");
-                    // edge ids already in memory
-                    List<Object> identifiers = outEdges.stream().map(Neo4JEdge::id).filter(Objects::nonNull).collect(Collectors.toList());
-                    // process where clause
-                    processEdgesWhereClause("m", identifiers, "r", builder, parameters);
-                    // return
-                    builder.append(" RETURN m");
+                    // edges already in memory for queried labels (skipped while reading the query results)
+                    Predicate<Object> identifiers = excludedEdges(outEdges(), relationshipLabels);
                     // execute statement
-                    Result result = session.executeStatement(builder.toString(), parameters);
+                    Result result = session.executeStatement(adjacentStatement(Direction.OUT, relationshipLabels, false), parameters);
                     // execute command
-                    Stream<Vertex> query = session.vertices(result);
+                    Stream<Vertex> query = session.vertices(result, identifiers);
                     // return copy since elements can be deleted in the middle of the loop
-                    Iterator<Vertex> iterator = Stream.concat((labels.length != 0 ? outEdges.stream().filter(edge -> set.contains(edge.label())) : outEdges.stream()).map(Edge::inVertex), query)
-                        .collect(Collectors.toList())
-                        .iterator();
-                    // process summary (query has been already consumed by collector)
-                    ResultSummaryLogger.log(result.consume());
-                    // return iterator
-                    return iterator;
+                    return Neo4JSession.combine(outEdges().stream(set).map(Edge::inVertex), query, result, session.isStreamingEnabled());
                 }
             }
             // edges in memory (return copy since elements can be deleted in the middle of the loop)
-            return (labels.length != 0 ? outEdges.stream().filter(edge -> set.contains(edge.label())) : outEdges.stream()).map(Edge::inVertex)
+            return outEdges().stream(set).map(Edge::inVertex)
                 .collect(Collectors.toList())
                 .iterator();
         }
@@ -663,74 +664,40 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
             // check we have all edges in memory
             if (!inEdgesLoaded) {
                 // labels we need to query for
-                Set<String> relationshipLabels = set.stream().filter(item -> !inEdgeLabels.contains(item)).collect(Collectors.toSet());
+                Set<String> relationshipLabels = set.stream().filter(item -> !inEdges().isLoaded(item)).collect(Collectors.toSet());
                 // check query is required for labels
                 if (set.isEmpty() || !relationshipLabels.isEmpty()) {
-                    // create string builder
-                    StringBuilder builder = new StringBuilder();
-                    // match clause
-                    builder.append("MATCH ").append(matchPattern("n")).append("<-[r");
-                    if (!relationshipLabels.isEmpty())
-                        builder.append(relationshipLabels.stream().map(label -> "`" + label + "`").collect(Collectors.joining("|", ":", "")));
-                    builder.append("]-(m").append(processLabels(Collections.emptySet(), true)).append(")").append(" WHERE ").append(vertexIdProvider.matchPredicateOperand("n")).append(" = $id");
-                    // edge ids already in memory
-                    List<Object> identifiers = inEdges.stream().map(Neo4JEdge::id).filter(Objects::nonNull).collect(Collectors.toList());
-                    // process where clause
-                    processEdgesWhereClause("m", identifiers, "r", builder, parameters);
-                    // return
-                    builder.append(" RETURN m");
+                    // edges already in memory for queried labels (skipped while reading the query results)
+                    Predicate<Object> identifiers = excludedEdges(inEdges(), relationshipLabels);
                     // execute statement
-                    Result result = session.executeStatement(builder.toString(), parameters);
+                    Result result = session.executeStatement(adjacentStatement(Direction.IN, relationshipLabels, false), parameters);
                     // execute command
-                    Stream<Vertex> query = session.vertices(result);
+                    Stream<Vertex> query = session.vertices(result, identifiers);
                     // return copy since elements can be deleted in the middle of the loop
-                    Iterator<Vertex> iterator = Stream.concat((labels.length != 0 ? inEdges.stream().filter(edge -> set.contains(edge.label())) : inEdges.stream()).map(Edge::outVertex), query)
-                        .collect(Collectors.toList())
-                        .iterator();
-                    // process summary (query has been already consumed by collector)
-                    ResultSummaryLogger.log(result.consume());
-                    // return iterator
-                    return iterator;
+                    return Neo4JSession.combine(inEdges().stream(set).map(Edge::outVertex), query, result, session.isStreamingEnabled());
                 }
             }
             // edges in memory (return copy since elements can be deleted in the middle of the loop
-            return (labels.length != 0 ? inEdges.stream().filter(edge -> set.contains(edge.label())) : inEdges.stream()).map(Edge::outVertex)
+            return inEdges().stream(set).map(Edge::outVertex)
                 .collect(Collectors.toList())
                 .iterator();
         }
         // check we have all edges in memory
         if (!outEdgesLoaded || !inEdgesLoaded) {
             // check we have labels already in memory
-            if (set.isEmpty() || !outEdgeLabels.containsAll(set) || !inEdgeLabels.containsAll(set)) {
-                // create string builder
-                StringBuilder builder = new StringBuilder();
-                // match clause
-                builder.append("MATCH ").append(matchPattern("n")).append("-[r");
-                if (!set.isEmpty())
-                    builder.append(set.stream().map(label -> "`" + label + "`").collect(Collectors.joining("|", ":", "")));
-                builder.append("]-(m").append(processLabels(Collections.emptySet(), true)).append(")").append(" WHERE ").append(vertexIdProvider.matchPredicateOperand("n")).append(" = $id");
-                // edge ids already in memory
-                List<Object> identifiers = Stream.concat(outEdges.stream(), inEdges.stream()).map(Neo4JEdge::id).filter(Objects::nonNull).collect(Collectors.toList());
-                // process where clause
-                processEdgesWhereClause("m", identifiers, "r", builder, parameters);
-                // return
-                builder.append(" RETURN m");
+            if (set.isEmpty() || !outEdges().isLoaded(set) || !inEdges().isLoaded(set)) {
+                // edges already in memory for queried labels (skipped while reading the query results)
+                Predicate<Object> identifiers = excludedEdges(outEdges(), set).or(excludedEdges(inEdges(), set));
                 // execute statement
-                Result result = session.executeStatement(builder.toString(), parameters);
+                Result result = session.executeStatement(adjacentStatement(Direction.BOTH, set, false), parameters);
                 // execute command
-                Stream<Vertex> query = session.vertices(result);
+                Stream<Vertex> query = session.vertices(result, identifiers);
                 // return copy since elements can be deleted in the middle of the loop
-                Iterator<Vertex> iterator = Stream.concat(Stream.concat((labels.length != 0 ? outEdges.stream().filter(edge -> set.contains(edge.label())) : outEdges.stream()).map(Edge::inVertex), (labels.length != 0 ? inEdges.stream().filter(edge -> set.contains(edge.label())) : inEdges.stream()).map(Edge::outVertex)), query)
-                    .collect(Collectors.toList())
-                    .iterator();
-                // process summary (query has been already consumed by collector)
-                ResultSummaryLogger.log(result.consume());
-                // return iterator
-                return iterator;
+                return Neo4JSession.combine(Stream.concat(outEdges().stream(set).map(Edge::inVertex), inEdges().stream(set).map(Edge::outVertex)), query, result, session.isStreamingEnabled());
             }
         }
         // edges in memory (return copy since edges can be deleted in the middle of the loop)
-        return Stream.concat((labels.length != 0 ? outEdges.stream().filter(edge -> set.contains(edge.label())) : outEdges.stream()).map(Edge::inVertex), (labels.length != 0 ? inEdges.stream().filter(edge -> set.contains(edge.label())) : inEdges.stream()).map(Edge::outVertex))
+        return Stream.concat(outEdges().stream(set).map(Edge::inVertex), inEdges().stream(set).map(Edge::outVertex))
             .collect(Collectors.toList())
             .iterator();
     }
@@ -747,12 +714,16 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
             throw VertexProperty.Exceptions.metaPropertiesNotSupported();
         // validate bolt support
         Neo4JBoltSupport.checkPropertyValue(value);
+        // properties must be in memory
+        ensurePropertiesLoaded();
         // check cardinality
-        VertexProperty.Cardinality existingCardinality = cardinalities.get(name);
+        VertexProperty.Cardinality existingCardinality = properties.cardinality(name);
         if (existingCardinality != null && existingCardinality != cardinality)
             throw new IllegalArgumentException(String.format(Locale.getDefault(), "Property %s has been defined with %s cardinality", name, existingCardinality));
         // transaction should be ready for io operations
         graph.tx().readWrite();
+        // keep original value before modifying it
+        properties.track(name);
         // vertex property
         Neo4JVertexProperty<V> property = new Neo4JVertexProperty<>(this, propertyIdProvider.incrementAndGet(), name, value);
         // check cardinality
@@ -764,9 +735,7 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
                     // initialize list
                     list = new ArrayList<>();
                     // use list
-                    properties.put(name, list);
-                    // cardinality
-                    cardinalities.put(name, VertexProperty.Cardinality.list);
+                    properties.put(name, VertexProperty.Cardinality.list, list);
                 }
                 // add value to list, this will always call dirty method in session
                 if (list.add(property)) {
@@ -783,9 +752,7 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
                     // initialize set
                     set = new HashSet<>();
                     // use set
-                    properties.put(name, set);
-                    // cardinality
-                    cardinalities.put(name, VertexProperty.Cardinality.set);
+                    properties.put(name, VertexProperty.Cardinality.set, set);
                 }
                 // check value does not exist in collection, TODO: optimize this search
                 if (set.stream().noneMatch(item -> item.value().equals(value))) {
@@ -799,9 +766,7 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
                 break;
             default:
                 // use value (single)
-                properties.put(name, Collections.singletonList(property));
-                // cardinality
-                cardinalities.put(name, VertexProperty.Cardinality.single);
+                properties.put(name, property);
                 // notify session
                 session.dirtyVertex(this);
                 // update flag
@@ -819,6 +784,8 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
     @SuppressWarnings("unchecked")
     public <V> VertexProperty<V> property(String key) {
         Objects.requireNonNull(key, "key cannot be null");
+        // properties must be in memory
+        ensurePropertiesLoaded();
         // check we have a property with the given key
         Collection<?> collection = properties.get(key);
         if (collection != null) {
@@ -846,13 +813,14 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
     @SuppressWarnings("unchecked")
     public <V> Iterator<VertexProperty<V>> properties(String... propertyKeys) {
         Objects.requireNonNull(propertyKeys, "propertyKeys cannot be null");
+        // properties must be in memory
+        ensurePropertiesLoaded();
         // check we have properties with key
         if (!properties.isEmpty()) {
             // no properties in filter
             if (propertyKeys.length == 0) {
                 // all properties (return a copy since properties iterator can be modified by calling remove())
-                return properties.entrySet().stream()
-                    .flatMap(entry -> entry.getValue().stream())
+                return properties.stream()
                     .map(item -> (VertexProperty<V>)item)
                     .collect(Collectors.toList())
                     .iterator();
@@ -873,7 +841,7 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
             }
             // loop property keys (return a copy since properties iterator can be modified by calling remove())
             return Arrays.stream(propertyKeys)
-                .flatMap(key -> ((Collection<?>)properties.getOrDefault(key, Collections.EMPTY_LIST)).stream())
+                .flatMap(properties::stream)
                 .map(item -> (VertexProperty<V>)item)
                 .collect(Collectors.toList())
                 .iterator();
@@ -898,51 +866,68 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
         // transaction should be ready for io operations
         graph.tx().readWrite();
         // remove all edges
-        outEdges.forEach(edge -> session.removeEdge(edge, false));
+        outEdges().stream().forEach(edge -> session.removeEdge(edge, false));
         // remove vertex on session
         session.removeVertex(this);
     }
 
+    private Neo4JAdjacency outEdges() {
+        // allocate adjacency on first use
+        if (outEdges == null)
+            outEdges = new Neo4JAdjacency();
+        return outEdges;
+    }
+
+    private Neo4JAdjacency inEdges() {
+        // allocate adjacency on first use
+        if (inEdges == null)
+            inEdges = new Neo4JAdjacency();
+        return inEdges;
+    }
+
     void addInEdge(Neo4JEdge edge) {
         Objects.requireNonNull(edge, "edge cannot be null");
-        // add to set
-        inEdges.add(edge);
+        // add to adjacency
+        inEdges().add(edge);
     }
 
     void addOutEdge(Neo4JEdge edge) {
         Objects.requireNonNull(edge, "edge cannot be null");
-        // add to set
-        outEdges.add(edge);
+        // add to adjacency
+        outEdges().add(edge);
+    }
+
+    boolean hasEdgesLoaded(Direction direction, Set<String> labels) {
+        Objects.requireNonNull(direction, "direction cannot be null");
+        Objects.requireNonNull(labels, "labels cannot be null");
+        // out edges in memory
+        boolean out = outEdgesLoaded || !labels.isEmpty() && outEdges().isLoaded(labels);
+        // in edges in memory
+        boolean in = inEdgesLoaded || !labels.isEmpty() && inEdges().isLoaded(labels);
+        // check direction
+        return direction == Direction.OUT ? out : direction == Direction.IN ? in : out && in;
+    }
+
+    void edgesLoaded(Direction direction, Set<String> labels) {
+        Objects.requireNonNull(direction, "direction cannot be null");
+        Objects.requireNonNull(labels, "labels cannot be null");
+        // out edges
+        if (direction != Direction.IN) {
+            // update loaded flag and labels in memory
+            outEdgesLoaded = outEdgesLoaded || labels.isEmpty();
+            outEdges().loaded(labels);
+        }
+        // in edges
+        if (direction != Direction.OUT) {
+            // update loaded flag and labels in memory
+            inEdgesLoaded = inEdgesLoaded || labels.isEmpty();
+            inEdges().loaded(labels);
+        }
     }
 
     private Map<String, Object> statementParameters() {
-        // define collector
-        Collector<Map.Entry<String, Collection<VertexProperty>>, Map<String, Object>, Map<String, Object>> collector = Collector.of(
-            HashMap::new,
-            (map, entry) -> {
-                // key & value
-                String key = entry.getKey();
-                Collection<VertexProperty> list = entry.getValue();
-                // check cardinality
-                if (cardinalities.get(key) == VertexProperty.Cardinality.single) {
-                    // iterator
-                    Iterator<VertexProperty> iterator = list.iterator();
-                    // add single value to map
-                    if (iterator.hasNext())
-                        map.put(key, iterator.next().value());
-                }
-                else {
-                    // add list of values
-                    map.put(key, list.stream().map(Property::value).collect(Collectors.toList()));
-                }
-            },
-            (map1, map2) -> map1,
-            (map) -> map
-        );
         // process properties
-        Map<String, Object> parameters = properties.entrySet().stream().collect(collector);
-        // removed properties
-        removedProperties.forEach(name -> parameters.put(name, null));
+        Map<String, Object> parameters = properties.values();
         // append id field if required
         String idFieldName = vertexIdProvider.fieldName();
         if (id != null && idFieldName != null)
@@ -951,17 +936,39 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
         return parameters;
     }
 
+    String batchKey() {
+        // vertices sharing the same match pattern can be processed in the same statement
+        return matchPattern(null);
+    }
+
+    boolean hasDirtyProperties() {
+        return dirty;
+    }
+
+    SortedSet<String> addedLabels() {
+        return labelsAdded;
+    }
+
+    SortedSet<String> removedLabels() {
+        return labelsRemoved;
+    }
+
+    SortedSet<String> insertLabels() {
+        // concat labels with additional labels on insertion
+        return Stream.concat(labels.stream(), additionalLabels.stream()).collect(Collectors.toCollection(TreeSet::new));
+    }
+
     @Override
     public Neo4JDatabaseCommand insertCommand() {
-        // concat labels with additional labels on insertion
-        SortedSet<String> labels = Stream.concat(this.labels.stream(), additionalLabels.stream()).collect(Collectors.toCollection(TreeSet::new));
+        // labels + additional labels
+        SortedSet<String> labels = insertLabels();
         try {
             // parameters
             Map<String, Object> parameters = Collections.singletonMap("vp", statementParameters());
             // check database side id generation is required
             if (id == null) {
                 // create statement
-                String statement = "CREATE (n" + processLabels(labels, false) + "$vp) RETURN " + vertexIdProvider.matchPredicateOperand("n");
+                String statement = statement(Arrays.asList("insert", labels, true), () -> "CREATE (n" + processLabels(labels, false) + "$vp) RETURN " + vertexIdProvider.matchPredicateOperand("n"));
                 // command statement
                 return new Neo4JDatabaseCommand(statement, parameters, result -> {
                     // check we received data
@@ -974,7 +981,7 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
                 });
             }
             // command statement
-            return new Neo4JDatabaseCommand("CREATE (" + processLabels(labels, false) + "$vp)", parameters);
+            return new Neo4JDatabaseCommand(statement(Arrays.asList("insert", labels, false), () -> "CREATE (" + processLabels(labels, false) + "$vp)"), parameters);
         }
         finally {
             // to find vertex in database (labels + additional labels)
@@ -982,6 +989,50 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
         }
     }
 
+    /**
+     * Generates a single Cypher CREATE statement for a batch of transient vertices, example:
+     * <p>
+     * UNWIND $batch AS vp CREATE (n:Label1:Label2) SET n = vp
+     * </p>
+     *
+     * @param vertices The transient vertices, all of them must share the same set of labels (see {@link #insertLabels()}).
+     * @return The {@link Neo4JDatabaseCommand} creating all vertices in the database.
+     */
+    static Neo4JDatabaseCommand insertCommand(List<Neo4JVertex> vertices) {
+        Objects.requireNonNull(vertices, "vertices cannot be null");
+        // first vertex in batch (labels and id provider are the same for all vertices in batch)
+        Neo4JVertex first = vertices.get(0);
+        // labels + additional labels
+        SortedSet<String> labels = first.insertLabels();
+        try {
+            // parameters
+            Map<String, Object> parameters = Collections.singletonMap("batch", vertices.stream().map(Neo4JVertex::statementParameters).collect(Collectors.toList()));
+            // check database side id generation is required
+            if (first.id == null) {
+                // create statement (use index in batch to map generated identifiers back to vertices)
+                String statement = "UNWIND range(0, size($batch) - 1) AS i CREATE (n" + first.processLabels(labels, false) + ") SET n = $batch[i] RETURN i, " + first.vertexIdProvider.matchPredicateOperand("n");
+                // command statement
+                return new Neo4JDatabaseCommand(statement, parameters, result -> {
+                    // process records
+                    while (result.hasNext()) {
+                        // record
+                        Record record = result.next();
+                        // vertex in batch
+                        Neo4JVertex vertex = vertices.get(record.get(0).asInt());
+                        // process node identifier
+                        vertex.generatedId = vertex.vertexIdProvider.processIdentifier(record.get(1).asObject());
+                    }
+                });
+            }
+            // command statement
+            return new Neo4JDatabaseCommand("UNWIND $batch AS vp CREATE (n" + first.processLabels(labels, false) + ") SET n = vp", parameters);
+        }
+        finally {
+            // to find vertices in database (labels + additional labels)
+            vertices.forEach(vertex -> vertex.matchLabels = labels);
+        }
+    }
+
     @Override
     public Neo4JDatabaseCommand updateCommand() {
         // check we need to issue statement (adding a label and then removing it will set the vertex as dirty in session but nothing to do)
@@ -996,10 +1047,10 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
             parameters.put("id", id());
             // check vertex is dirty
             if (dirty) {
-                // set properties
-                builder.append(" SET v = $vp");
+                // set modified properties only (null values remove properties)
+                builder.append(" SET v += $vp");
                 // update parameters
-                parameters.put("vp", statementParameters());
+                parameters.put("vp", properties.modifiedValues());
             }
             // check labels were added
             if (!labelsAdded.isEmpty()) {
@@ -1017,6 +1068,72 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
         return null;
     }
 
+    /**
+     * Generates a single Cypher SET statement updating the properties of a batch of vertices, example:
+     * <p>
+     * UNWIND $batch AS row MATCH (v:Label1) WHERE v.id = row.id SET v += row.vp
+     * </p>
+     *
+     * @param vertices The vertices with dirty properties, all of them must share the same match pattern (see {@link #batchKey()}).
+     * @return The {@link Neo4JDatabaseCommand} updating all vertices in the database.
+     */
+    static Neo4JDatabaseCommand updatePropertiesCommand(List<Neo4JVertex> vertices) {
+        Objects.requireNonNull(vertices, "vertices cannot be null");
+        // first vertex in batch (match pattern is the same for all vertices in batch)
+        Neo4JVertex first = vertices.get(0);
+        // rows
+        List<Map<String, Object>> rows = vertices.stream().map(vertex -> {
+            // row parameters
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", vertex.id());
+            row.put("vp", vertex.properties.modifiedValues());
+            // return row
+            return row;
+        }).collect(Collectors.toList());
+        // create statement
+        String statement = "UNWIND $batch AS row " + first.unwindMatchStatement("v", "row.id") + " SET v += row.vp";
+        // command statement
+        return new Neo4JDatabaseCommand(statement, Collections.singletonMap("batch", rows));
+    }
+
+    /**
+     * Generates a single Cypher SET statement adding labels to a batch of vertices, example:
+     * <p>
+     * UNWIND $ids AS id MATCH (v:Label1) WHERE v.id = id SET v:Label2
+     * </p>
+     *
+     * @param vertices The vertices, all of them must share the same match pattern and added labels.
+     * @return The {@link Neo4JDatabaseCommand} adding labels to all vertices in the database.
+     */
+    static Neo4JDatabaseCommand addLabelsCommand(List<Neo4JVertex> vertices) {
+        Objects.requireNonNull(vertices, "vertices cannot be null");
+        // first vertex in batch (match pattern and added labels are the same for all vertices in batch)
+        Neo4JVertex first = vertices.get(0);
+        // create statement
+        String statement = "UNWIND $ids AS id " + first.unwindMatchStatement("v", "id") + " SET v" + first.processLabels(first.labelsAdded, false);
+        // command statement
+        return new Neo4JDatabaseCommand(statement, Collections.singletonMap("ids", vertices.stream().map(Neo4JVertex::id).collect(Collectors.toList())));
+    }
+
+    /**
+     * Generates a single Cypher REMOVE statement removing labels from a batch of vertices, example:
+     * <p>
+     * UNWIND $ids AS id MATCH (v:Label1:Label2) WHERE v.id = id REMOVE v:Label2
+     * </p>
+     *
+     * @param vertices The vertices, all of them must share the same match pattern and removed labels.
+     * @return The {@link Neo4JDatabaseCommand} removing labels from all vertices in the database.
+     */
+    static Neo4JDatabaseCommand removeLabelsCommand(List<Neo4JVertex> vertices) {
+        Objects.requireNonNull(vertices, "vertices cannot be null");
+        // first vertex in batch (match pattern and removed labels are the same for all vertices in batch)
+        Neo4JVertex first = vertices.get(0);
+        // create statement
+        String statement = "UNWIND $ids AS id " + first.unwindMatchStatement("v", "id") + " REMOVE v" + first.processLabels(first.labelsRemoved, false);
+        // command statement
+        return new Neo4JDatabaseCommand(statement, Collections.singletonMap("ids", vertices.stream().map(Neo4JVertex::id).collect(Collectors.toList())));
+    }
+
     @Override
     public Neo4JDatabaseCommand deleteCommand() {
         // create statement
@@ -1027,35 +1144,95 @@ public class Neo4JVertex extends Neo4JElement implements Vertex {
         return new Neo4JDatabaseCommand(statement, parameters);
     }
 
+    /**
+     * Generates a single Cypher DELETE statement for a batch of vertices, example:
+     * <p>
+     * UNWIND $ids AS id MATCH (v:Label1) WHERE v.id = id DETACH DELETE v
+     * </p>
+     *
+     * @param vertices The vertices, all of them must share the same match pattern (see {@link #batchKey()}).
+     * @return The {@link Neo4JDatabaseCommand} deleting all vertices in the database.
+     */
+    static Neo4JDatabaseCommand deleteCommand(List<Neo4JVertex> vertices) {
+        Objects.requireNonNull(vertices, "vertices cannot be null");
+        // first vertex in batch (match pattern is the same for all vertices in batch)
+        Neo4JVertex first = vertices.get(0);
+        // create statement
+        String statement = "UNWIND $ids AS id " + first.unwindMatchStatement("v", "id") + " DETACH DELETE v";
+        // command statement
+        return new Neo4JDatabaseCommand(statement, Collections.singletonMap("ids", vertices.stream().map(Neo4JVertex::id).collect(Collectors.toList())));
+    }
+
+    /**
+     * Generates the Cypher statements executed on vertices sharing the match pattern of this vertex: adjacent edges and
+     * vertices (all relationship types and one statement per type) and batched property updates and deletes.
+     *
+     * @param relationshipLabels The relationship types used to load adjacent edges and vertices.
+     * @return The set of Cypher statements.
+     */
+    Set<String> statements(Set<String> relationshipLabels) {
+        Objects.requireNonNull(relationshipLabels, "relationshipLabels cannot be null");
+        // statements
+        Set<String> statements = new LinkedHashSet<>();
+        // relationship type filters (all types and one per type)
+        List<Set<String>> filters = new ArrayList<>();
+        filters.add(Collections.emptySet());
+        relationshipLabels.forEach(label -> filters.add(Collections.singleton(label)));
+        // adjacent edges and vertices
+        for (Direction direction : Direction.values()) {
+            for (Set<String> filter : filters) {
+                // edges & vertices statements
+                statements.add(adjacentStatement(direction, filter, true));
+                statements.add(adjacentStatement(direction, filter, false));
+            }
+        }
+        // batched statements
+        List<Neo4JVertex> batch = Collections.singletonList(this);
+        statements.add(updatePropertiesCommand(batch).getStatement());
+        statements.add(deleteCommand(batch).getStatement());
+        // return statements
+        return statements;
+    }
+
     void commit() {
-        // commit labels
-        labelsAdded.clear();
-        labelsRemoved.clear();
-        originalLabels = new TreeSet<>(labels);
-        matchLabels = Stream.concat(originalLabels.stream(), graphLabels.stream()).collect(Collectors.toCollection(TreeSet::new));
-        // update property values
-        originalProperties = new HashMap<>(properties);
-        originalCardinalities = new HashMap<>(cardinalities);
-        // reset removed properties
-        removedProperties.clear();
+        // check vertex was created in transaction
+        if (originalLabels.isEmpty()) {
+            // commit labels
+            originalLabels = new TreeSet<>(labels);
+            matchLabels = Stream.concat(originalLabels.stream(), graphLabels.stream()).collect(Collectors.toCollection(TreeSet::new));
+        }
+        else if (!labelsAdded.isEmpty() || !labelsRemoved.isEmpty()) {
+            // apply label changes
+            originalLabels.removeAll(labelsRemoved);
+            originalLabels.addAll(labelsAdded);
+            matchLabels = new TreeSet<>(matchLabels);
+            matchLabels.removeAll(labelsRemoved);
+            matchLabels.addAll(labelsAdded);
+        }
+        labelsAdded = Collections.emptySortedSet();
+        labelsRemoved = Collections.emptySortedSet();
+        // discard undo log
+        properties.commit();
         // reset flags
         dirty = false;
     }
 
     void rollback() {
-        // restore labels
-        labelsAdded.clear();
-        labelsRemoved.clear();
-        labels.clear();
-        labels.addAll(originalLabels);
-        matchLabels = Stream.concat(originalLabels.stream(), graphLabels.stream()).collect(Collectors.toCollection(TreeSet::new));
-        // restore property values
-        properties.clear();
-        cardinalities.clear();
-        properties.putAll(originalProperties);
-        cardinalities.putAll(originalCardinalities);
-        // reset removed properties
-        removedProperties.clear();
+        // check vertex was created in transaction
+        if (originalLabels.isEmpty()) {
+            // restore labels
+            labels.clear();
+            matchLabels = Stream.concat(originalLabels.stream(), graphLabels.stream()).collect(Collectors.toCollection(TreeSet::new));
+        }
+        else {
+            // revert label changes
+            labels.removeAll(labelsAdded);
+            labels.addAll(labelsRemoved);
+        }
+        labelsAdded = Collections.emptySortedSet();
+        labelsRemoved = Collections.emptySortedSet();
+        // replay undo log
+        properties.rollback();
         // reset flags
         outEdgesLoaded = false;
         inEdgesLoaded = false;
@@ -194,4 +194,14 @@ public class DatabaseSequenceElementIdProvider implements Neo4JElementIdProvider
         // alias.identifier
         return alias + "." + idFieldName;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets whether all identifiers returned by the provider are {@link Long} values.
+     *
+     * @return Always <code>true</code>.
+     */
+    @Override
+    public boolean usesLongIdentifiers() {
+        return true;
+    }
+}
@@ -97,4 +97,14 @@ public class Neo4JNativeElementIdProvider implements Neo4JElementIdProvider<Long
         // id(alias)
         return "ID(" + alias + ")";
     }
+
+    /**
+     * Gets whether all identifiers returned by the provider are {@link Long} values.
+     *
+     * @return Always <code>true</code>.
+     */
+    @Override
+    public boolean usesLongIdentifiers() {
+        return true;
+    }
 }
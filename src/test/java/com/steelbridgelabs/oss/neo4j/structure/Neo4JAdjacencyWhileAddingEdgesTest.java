@@ -0,0 +1,107 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class Neo4JAdjacencyWhileAddingEdgesTest {
+
+    @Mock
+    private Neo4JEdge edge1;
+
+    @Mock
+    private Neo4JEdge edge2;
+
+    @Test
+    public void givenSameEdgeShouldNotAddItTwice() {
+        // arrange
+        Mockito.when(edge1.label()).thenAnswer(invocation -> "A");
+        Neo4JAdjacency adjacency = new Neo4JAdjacency();
+        // act
+        boolean first = adjacency.add(edge1);
+        boolean second = adjacency.add(edge1);
+        // assert
+        Assert.assertTrue("Failed to add edge", first);
+        Assert.assertFalse("Invalid add result", second);
+        Assert.assertEquals("Invalid adjacency size", 1, adjacency.size());
+    }
+
+    @Test
+    public void givenLabelShouldReturnEdgesInLabelGroup() {
+        // arrange
+        Mockito.when(edge1.label()).thenAnswer(invocation -> "A");
+        Mockito.when(edge2.label()).thenAnswer(invocation -> "B");
+        Neo4JAdjacency adjacency = new Neo4JAdjacency();
+        adjacency.add(edge1);
+        adjacency.add(edge2);
+        // act
+        List<Neo4JEdge> edges = adjacency.stream(Collections.singleton("B")).collect(Collectors.toList());
+        // assert
+        Assert.assertEquals("Invalid edges", Collections.singletonList(edge2), edges);
+        Assert.assertEquals("Invalid edges", new HashSet<>(Arrays.asList(edge1, edge2)), adjacency.stream(Collections.emptySet()).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void givenManyEdgesShouldAddAndRemoveThem() {
+        // arrange
+        Neo4JAdjacency adjacency = new Neo4JAdjacency();
+        List<Neo4JEdge> edges = new ArrayList<>();
+        for (int index = 0; index < 1000; index++) {
+            Neo4JEdge edge = Mockito.mock(Neo4JEdge.class);
+            Mockito.when(edge.label()).thenAnswer(invocation -> "A");
+            edges.add(edge);
+            adjacency.add(edge);
+        }
+        // act
+        for (int index = 0; index < 1000; index += 2)
+            adjacency.remove(edges.get(index));
+        // assert
+        Assert.assertEquals("Invalid adjacency size", 500, adjacency.size());
+        Assert.assertTrue("Invalid edge removed", adjacency.stream().anyMatch(edges.get(1)::equals));
+        Assert.assertFalse("Failed to remove edge", adjacency.stream().anyMatch(edges.get(0)::equals));
+    }
+
+    @Test
+    public void givenLoadedLabelsShouldReportThem() {
+        // arrange
+        Neo4JAdjacency adjacency = new Neo4JAdjacency();
+        // act
+        adjacency.loaded(Collections.singleton("A"));
+        // assert
+        Assert.assertTrue("Failed to mark label as loaded", adjacency.isLoaded("A"));
+        Assert.assertFalse("Invalid loaded label", adjacency.isLoaded("B"));
+        Assert.assertTrue("Invalid empty labels", adjacency.isLoaded(Collections.emptySet()));
+    }
+}
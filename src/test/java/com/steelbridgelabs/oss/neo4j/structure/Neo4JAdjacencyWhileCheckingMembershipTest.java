@@ -0,0 +1,93 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class Neo4JAdjacencyWhileCheckingMembershipTest {
+
+    @Mock
+    private Neo4JGraph graph;
+
+    @Mock
+    private Neo4JSession session;
+
+    @Mock
+    private Neo4JElementIdProvider provider;
+
+    @Mock
+    private Neo4JVertex vertex;
+
+    @Mock
+    private Neo4JEdge edge;
+
+    @Test
+    public void givenEdgeIdentifierShouldFindEdgeInLabelGroup() {
+        // arrange
+        Neo4JAdjacency adjacency = new Neo4JAdjacency();
+        for (long id = 1; id <= 100; id++)
+            adjacency.add(new Neo4JEdge(graph, session, provider, id, id % 2 == 0 ? "A" : "B", vertex, vertex));
+        // act
+        boolean contains = adjacency.contains(Collections.singleton("A"), 10L);
+        // assert
+        Assert.assertTrue("Failed to find edge", contains);
+        Assert.assertTrue("Failed to find edge", adjacency.contains(Collections.emptySet(), 11L));
+        Assert.assertFalse("Invalid edge in label group", adjacency.contains(Collections.singleton("A"), 11L));
+        Assert.assertFalse("Invalid edge", adjacency.contains(Collections.emptySet(), 101L));
+    }
+
+    @Test
+    public void givenIdentityHashedEdgeShouldFindEdgeByIdentifier() {
+        // arrange
+        Mockito.when(edge.label()).thenAnswer(invocation -> "A");
+        Mockito.when(edge.id()).thenAnswer(invocation -> 10L);
+        Mockito.when(edge.isIdentityHashed()).thenAnswer(invocation -> true);
+        Neo4JAdjacency adjacency = new Neo4JAdjacency();
+        adjacency.add(edge);
+        // act
+        boolean contains = adjacency.contains(Collections.emptySet(), 10L);
+        // assert
+        Assert.assertTrue("Failed to find edge", contains);
+        Assert.assertFalse("Invalid edge", adjacency.contains(Collections.emptySet(), 11L));
+    }
+
+    @Test
+    public void givenLabelsWithoutEdgesShouldBeEmpty() {
+        // arrange
+        Neo4JAdjacency adjacency = new Neo4JAdjacency();
+        adjacency.add(new Neo4JEdge(graph, session, provider, 1L, "A", vertex, vertex));
+        // act
+        boolean empty = adjacency.isEmpty(Collections.singleton("B"));
+        // assert
+        Assert.assertTrue("Invalid empty result", empty);
+        Assert.assertFalse("Invalid empty result", adjacency.isEmpty(Collections.singleton("A")));
+        Assert.assertFalse("Invalid empty result", adjacency.isEmpty(Collections.emptySet()));
+    }
+}
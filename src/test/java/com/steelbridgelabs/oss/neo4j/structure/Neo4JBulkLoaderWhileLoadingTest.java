@@ -0,0 +1,219 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.summary.ResultSummary;
+import org.neo4j.driver.summary.SummaryCounters;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class Neo4JBulkLoaderWhileLoadingTest {
+
+    @Mock
+    private Neo4JGraph graph;
+
+    @Mock
+    private Neo4JElementIdProvider provider;
+
+    @Mock
+    private Neo4JReadPartition partition;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Transaction transaction;
+
+    @Mock
+    private Result result;
+
+    @Mock
+    private ResultSummary resultSummary;
+
+    @Mock
+    private SummaryCounters counters;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenVerticesShouldWriteOneStatementPerBatch() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(0L);
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.getVertexIdProvider()).thenAnswer(invocation -> provider);
+        Mockito.when(graph.getEdgeIdProvider()).thenAnswer(invocation -> provider);
+        Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        Mockito.when(session.beginTransaction()).thenAnswer(invocation -> transaction);
+        Mockito.when(transaction.run(statements.capture(), Mockito.anyMap())).thenAnswer(invocation -> result);
+        Mockito.when(result.consume()).thenAnswer(invocation -> resultSummary);
+        try (Neo4JBulkLoader loader = new Neo4JBulkLoader(graph, session, 2, 10)) {
+            // act
+            Object id1 = loader.addVertex(T.label, "L1", "name", "a");
+            Object id2 = loader.addVertex(T.label, "L1", "name", "b");
+            Object id3 = loader.addVertex(T.label, "L1", "name", "c");
+            // assert
+            Assert.assertEquals("Invalid vertex identifier", 1L, id1);
+            Assert.assertEquals("Invalid vertex identifier", 2L, id2);
+            Assert.assertEquals("Invalid vertex identifier", 3L, id3);
+            Assert.assertEquals("Invalid vertex count", 3, loader.getVertexCount());
+            Mockito.verify(transaction, Mockito.times(1)).run(Mockito.any(String.class), Mockito.anyMap());
+        }
+        // assert
+        Mockito.verify(transaction, Mockito.times(2)).run(Mockito.any(String.class), Mockito.anyMap());
+        Mockito.verify(transaction, Mockito.times(1)).commit();
+        Mockito.verify(session, Mockito.times(1)).close();
+        Assert.assertTrue("Invalid statement", statements.getAllValues().stream().allMatch("UNWIND $batch AS vp CREATE (n:`L1`) SET n = vp"::equals));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenEdgesShouldWriteAdjacentVerticesFirstAndCommitEveryCommitSizeElements() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(0L);
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.getVertexIdProvider()).thenAnswer(invocation -> provider);
+        Mockito.when(graph.getEdgeIdProvider()).thenAnswer(invocation -> provider);
+        Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(session.beginTransaction()).thenAnswer(invocation -> transaction);
+        Mockito.when(transaction.run(statements.capture(), Mockito.anyMap())).thenAnswer(invocation -> result);
+        Mockito.when(result.consume()).thenAnswer(invocation -> resultSummary);
+        Mockito.when(resultSummary.counters()).thenAnswer(invocation -> counters);
+        Mockito.when(counters.relationshipsCreated()).thenAnswer(invocation -> 2);
+        try (Neo4JBulkLoader loader = new Neo4JBulkLoader(graph, session, 2, 4)) {
+            // add vertices
+            Object id1 = loader.addVertex(T.label, "L1");
+            Object id2 = loader.addVertex(T.label, "L2");
+            // act
+            loader.addEdge("E1", "L1", id1, "L2", id2);
+            loader.addEdge("E1", "L1", id1, "L2", id2);
+            // assert
+            Assert.assertEquals("Invalid edge count", 2, loader.getEdgeCount());
+            Assert.assertEquals("Invalid commit count", 1, loader.getCommitCount());
+            Assert.assertEquals("Invalid unmatched edge count", 0, loader.getUnmatchedEdgeCount());
+        }
+        // assert
+        InOrder order = Mockito.inOrder(transaction);
+        order.verify(transaction, Mockito.times(2)).run(Mockito.startsWith("UNWIND $batch AS vp CREATE"), Mockito.anyMap());
+        order.verify(transaction).run(Mockito.eq("UNWIND $batch AS row MATCH (o:`L1`) WHERE o.id = row.oid MATCH (i:`L2`) WHERE i.id = row.iid CREATE (o)-[r:`E1`]->(i) SET r = row.ep"), Mockito.anyMap());
+        order.verify(transaction).commit();
+        Mockito.verify(session, Mockito.times(1)).beginTransaction();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenEdgesWithoutAdjacentVerticesShouldCountOnlyCreatedEdges() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(0L);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.getVertexIdProvider()).thenAnswer(invocation -> provider);
+        Mockito.when(graph.getEdgeIdProvider()).thenAnswer(invocation -> provider);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(session.beginTransaction()).thenAnswer(invocation -> transaction);
+        Mockito.when(transaction.run(Mockito.anyString(), Mockito.anyMap())).thenAnswer(invocation -> result);
+        Mockito.when(result.consume()).thenAnswer(invocation -> resultSummary);
+        Mockito.when(resultSummary.counters()).thenAnswer(invocation -> counters);
+        Mockito.when(counters.relationshipsCreated()).thenAnswer(invocation -> 1);
+        try (Neo4JBulkLoader loader = new Neo4JBulkLoader(graph, session, 3, 10)) {
+            // act
+            loader.addEdge("E1", "L1", 100L, "L1", 101L);
+            loader.addEdge("E1", "L1", 100L, "L1", 200L);
+            loader.addEdge("E1", "L1", 100L, "L1", 300L);
+            // assert
+            Assert.assertEquals("Invalid edge count", 1, loader.getEdgeCount());
+            Assert.assertEquals("Invalid unmatched edge count", 2, loader.getUnmatchedEdgeCount());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenCommitSizeLessThanBatchSizeShouldThrowException() {
+        // arrange
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        // act
+        new Neo4JBulkLoader(graph, session, 10, 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenDatabaseGeneratedIdentifiersShouldThrowException() {
+        // arrange
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.getVertexIdProvider()).thenAnswer(invocation -> provider);
+        Mockito.when(graph.getEdgeIdProvider()).thenAnswer(invocation -> provider);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> null);
+        // act
+        new Neo4JBulkLoader(graph, session, 10, 10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenLabelsWithBackticksShouldEscapeThem() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(0L);
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.getVertexIdProvider()).thenAnswer(invocation -> provider);
+        Mockito.when(graph.getEdgeIdProvider()).thenAnswer(invocation -> provider);
+        Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(session.beginTransaction()).thenAnswer(invocation -> transaction);
+        Mockito.when(transaction.run(statements.capture(), Mockito.anyMap())).thenAnswer(invocation -> result);
+        Mockito.when(result.consume()).thenAnswer(invocation -> resultSummary);
+        Mockito.when(resultSummary.counters()).thenAnswer(invocation -> counters);
+        Mockito.when(counters.relationshipsCreated()).thenAnswer(invocation -> 1);
+        try (Neo4JBulkLoader loader = new Neo4JBulkLoader(graph, session, 10, 10)) {
+            // act
+            Object id1 = loader.addVertex(T.label, "L`1");
+            Object id2 = loader.addVertex(T.label, "L`1");
+            loader.addEdge("E`1", "L`1", id1, "L`1", id2);
+        }
+        // assert
+        Assert.assertEquals("Invalid statements", Arrays.asList(
+            "UNWIND $batch AS vp CREATE (n:`L``1`) SET n = vp",
+            "UNWIND $batch AS row MATCH (o:`L``1`) WHERE o.id = row.oid MATCH (i:`L``1`) WHERE i.id = row.iid CREATE (o)-[r:`E``1`]->(i) SET r = row.ep"), statements.getAllValues());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Value;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class Neo4JEdgeWhileCreatingInsertBatchCommandTest {
+
+    @Mock
+    private Neo4JGraph graph;
+
+    @Mock
+    private Neo4JSession session;
+
+    @Mock
+    private Neo4JVertex outVertex;
+
+    @Mock
+    private Neo4JVertex inVertex;
+
+    @Mock
+    private Neo4JElementIdProvider edgeIdProvider;
+
+    @Mock
+    private Transaction transaction;
+
+    @Mock
+    private Result statementResult;
+
+    @Mock
+    private Record record;
+
+    @Mock
+    private Value index;
+
+    @Mock
+    private Value value;
+
+    @Test
+    public void givenNoIdGenerationProviderShouldCreateInsertCommand() {
+        // arrange
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(outVertex.id()).thenAnswer(invocation -> 1L);
+        Mockito.when(outVertex.unwindMatchStatement(Mockito.anyString(), Mockito.anyString())).thenAnswer(invocation -> "MATCH (o) WHERE ID(o) = row.oid");
+        Mockito.when(inVertex.id()).thenAnswer(invocation -> 2L);
+        Mockito.when(inVertex.unwindMatchStatement(Mockito.anyString(), Mockito.anyString())).thenAnswer(invocation -> "MATCH (i) WHERE ID(i) = row.iid");
+        Mockito.when(edgeIdProvider.processIdentifier(Mockito.any())).thenAnswer(invocation -> 3L);
+        Mockito.when(edgeIdProvider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> "ID(r)");
+        Mockito.when(statementResult.hasNext()).thenAnswer(invocation -> true).thenAnswer(invocation -> false);
+        Mockito.when(statementResult.next()).thenAnswer(invocation -> record);
+        Mockito.when(record.get(Mockito.eq(0))).thenAnswer(invocation -> index);
+        Mockito.when(record.get(Mockito.eq(1))).thenAnswer(invocation -> value);
+        Mockito.when(index.asInt()).thenAnswer(invocation -> 1);
+        Neo4JEdge edge1 = new Neo4JEdge(graph, session, edgeIdProvider, "L1", outVertex, inVertex);
+        Neo4JEdge edge2 = new Neo4JEdge(graph, session, edgeIdProvider, "L1", outVertex, inVertex);
+        List<Neo4JEdge> edges = Arrays.asList(edge1, edge2);
+        // act
+        Neo4JDatabaseCommand command = Neo4JEdge.insertCommand(edges);
+        // assert
+        Assert.assertNotNull("Failed to create insert command", command);
+        Assert.assertEquals("Invalid insert command statement", "UNWIND range(0, size($batch) - 1) AS index WITH index, $batch[index] AS row MATCH (o) WHERE ID(o) = row.oid MATCH (i) WHERE ID(i) = row.iid CREATE (o)-[r:`L1`]->(i) SET r = row.ep RETURN index, ID(r)", command.getStatement());
+        Assert.assertEquals("Invalid insert command parameters", ParameterUtils.createParameters("batch", Arrays.asList(ParameterUtils.createParameters("oid", 1L, "iid", 2L, "ep", Collections.emptyMap()), ParameterUtils.createParameters("oid", 1L, "iid", 2L, "ep", Collections.emptyMap()))), command.getParameters());
+        Assert.assertNotNull("Failed to create insert command callback", command.getCallback());
+        // invoke callback
+        command.getCallback().accept(statementResult);
+        // assert
+        Assert.assertNull("Invalid edge identifier", edge1.id());
+        Assert.assertEquals("Failed to map generated identifier to edge", 3L, edge2.id());
+    }
+
+    @Test
+    public void givenIdGenerationProviderShouldCreateInsertCommand() {
+        // arrange
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(outVertex.id()).thenAnswer(invocation -> 1L);
+        Mockito.when(outVertex.unwindMatchStatement(Mockito.anyString(), Mockito.anyString())).thenAnswer(invocation -> "MATCH (o) WHERE o.id = row.oid");
+        Mockito.when(inVertex.id()).thenAnswer(invocation -> 2L);
+        Mockito.when(inVertex.unwindMatchStatement(Mockito.anyString(), Mockito.anyString())).thenAnswer(invocation -> "MATCH (i) WHERE i.id = row.iid");
+        Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(edgeIdProvider.generate()).thenAnswer(invocation -> 3L);
+        Neo4JEdge edge = new Neo4JEdge(graph, session, edgeIdProvider, "L1", outVertex, inVertex);
+        // act
+        Neo4JDatabaseCommand command = Neo4JEdge.insertCommand(Collections.singletonList(edge));
+        // assert
+        Assert.assertNotNull("Failed to create insert command", command);
+        Assert.assertEquals("Invalid insert command statement", "UNWIND $batch AS row MATCH (o) WHERE o.id = row.oid MATCH (i) WHERE i.id = row.iid CREATE (o)-[r:`L1`]->(i) SET r = row.ep", command.getStatement());
+        Assert.assertEquals("Invalid insert command parameters", ParameterUtils.createParameters("batch", Collections.singletonList(ParameterUtils.createParameters("oid", 1L, "iid", 2L, "ep", Collections.singletonMap("id", 3L)))), command.getParameters());
+    }
+}
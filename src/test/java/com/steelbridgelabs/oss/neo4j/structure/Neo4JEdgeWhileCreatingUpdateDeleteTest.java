@@ -135,7 +135,7 @@ public class Neo4JEdgeWhileCreatingUpdateDeleteTest {
         // assert
         Assert.assertNotNull("Failed to create insert command", command);
         Assert.assertNotNull("Failed to create insert command statement", command.getStatement());
-        Assert.assertEquals("Invalid insert command statement", command.getStatement(), "MATCH (o) WHERE ID(o) = $oid MATCH (i) WHERE ID(i) = $iid MATCH (o)-[r:`label`]->(i) WHERE ID(r) = $id SET r = $rp");
+        Assert.assertEquals("Invalid insert command statement", command.getStatement(), "MATCH (o) WHERE ID(o) = $oid MATCH (i) WHERE ID(i) = $iid MATCH (o)-[r:`label`]->(i) WHERE ID(r) = $id SET r += $rp");
         Assert.assertEquals("Invalid insert command statement", command.getParameters(), ParameterUtils.createParameters("oid", 1L, "iid", 2L, "id", 3L, "rp", Collections.singletonMap("key1", "value1")));
         Assert.assertNotNull("Failed to create insert command callback", command.getCallback());
         // invoke callback
@@ -174,7 +174,7 @@ public class Neo4JEdgeWhileCreatingUpdateDeleteTest {
         // assert
         Assert.assertNotNull("Failed to create insert command", command);
         Assert.assertNotNull("Failed to create insert command statement", command.getStatement());
-        Assert.assertEquals("Invalid insert command statement", command.getStatement(), "MATCH (o) WHERE ID(o) = $oid MATCH (i) WHERE ID(i) = $iid MATCH (o)-[r:`label`]->(i) WHERE ID(r) = $id SET r = $rp");
+        Assert.assertEquals("Invalid insert command statement", command.getStatement(), "MATCH (o) WHERE ID(o) = $oid MATCH (i) WHERE ID(i) = $iid MATCH (o)-[r:`label`]->(i) WHERE ID(r) = $id SET r += $rp");
         Assert.assertEquals("Invalid insert command statement", command.getParameters(), ParameterUtils.createParameters("oid", 1L, "iid", 2L, "id", 3L, "rp", Collections.singletonMap("key1", null)));
         Assert.assertNotNull("Failed to create insert command callback", command.getCallback());
         // invoke callback
@@ -0,0 +1,212 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.neo4j.driver.types.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class Neo4JElementCacheWhileCachingTest {
+
+    @Mock
+    private Node node1;
+
+    @Mock
+    private Node node2;
+
+    @Mock
+    private Node node3;
+
+    @Test
+    public void givenCapacityShouldEvictLeastRecentlyUsedNode() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(2);
+        cache.put(1L, node1, Collections.emptySet(), 0);
+        cache.put(2L, node2, Collections.emptySet(), 0);
+        cache.get(1L, Collections.emptySet());
+        // act
+        cache.put(3L, node3, Collections.emptySet(), 0);
+        // assert
+        Assert.assertEquals("Invalid cache size", 2, cache.size());
+        Assert.assertEquals("Failed to keep recently used node", node1, cache.get(1L, Collections.emptySet()));
+        Assert.assertNull("Failed to evict least recently used node", cache.get(2L, Collections.emptySet()));
+        Assert.assertEquals("Failed to store node", node3, cache.get(3L, Collections.emptySet()));
+    }
+
+    @Test
+    public void givenModifiedIdsShouldInvalidateNodes() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(10);
+        cache.put(1L, node1, Collections.emptySet(), 0);
+        cache.put(2L, node2, Collections.emptySet(), 0);
+        // act
+        cache.publish(Collections.singleton(1L), Collections.emptySet());
+        // assert
+        Assert.assertNull("Failed to invalidate node", cache.get(1L, Collections.emptySet()));
+        Assert.assertEquals("Invalid node", node2, cache.get(2L, Collections.emptySet()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenZeroCapacityShouldThrowException() {
+        // act
+        new Neo4JElementCache(0);
+    }
+
+    @Test
+    public void givenExternalBookmarkShouldIgnoreStaleNode() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(10);
+        cache.put(1L, node1, Collections.singleton("b1"), 0);
+        // act
+        Node node = cache.get(1L, Collections.singleton("b2"));
+        // assert
+        Assert.assertNull("Failed to ignore stale node", node);
+        Assert.assertEquals("Invalid node", node1, cache.get(1L, Collections.singleton("b1")));
+        Assert.assertEquals("Invalid node", node1, cache.get(1L, Collections.emptySet()));
+    }
+
+    @Test
+    public void givenLocalBookmarkShouldReturnNodeReadAfterCommit() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(10);
+        cache.publish(Collections.singleton(2L), Collections.singleton("b2"));
+        cache.put(1L, node1, Collections.singleton("b1"), cache.epoch());
+        // act
+        Node node = cache.get(1L, Collections.singleton("b2"));
+        // assert
+        Assert.assertEquals("Invalid node", node1, node);
+    }
+
+    @Test
+    public void givenLocalBookmarkShouldIgnoreNodeReadBeforeCommit() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(10);
+        cache.put(1L, node1, Collections.singleton("b1"), cache.epoch());
+        cache.publish(Collections.singleton(2L), Collections.singleton("b2"));
+        // act
+        Node node = cache.get(1L, Collections.singleton("b2"));
+        // assert
+        Assert.assertNull("Failed to ignore node read before local commit", node);
+        Assert.assertEquals("Invalid node", node1, cache.get(1L, Collections.singleton("b1")));
+    }
+
+    @Test
+    public void givenReadStartedBeforeInvalidationShouldRejectNode() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(10);
+        long epoch = cache.epoch();
+        cache.publish(Collections.singleton(1L), Collections.emptySet());
+        // act
+        boolean stored = cache.put(1L, node1, Collections.emptySet(), epoch);
+        // assert
+        Assert.assertFalse("Failed to reject stale node", stored);
+        Assert.assertNull("Invalid node", cache.get(1L, Collections.emptySet()));
+        Assert.assertTrue("Failed to store node", cache.put(2L, node2, Collections.emptySet(), epoch));
+    }
+
+    @Test
+    public void givenReadStartedAfterInvalidationShouldStoreNode() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(10);
+        cache.publish(Collections.singleton(1L), Collections.emptySet());
+        long epoch = cache.epoch();
+        // act
+        boolean stored = cache.put(1L, node1, Collections.emptySet(), epoch);
+        // assert
+        Assert.assertTrue("Failed to store node", stored);
+        Assert.assertEquals("Invalid node", node1, cache.get(1L, Collections.emptySet()));
+    }
+
+    @Test
+    public void givenEvictedInvalidationShouldRejectOlderReads() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(1);
+        long epoch = cache.epoch();
+        cache.publish(Collections.singleton(1L), Collections.emptySet());
+        cache.publish(Collections.singleton(2L), Collections.emptySet());
+        // act
+        boolean stored = cache.put(1L, node1, Collections.emptySet(), epoch);
+        // assert
+        Assert.assertFalse("Failed to reject stale node", stored);
+    }
+
+    @Test
+    public void givenInvalidateShouldRejectOlderReads() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(10);
+        long epoch = cache.epoch();
+        cache.put(1L, node1, Collections.emptySet(), epoch);
+        // act
+        cache.invalidate();
+        // assert
+        Assert.assertNull("Failed to invalidate node", cache.get(1L, Collections.emptySet()));
+        Assert.assertFalse("Failed to reject stale node", cache.put(2L, node2, Collections.emptySet(), epoch));
+        Assert.assertTrue("Failed to store node", cache.put(2L, node2, Collections.emptySet(), cache.epoch()));
+    }
+
+    @Test
+    public void givenConcurrentSessionsShouldNotExceedCapacity() throws Exception {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            // first id used by thread
+            long first = thread * 10000L;
+            tasks.add(() -> {
+                // nodes must be stored (they could be evicted by other threads before reading them)
+                boolean valid = true;
+                for (long id = first; id < first + 10000; id++) {
+                    // store node
+                    valid &= cache.put(id, node1, Collections.emptySet(), 0);
+                    // find node
+                    Node node = cache.get(id, Collections.emptySet());
+                    valid &= node == null || node == node1;
+                }
+                return valid;
+            });
+        }
+        try {
+            // act
+            List<Future<Boolean>> results = executor.invokeAll(tasks);
+            // assert
+            for (Future<Boolean> result : results)
+                Assert.assertTrue("Invalid node", result.get());
+            Assert.assertTrue("Invalid cache size", cache.size() > 0 && cache.size() <= 1024);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
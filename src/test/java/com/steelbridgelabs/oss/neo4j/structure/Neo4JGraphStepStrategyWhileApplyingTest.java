@@ -0,0 +1,209 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.TextP;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class Neo4JGraphStepStrategyWhileApplyingTest {
+
+    @Mock
+    private Neo4JGraph graph;
+
+    @Mock
+    private Neo4JReadPartition partition;
+
+    @Test
+    public void givenHasStepsAndLimitShouldFoldThemIntoGraphStep() {
+        // arrange
+        Traversal.Admin<?, ?> traversal = __.V().hasLabel("l1").has("name", "John").limit(10).asAdmin();
+        // act
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        // assert
+        Assert.assertEquals("Invalid number of steps", 2, traversal.getSteps().size());
+        Assert.assertTrue("Failed to replace graph step", traversal.getStartStep() instanceof Neo4JGraphStep);
+        Assert.assertTrue("Range step must be preserved", traversal.getEndStep() instanceof RangeGlobalStep);
+        Neo4JGraphStep<?, ?> step = (Neo4JGraphStep<?, ?>)traversal.getStartStep();
+        Assert.assertEquals("Invalid number of has containers", 2, step.getHasContainers().size());
+        Assert.assertEquals("Invalid limit", 10L, step.getLimit());
+    }
+
+    @Test
+    public void givenRangeShouldNotFoldLimit() {
+        // arrange
+        Traversal.Admin<?, ?> traversal = __.V().has("name", "John").range(5, 10).asAdmin();
+        // act
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        // assert
+        Neo4JGraphStep<?, ?> step = (Neo4JGraphStep<?, ?>)traversal.getStartStep();
+        Assert.assertEquals("Invalid limit", -1L, step.getLimit());
+    }
+
+    @Test
+    public void givenAdjacentVertexStepsShouldFoldThemIntoGraphStep() {
+        // arrange
+        Traversal.Admin<?, ?> traversal = __.V(1L).out("A").in("B").has("x", 1).asAdmin();
+        // act
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        // assert
+        Assert.assertEquals("Invalid number of steps", 1, traversal.getSteps().size());
+        Neo4JGraphStep<?, ?> step = (Neo4JGraphStep<?, ?>)traversal.getStartStep();
+        Assert.assertEquals("Invalid number of hops", 2, step.getHopCount());
+        Assert.assertEquals("Invalid number of has containers in last hop", 1, step.getHasContainers().size());
+    }
+
+    @Test
+    public void givenPathStepShouldNotFoldAdjacentVertexSteps() {
+        // arrange
+        Traversal.Admin<?, ?> traversal = __.V(1L).out("A").out("B").path().asAdmin();
+        // act
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        // assert
+        Assert.assertEquals("Invalid number of steps", 4, traversal.getSteps().size());
+        Neo4JGraphStep<?, ?> step = (Neo4JGraphStep<?, ?>)traversal.getStartStep();
+        Assert.assertEquals("Invalid number of hops", 0, step.getHopCount());
+    }
+
+    @Test
+    public void givenCountShouldReplaceGraphStep() {
+        // arrange
+        Traversal.Admin<?, ?> traversal = __.V().has("name", "John").count().asAdmin();
+        // act
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        // assert
+        Assert.assertEquals("Invalid number of steps", 1, traversal.getSteps().size());
+        Assert.assertTrue("Failed to replace count step", traversal.getStartStep() instanceof Neo4JCountGlobalStep);
+    }
+
+    @Test
+    public void givenGroupCountByLabelShouldReplaceGraphStep() {
+        // arrange
+        Traversal.Admin<?, ?> traversal = __.V().groupCount().by(T.label).asAdmin();
+        // act
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        // assert
+        Assert.assertEquals("Invalid number of steps", 1, traversal.getSteps().size());
+        Assert.assertTrue("Failed to replace group count step", traversal.getStartStep() instanceof Neo4JGroupCountStep);
+    }
+
+    @Test
+    public void givenGroupCountByPropertyShouldNotReplaceGraphStep() {
+        // arrange
+        Traversal.Admin<?, ?> traversal = __.V().groupCount().by("name").asAdmin();
+        // act
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        // assert
+        Assert.assertEquals("Invalid number of steps", 2, traversal.getSteps().size());
+        Assert.assertTrue("Invalid graph step", traversal.getStartStep() instanceof Neo4JGraphStep);
+    }
+
+    @Test
+    public void givenHasContainersShouldCreatePredicates() {
+        // arrange
+        Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> false);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> new HashSet<>(Collections.singletonList("g1")));
+        Traversal.Admin<?, ?> traversal = __.V().hasLabel("l1", "l2::l3").has("age", P.gte(18)).has("name", TextP.startingWith("J")).has("city", P.within("a", "b")).asAdmin();
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        Neo4JGraphStep<?, ?> step = (Neo4JGraphStep<?, ?>)traversal.getStartStep();
+        Map<String, Object> parameters = new HashMap<>();
+        // act
+        List<String> predicates = step.predicates(graph, "n", parameters);
+        // assert
+        Assert.assertEquals("Invalid predicates", Arrays.asList(
+            "((n:`l1` AND size([l IN labels(n) WHERE NOT l IN $graphLabels]) = 1) OR (n:`l2`:`l3` AND size([l IN labels(n) WHERE NOT l IN $graphLabels]) = 2))",
+            "n.`age` >= $p1",
+            "n.`name` STARTS WITH $p2",
+            "n.`city` IN $p3"), predicates);
+        Assert.assertEquals("Invalid graph labels parameter", Collections.singletonList("g1"), parameters.get("graphLabels"));
+        Assert.assertEquals("Invalid parameter", 18, parameters.get("p1"));
+        Assert.assertEquals("Invalid parameter", "J", parameters.get("p2"));
+        Assert.assertEquals("Invalid parameter", Arrays.asList("a", "b"), parameters.get("p3"));
+    }
+
+    @Test
+    public void givenUnsupportedPredicateShouldEvaluateItInMemory() {
+        // arrange
+        Traversal.Admin<?, ?> traversal = __.V().has("age", P.between(18, 30)).has("name", "John").asAdmin();
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        Neo4JGraphStep<?, ?> step = (Neo4JGraphStep<?, ?>)traversal.getStartStep();
+        Map<String, Object> parameters = new HashMap<>();
+        // act
+        List<String> predicates = step.predicates(graph, "n", parameters);
+        // assert
+        Assert.assertEquals("Invalid predicates", Collections.singletonList("n.`name` = $p0"), predicates);
+    }
+
+    @Test
+    public void givenSingleValuedPropertyShouldCompareItDirectly() {
+        // arrange
+        Mockito.when(graph.getVertexPropertyCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
+        Traversal.Admin<?, ?> traversal = __.V().has("name", "John").has("age", P.gt(18)).has("city", P.without("a", "b")).asAdmin();
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        Neo4JGraphStep<?, ?> step = (Neo4JGraphStep<?, ?>)traversal.getStartStep();
+        Map<String, Object> parameters = new HashMap<>();
+        // act
+        List<String> predicates = step.predicates(graph, "n", parameters);
+        // assert
+        Assert.assertEquals("Invalid predicates", Arrays.asList(
+            "n.`name` = $p0",
+            "n.`age` > $p1",
+            "NOT n.`city` IN $p2"), predicates);
+    }
+
+    @Test
+    public void givenListValuedPropertyShouldMatchAnyValue() {
+        // arrange
+        Mockito.when(graph.getVertexPropertyCardinality(Mockito.eq("tags"))).thenAnswer(invocation -> VertexProperty.Cardinality.list);
+        Traversal.Admin<?, ?> traversal = __.V().has("tags", "a").has("tags", P.without("b", "c")).asAdmin();
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        Neo4JGraphStep<?, ?> step = (Neo4JGraphStep<?, ?>)traversal.getStartStep();
+        Map<String, Object> parameters = new HashMap<>();
+        // act
+        List<String> predicates = step.predicates(graph, "n", parameters);
+        // assert
+        Assert.assertEquals("Invalid predicates", Arrays.asList(
+            "any(v IN n.`tags` WHERE v = $p0)",
+            "any(v IN n.`tags` WHERE NOT v IN $p1)"), predicates);
+        Assert.assertEquals("Invalid parameter", "a", parameters.get("p0"));
+        Assert.assertEquals("Invalid parameter", Arrays.asList("b", "c"), parameters.get("p1"));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+public class Neo4JLongKeyMapWhileUpdatingTest {
+
+    @Test
+    public void givenLongKeysShouldStoreValues() {
+        // arrange
+        Map<Object, String> map = new Neo4JLongKeyMap<>();
+        Map<Object, String> expected = new HashMap<>();
+        // act
+        for (long key = 0; key < 10000; key++) {
+            map.put(key, "v" + key);
+            expected.put(key, "v" + key);
+        }
+        // assert
+        Assert.assertEquals("Invalid map size", 10000, map.size());
+        Assert.assertEquals("Invalid value", "v5000", map.get(5000L));
+        Assert.assertTrue("Failed to find key", map.containsKey(9999L));
+        Assert.assertFalse("Invalid key", map.containsKey(10000L));
+        Assert.assertEquals("Invalid map", expected, map);
+    }
+
+    @Test
+    public void givenRemovedKeysShouldNotFindThem() {
+        // arrange
+        Map<Object, String> map = new Neo4JLongKeyMap<>();
+        for (long key = 0; key < 1000; key++)
+            map.put(key, "v" + key);
+        // act
+        for (long key = 0; key < 1000; key += 2)
+            map.remove(key);
+        // assert
+        Assert.assertEquals("Invalid map size", 500, map.size());
+        Assert.assertNull("Failed to remove key", map.get(10L));
+        Assert.assertEquals("Invalid value", "v11", map.get(11L));
+    }
+
+    @Test
+    public void givenIteratorRemoveShouldRemoveEntries() {
+        // arrange
+        Map<Object, String> map = new Neo4JLongKeyMap<>();
+        map.put(1L, "a");
+        map.put(2L, "b");
+        map.put("c", "c");
+        // act
+        Iterator<String> iterator = map.values().iterator();
+        while (iterator.hasNext()) {
+            if (!"b".equals(iterator.next()))
+                iterator.remove();
+        }
+        // assert
+        Assert.assertEquals("Invalid map size", 1, map.size());
+        Assert.assertEquals("Invalid value", "b", map.get(2L));
+    }
+
+    @Test
+    public void givenOtherKeysShouldStoreValues() {
+        // arrange
+        Map<Object, String> map = new Neo4JLongKeyMap<>();
+        // act
+        map.put("a", "a");
+        map.put(1, "b");
+        map.put(1L, "c");
+        // assert
+        Assert.assertEquals("Invalid map size", 3, map.size());
+        Assert.assertEquals("Invalid value", "a", map.get("a"));
+        Assert.assertEquals("Invalid value", "b", map.get(1));
+        Assert.assertEquals("Invalid value", "c", map.get(1L));
+    }
+
+    @Test
+    public void givenClearShouldRemoveAllEntries() {
+        // arrange
+        Map<Object, String> map = new Neo4JLongKeyMap<>();
+        for (long key = 0; key < 100; key++)
+            map.put(key, "v" + key);
+        map.put("a", "a");
+        // act
+        map.clear();
+        // assert
+        Assert.assertTrue("Failed to clear map", map.isEmpty());
+        Assert.assertNull("Failed to clear map", map.get(1L));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+public class Neo4JPropertyStoreWhileUpdatingTest {
+
+    private static VertexProperty property(Object value) {
+        // mock property
+        VertexProperty property = Mockito.mock(VertexProperty.class);
+        Mockito.when(property.value()).thenReturn(value);
+        return property;
+    }
+
+    @Test
+    public void givenSingleAndListValuesShouldCreateStatementParameters() {
+        // arrange
+        Neo4JPropertyStore store = new Neo4JPropertyStore();
+        store.put("name", property("John"));
+        store.put("tags", VertexProperty.Cardinality.list, new ArrayList<>(Arrays.asList(property("a"), property("b"))));
+        // act
+        Map<String, Object> values = store.values();
+        // assert
+        Assert.assertEquals("Invalid store size", 2, store.size());
+        Assert.assertEquals("Invalid cardinality", VertexProperty.Cardinality.single, store.cardinality("name"));
+        Assert.assertEquals("Invalid cardinality", VertexProperty.Cardinality.list, store.cardinality("tags"));
+        Assert.assertEquals("Invalid single value", "John", values.get("name"));
+        Assert.assertEquals("Invalid list value", Arrays.asList("a", "b"), values.get("tags"));
+        Assert.assertEquals("Invalid number of properties", 3, store.stream().count());
+    }
+
+    @Test
+    public void givenRemovedKeyShouldNotFindIt() {
+        // arrange
+        Neo4JPropertyStore store = new Neo4JPropertyStore(1);
+        store.put("a", property(1));
+        store.put("b", property(2));
+        store.put("c", property(3));
+        // act
+        boolean removed = store.remove("b");
+        // assert
+        Assert.assertTrue("Failed to remove key", removed);
+        Assert.assertEquals("Invalid store size", 2, store.size());
+        Assert.assertNull("Failed to remove key", store.get("b"));
+        Assert.assertNull("Failed to remove cardinality", store.cardinality("b"));
+        Assert.assertEquals("Invalid value", 3, store.get("c").iterator().next().value());
+        Assert.assertFalse("Removed missing key", store.remove("b"));
+    }
+
+    @Test
+    public void givenRollbackShouldRestoreTrackedKeys() {
+        // arrange
+        Neo4JPropertyStore store = new Neo4JPropertyStore();
+        store.put("name", property("John"));
+        store.put("tags", VertexProperty.Cardinality.list, new ArrayList<>(Arrays.asList(property("a"))));
+        store.commit();
+        // act
+        store.track("tags");
+        Collection<VertexProperty> tags = store.get("tags");
+        tags.add(property("b"));
+        store.track("name");
+        store.put("name", property("Jane"));
+        store.track("age");
+        store.put("age", property(30));
+        store.track("name");
+        store.remove("name");
+        store.rollback();
+        // assert
+        Assert.assertFalse("Undo log was not released", store.isModified());
+        Assert.assertEquals("Invalid store size", 2, store.size());
+        Assert.assertEquals("Invalid single value", "John", store.values().get("name"));
+        Assert.assertEquals("Invalid list value", Arrays.asList("a"), store.values().get("tags"));
+        Assert.assertNull("Failed to remove added key", store.get("age"));
+    }
+
+    @Test
+    public void givenCommitShouldKeepModifications() {
+        // arrange
+        Neo4JPropertyStore store = new Neo4JPropertyStore();
+        store.put("name", property("John"));
+        store.track("name");
+        store.put("name", property("Jane"));
+        // act
+        store.commit();
+        store.rollback();
+        // assert
+        Assert.assertFalse("Undo log was not released", store.isModified());
+        Assert.assertEquals("Invalid single value", "Jane", store.values().get("name"));
+    }
+
+    @Test
+    public void givenNoModificationsShouldNotReturnModifiedValues() {
+        // arrange
+        Neo4JPropertyStore store = new Neo4JPropertyStore();
+        store.put("name", property("John"));
+        // act
+        Map<String, Object> values = store.modifiedValues();
+        // assert
+        Assert.assertTrue("Invalid modified values", values.isEmpty());
+        Assert.assertFalse("Invalid modified flag", store.isModified());
+    }
+}
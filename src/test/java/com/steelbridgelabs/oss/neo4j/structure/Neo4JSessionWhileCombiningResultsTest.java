@@ -0,0 +1,84 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.summary.ResultSummary;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class Neo4JSessionWhileCombiningResultsTest {
+
+    @Mock
+    private Result result;
+
+    @Mock
+    private ResultSummary resultSummary;
+
+    @Test
+    public void givenStreamingDisabledShouldConsumeQueryBeforeReturningIterator() {
+        // arrange
+        AtomicInteger pulled = new AtomicInteger(0);
+        AtomicInteger completed = new AtomicInteger(0);
+        Mockito.when(result.consume()).thenAnswer(invocation -> resultSummary);
+        // act
+        Iterator<Integer> iterator = Neo4JSession.combine(Stream.of(1), Stream.of(2, 3).peek(item -> pulled.incrementAndGet()), result, false, completed::incrementAndGet);
+        // assert
+        Assert.assertEquals("Failed to consume query", 2, pulled.get());
+        Assert.assertEquals("Failed to notify completion", 1, completed.get());
+        Mockito.verify(result, Mockito.times(1)).consume();
+        Assert.assertEquals("Invalid element", 1, (int)iterator.next());
+        Assert.assertEquals("Invalid element", 2, (int)iterator.next());
+        Assert.assertEquals("Invalid element", 3, (int)iterator.next());
+        Assert.assertFalse("Invalid iterator state", iterator.hasNext());
+    }
+
+    @Test
+    public void givenStreamingEnabledShouldPullQueryRecordsOnDemand() {
+        // arrange
+        AtomicInteger pulled = new AtomicInteger(0);
+        AtomicInteger completed = new AtomicInteger(0);
+        Mockito.when(result.consume()).thenAnswer(invocation -> resultSummary);
+        // act
+        Iterator<Integer> iterator = Neo4JSession.combine(Stream.of(1), Stream.of(2, 3).peek(item -> pulled.incrementAndGet()), result, true, completed::incrementAndGet);
+        // assert
+        Assert.assertEquals("Invalid element", 1, (int)iterator.next());
+        Assert.assertEquals("Query records pulled before required", 0, pulled.get());
+        Assert.assertEquals("Invalid element", 2, (int)iterator.next());
+        Assert.assertEquals("Invalid element", 3, (int)iterator.next());
+        Assert.assertEquals("Invalid completion notification", 0, completed.get());
+        Mockito.verify(result, Mockito.never()).consume();
+        Assert.assertFalse("Invalid iterator state", iterator.hasNext());
+        Assert.assertFalse("Invalid iterator state", iterator.hasNext());
+        Assert.assertEquals("Failed to notify completion", 1, completed.get());
+        Mockito.verify(result, Mockito.times(1)).consume();
+    }
+}
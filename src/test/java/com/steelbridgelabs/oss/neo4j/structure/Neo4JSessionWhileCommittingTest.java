@@ -0,0 +1,402 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.summary.ResultSummary;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class Neo4JSessionWhileCommittingTest {
+
+    @Mock
+    private Neo4JGraph graph;
+
+    @Mock
+    private Transaction transaction;
+
+    @Mock
+    private Neo4JElementIdProvider provider;
+
+    @Mock
+    private Neo4JElementIdProvider edgeProvider;
+
+    @Mock
+    private Neo4JReadPartition partition;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private org.neo4j.driver.Transaction neo4jTransaction;
+
+    @Mock
+    private Result statementResult;
+
+    @Mock
+    private ResultSummary resultSummary;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenTransientVerticesAndNoBatchSizeShouldExecuteOneStatementPerVertex() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(0L);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // transaction
+            session.beginTransaction();
+            // add vertices
+            session.addVertex(T.label, "L1");
+            session.addVertex(T.label, "L1");
+            session.addVertex(T.label, "L2");
+            // act
+            session.commit();
+            // assert
+            Mockito.verify(neo4jTransaction, Mockito.times(3)).run(Mockito.any(String.class), Mockito.anyMap());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenTransientVerticesAndBatchSizeShouldExecuteOneStatementPerBatch() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(0L);
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statements.capture(), Mockito.anyMap())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // batch size
+            session.setBatchSize(2);
+            // transaction
+            session.beginTransaction();
+            // add vertices
+            session.addVertex(T.label, "L1");
+            session.addVertex(T.label, "L1");
+            session.addVertex(T.label, "L1");
+            session.addVertex(T.label, "L2");
+            // act
+            session.commit();
+            // assert
+            Mockito.verify(neo4jTransaction, Mockito.times(3)).run(Mockito.any(String.class), Mockito.anyMap());
+            Assert.assertEquals("Invalid number of statements for label L1", 2, statements.getAllValues().stream().filter("UNWIND $batch AS vp CREATE (n:`L1`) SET n = vp"::equals).count());
+            Assert.assertEquals("Invalid number of statements for label L2", 1, statements.getAllValues().stream().filter("UNWIND $batch AS vp CREATE (n:`L2`) SET n = vp"::equals).count());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenTransientEdgesAndBatchSizeShouldExecuteOneStatementPerBatch() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(0L);
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statements.capture(), Mockito.anyMap())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // batch size
+            session.setBatchSize(2);
+            // transaction
+            session.beginTransaction();
+            // add vertices
+            Neo4JVertex vertex1 = session.addVertex(T.label, "L1");
+            Neo4JVertex vertex2 = session.addVertex(T.label, "L2");
+            // add edges
+            vertex1.addEdge("E1", vertex2);
+            vertex1.addEdge("E1", vertex2);
+            vertex1.addEdge("E1", vertex2);
+            vertex2.addEdge("E1", vertex1);
+            // act
+            session.commit();
+            // assert
+            Mockito.verify(neo4jTransaction, Mockito.times(5)).run(Mockito.any(String.class), Mockito.anyMap());
+            Assert.assertEquals("Invalid number of statements for L1 to L2 edges", 2, statements.getAllValues().stream().filter("UNWIND $batch AS row MATCH (o:`L1`) WHERE o.id = row.oid MATCH (i:`L2`) WHERE i.id = row.iid CREATE (o)-[r:`E1`]->(i) SET r = row.ep"::equals).count());
+            Assert.assertEquals("Invalid number of statements for L2 to L1 edges", 1, statements.getAllValues().stream().filter("UNWIND $batch AS row MATCH (o:`L2`) WHERE o.id = row.oid MATCH (i:`L1`) WHERE i.id = row.iid CREATE (o)-[r:`E1`]->(i) SET r = row.ep"::equals).count());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenDirtyVerticesAndBatchSizeShouldExecuteOneStatementPerBatch() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(0L);
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statements.capture(), Mockito.anyMap())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // batch size
+            session.setBatchSize(2);
+            // transaction
+            session.beginTransaction();
+            // add vertices
+            Neo4JVertex vertex1 = session.addVertex(T.label, "L1");
+            Neo4JVertex vertex2 = session.addVertex(T.label, "L1");
+            Neo4JVertex vertex3 = session.addVertex(T.label, "L1");
+            // persist vertices
+            session.commit();
+            // transaction
+            session.beginTransaction();
+            // update vertices
+            vertex1.property(VertexProperty.Cardinality.single, "p1", 1L);
+            vertex2.property(VertexProperty.Cardinality.single, "p1", 2L);
+            vertex3.property(VertexProperty.Cardinality.single, "p1", 3L);
+            vertex1.addLabel("L2");
+            vertex2.addLabel("L2");
+            vertex3.removeLabel("L1");
+            // act
+            session.commit();
+            // assert
+            Assert.assertEquals("Invalid number of property update statements", 2, statements.getAllValues().stream().filter("UNWIND $batch AS row MATCH (v:`L1`) WHERE v.id = row.id SET v += row.vp"::equals).count());
+            Assert.assertEquals("Invalid number of add label statements", 1, statements.getAllValues().stream().filter("UNWIND $ids AS id MATCH (v:`L1`) WHERE v.id = id SET v:`L2`"::equals).count());
+            Assert.assertEquals("Invalid number of remove label statements", 1, statements.getAllValues().stream().filter("UNWIND $ids AS id MATCH (v:`L1`) WHERE v.id = id REMOVE v:`L1`"::equals).count());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenDeletedVerticesAndEdgesAndBatchSizeShouldExecuteOneStatementPerBatch() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(0L);
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statements.capture(), Mockito.anyMap())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(edgeProvider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        Mockito.when(edgeProvider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> "ID(" + invocation.getArguments()[0] + ")");
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, edgeProvider, false)) {
+            // batch size
+            session.setBatchSize(2);
+            // transaction
+            session.beginTransaction();
+            // add vertices
+            Neo4JVertex vertex1 = session.addVertex(T.label, "L1");
+            Neo4JVertex vertex2 = session.addVertex(T.label, "L1");
+            Neo4JVertex vertex3 = session.addVertex(T.label, "L2");
+            // add edges
+            Edge edge1 = vertex1.addEdge("E1", vertex3);
+            Edge edge2 = vertex3.addEdge("E2", vertex1);
+            // persist vertices and edges
+            session.commit();
+            // transaction
+            session.beginTransaction();
+            // delete elements
+            edge1.remove();
+            edge2.remove();
+            vertex1.remove();
+            vertex2.remove();
+            // act
+            session.commit();
+            // assert
+            Assert.assertEquals("Invalid number of edge delete statements", 1, statements.getAllValues().stream().filter("UNWIND $ids AS id MATCH ()-[r]->() WHERE ID(r) = id DELETE r"::equals).count());
+            Assert.assertEquals("Invalid number of vertex delete statements", 1, statements.getAllValues().stream().filter("UNWIND $ids AS id MATCH (v:`L1`) WHERE v.id = id DETACH DELETE v"::equals).count());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenPipelineEnabledShouldConsumeResultsAfterExecutingStatements() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(0L);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // pipeline
+            session.setPipelineEnabled(true);
+            // transaction
+            session.beginTransaction();
+            // add vertices
+            session.addVertex(T.label, "L1");
+            session.addVertex(T.label, "L1");
+            // act
+            session.commit();
+            // assert
+            InOrder order = Mockito.inOrder(neo4jTransaction, statementResult);
+            order.verify(neo4jTransaction, Mockito.times(2)).run(Mockito.any(String.class), Mockito.anyMap());
+            order.verify(statementResult, Mockito.times(2)).consume();
+            order.verify(neo4jTransaction).commit();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenPipelineEnabledAndDatabaseGeneratedIdentifiersShouldConsumeVertexResultsBeforeCreatingEdges() {
+        // arrange
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> "ID(" + invocation.getArguments()[0] + ")");
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // pipeline
+            session.setPipelineEnabled(true);
+            // transaction
+            session.beginTransaction();
+            // add vertices
+            Neo4JVertex vertex1 = session.addVertex(T.label, "L1");
+            Neo4JVertex vertex2 = session.addVertex(T.label, "L1");
+            // add edge
+            vertex1.addEdge("E1", vertex2);
+            // act
+            session.commit();
+            // assert
+            InOrder order = Mockito.inOrder(neo4jTransaction, statementResult);
+            order.verify(neo4jTransaction, Mockito.times(2)).run(Mockito.startsWith("CREATE"), Mockito.anyMap());
+            order.verify(statementResult, Mockito.calls(2)).consume();
+            order.verify(neo4jTransaction).run(Mockito.startsWith("MATCH"), Mockito.anyMap());
+            order.verify(statementResult).consume();
+            order.verify(neo4jTransaction).commit();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenFlushThresholdShouldFlushPendingChangesToOpenTransaction() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(0L);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // flush threshold
+            session.setFlushThreshold(2);
+            // transaction
+            session.beginTransaction();
+            // add vertices
+            session.addVertex(T.label, "L1");
+            session.autoFlush();
+            session.addVertex(T.label, "L1");
+            // act
+            session.autoFlush();
+            // assert
+            Mockito.verify(neo4jTransaction, Mockito.times(2)).run(Mockito.any(String.class), Mockito.anyMap());
+            Mockito.verify(neo4jTransaction, Mockito.never()).commit();
+            // add vertex
+            session.addVertex(T.label, "L1");
+            // commit
+            session.commit();
+            // assert (flushed vertices are not written twice)
+            Mockito.verify(neo4jTransaction, Mockito.times(3)).run(Mockito.any(String.class), Mockito.anyMap());
+            Mockito.verify(neo4jTransaction).commit();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenFlushThresholdShouldFlushPendingChangesBeforeNextOperation() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(0L);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // flush threshold
+            session.setFlushThreshold(1);
+            // transaction
+            session.beginTransaction();
+            // add vertex and modify it (element access does not flush changes)
+            Neo4JVertex vertex = session.addVertex(T.label, "L1");
+            vertex.property(VertexProperty.Cardinality.single, "name", "John");
+            // assert
+            Mockito.verify(neo4jTransaction, Mockito.never()).run(Mockito.any(String.class), Mockito.anyMap());
+            // act
+            session.addVertex(T.label, "L1");
+            // assert
+            Mockito.verify(neo4jTransaction, Mockito.times(1)).run(Mockito.any(String.class), Mockito.anyMap());
+            Mockito.verify(neo4jTransaction, Mockito.never()).commit();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenNegativeFlushThresholdShouldThrowException() {
+        // arrange
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // act
+            session.setFlushThreshold(-1);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenNegativeBatchSizeShouldThrowException() {
+        // arrange
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // act
+            session.setBatchSize(-1);
+        }
+    }
+}
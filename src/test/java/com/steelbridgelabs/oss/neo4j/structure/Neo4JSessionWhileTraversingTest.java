@@ -0,0 +1,991 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.value.NodeValue;
+import org.neo4j.driver.summary.ResultSummary;
+import org.neo4j.driver.types.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class Neo4JSessionWhileTraversingTest {
+
+    @Mock
+    private Neo4JGraph graph;
+
+    @Mock
+    private Transaction transaction;
+
+    @Mock
+    private Neo4JElementIdProvider provider;
+
+    @Mock
+    private Neo4JReadPartition partition;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private org.neo4j.driver.Transaction neo4jTransaction;
+
+    @Mock
+    private Result statementResult;
+
+    @Mock
+    private ResultSummary resultSummary;
+
+    @Mock
+    private Record record;
+
+    @Mock
+    private Node node1;
+
+    @Mock
+    private Node node2;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenHopsShouldExecuteSingleStatement() {
+        // arrange
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Map> parameters = ArgumentCaptor.forClass(Map.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statement.capture(), parameters.capture())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // transaction
+            session.beginTransaction();
+            // act
+            session.vertices(new Object[]{1L}, Arrays.asList("-[:`A`]->", "<-[:`B`]-"), Arrays.asList(null, null, "n2.`x` = $p0"), Collections.singletonMap("p0", 1L), 10);
+            // assert
+            Assert.assertEquals("Invalid statement", "MATCH (n0) WHERE n0.id IN $ids MATCH (n0)-[:`A`]->(n1) MATCH (n1)<-[:`B`]-(n2) WHERE n2.`x` = $p0 RETURN n2 LIMIT $limit", statement.getValue());
+            Assert.assertEquals("Invalid ids parameter", Collections.singletonList(1L), parameters.getValue().get("ids"));
+            Assert.assertEquals("Invalid limit parameter", 10L, parameters.getValue().get("limit"));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenFrontierShouldLoadAdjacentEdgesInSingleStatement() {
+        // arrange
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Map> parameters = ArgumentCaptor.forClass(Map.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statement.capture(), parameters.capture())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(node1.labels()).thenAnswer(invocation -> Collections.singletonList("l1"));
+        Mockito.when(node1.keys()).thenAnswer(invocation -> Collections.emptyList());
+        Mockito.when(node2.labels()).thenAnswer(invocation -> Collections.singletonList("l1"));
+        Mockito.when(node2.keys()).thenAnswer(invocation -> Collections.emptyList());
+        Mockito.when(provider.get(Mockito.eq(node1))).thenAnswer(invocation -> 1L);
+        Mockito.when(provider.get(Mockito.eq(node2))).thenAnswer(invocation -> 2L);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // transaction
+            session.beginTransaction();
+            // vertices
+            Neo4JVertex vertex1 = new Neo4JVertex(graph, session, provider, provider, node1);
+            Neo4JVertex vertex2 = new Neo4JVertex(graph, session, provider, provider, node2);
+            // act
+            session.prefetchEdges(Arrays.asList(vertex1, vertex2), Direction.OUT, "A");
+            // assert
+            Assert.assertEquals("Invalid statement", "UNWIND $ids AS id MATCH (n:`l1`) WHERE n.id = id MATCH (n)-[r:`A`]->(m) RETURN n, r, m", statement.getValue());
+            Assert.assertEquals("Invalid ids parameter", Arrays.asList(1L, 2L), parameters.getValue().get("ids"));
+            Assert.assertTrue("Failed to update vertex out edges", vertex1.hasEdgesLoaded(Direction.OUT, Collections.singleton("A")));
+            Assert.assertFalse("Invalid vertex in edges", vertex1.hasEdgesLoaded(Direction.IN, Collections.singleton("A")));
+            vertex2.edges(Direction.OUT, "A");
+            Mockito.verify(neo4jTransaction, Mockito.times(1)).run(Mockito.any(String.class), Mockito.anyMap());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenFrontierWithDifferentLabelsShouldLoadAdjacentEdgesUsingLabeledPatterns() {
+        // arrange
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Map> parameters = ArgumentCaptor.forClass(Map.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statement.capture(), parameters.capture())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(node1.labels()).thenAnswer(invocation -> Collections.singletonList("l1"));
+        Mockito.when(node1.keys()).thenAnswer(invocation -> Collections.emptyList());
+        Mockito.when(node2.labels()).thenAnswer(invocation -> Collections.singletonList("l2"));
+        Mockito.when(node2.keys()).thenAnswer(invocation -> Collections.emptyList());
+        Mockito.when(provider.get(Mockito.eq(node1))).thenAnswer(invocation -> 1L);
+        Mockito.when(provider.get(Mockito.eq(node2))).thenAnswer(invocation -> 2L);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // transaction
+            session.beginTransaction();
+            // vertices
+            Neo4JVertex vertex1 = new Neo4JVertex(graph, session, provider, provider, node1);
+            Neo4JVertex vertex2 = new Neo4JVertex(graph, session, provider, provider, node2);
+            // act
+            session.prefetchEdges(Arrays.asList(vertex1, vertex2), Direction.OUT, "A");
+            // assert
+            Assert.assertEquals("Invalid statements", Arrays.asList("UNWIND $ids AS id MATCH (n:`l1`) WHERE n.id = id MATCH (n)-[r:`A`]->(m) RETURN n, r, m", "UNWIND $ids AS id MATCH (n:`l2`) WHERE n.id = id MATCH (n)-[r:`A`]->(m) RETURN n, r, m"), statement.getAllValues());
+            Assert.assertEquals("Invalid ids parameter", Collections.singletonList(1L), parameters.getAllValues().get(0).get("ids"));
+            Assert.assertEquals("Invalid ids parameter", Collections.singletonList(2L), parameters.getAllValues().get(1).get("ids"));
+            Assert.assertTrue("Failed to update vertex out edges", vertex1.hasEdgesLoaded(Direction.OUT, Collections.singleton("A")));
+            Assert.assertTrue("Failed to update vertex out edges", vertex2.hasEdgesLoaded(Direction.OUT, Collections.singleton("A")));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenTransientAndDeletedVerticesShouldAdjustServerCount() {
+        // arrange
+        AtomicLong identifier = new AtomicLong(10L);
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Map> parameters = ArgumentCaptor.forClass(Map.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statement.capture(), parameters.capture())).then(invocation -> statementResult);
+        Mockito.when(statementResult.single()).then(invocation -> record);
+        Mockito.when(record.get(Mockito.eq(0))).then(invocation -> Values.value(5L));
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.generate()).thenAnswer(invocation -> identifier.incrementAndGet());
+        Mockito.when(node1.labels()).thenAnswer(invocation -> Collections.singletonList("l1"));
+        Mockito.when(node1.keys()).thenAnswer(invocation -> Collections.emptyList());
+        Mockito.when(provider.get(Mockito.eq(node1))).thenAnswer(invocation -> 1L);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // transaction
+            session.beginTransaction();
+            // vertices
+            session.addVertex(T.label, "l1");
+            session.addVertex(T.label, "l2");
+            session.removeVertex(new Neo4JVertex(graph, session, provider, provider, node1));
+            // act
+            long count = session.countVertices(null, Collections.emptyMap(), vertex -> vertex.label().equals("l1"));
+            // assert
+            Assert.assertEquals("Invalid statement", "MATCH (n) WHERE NOT n.id IN $excluded RETURN count(*)", statement.getValue());
+            Assert.assertEquals("Invalid excluded parameter", Collections.singletonList(1L), parameters.getValue().get("excluded"));
+            Assert.assertEquals("Invalid count", 6L, count);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenLazyPropertiesShouldLoadPropertiesOnFirstAccess() {
+        // arrange
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statement.capture(), Mockito.anyMap())).then(invocation -> statementResult);
+        Record properties = Mockito.mock(Record.class);
+        Mockito.doAnswer(invocation -> {
+            // single vertex in result
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record);
+            return null;
+        }).doAnswer(invocation -> {
+            // vertex properties
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(properties);
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Map<String, Object> projection = new HashMap<>();
+        projection.put("id", 1L);
+        projection.put("labels", Collections.singletonList("l1"));
+        Mockito.when(record.get(Mockito.eq(0))).thenReturn(Values.value(projection));
+        Mockito.when(properties.get(Mockito.eq(0))).thenReturn(Values.value(1L));
+        Mockito.when(properties.get(Mockito.eq(1))).thenReturn(Values.value(Collections.singletonMap("name", "John")));
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // lazy properties
+            session.setLazyPropertiesEnabled(true);
+            // transaction
+            session.beginTransaction();
+            // load vertex
+            Vertex vertex = session.vertices(new Object[]{1L}).next();
+            // act
+            Object value = vertex.value("name");
+            // assert
+            Assert.assertEquals("Invalid statement", "MATCH (n) WHERE n.id = $id RETURN {id: n.id, labels: labels(n), nodeId: ID(n)} AS n", statement.getAllValues().get(0));
+            Assert.assertEquals("Invalid statement", "UNWIND $ids AS id MATCH (n:`l1`) WHERE n.id = id RETURN id, properties(n)", statement.getAllValues().get(1));
+            Assert.assertEquals("Invalid vertex label", "l1", vertex.label());
+            Assert.assertEquals("Invalid property value", "John", value);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenHollowVerticesShouldLoadPropertiesInSingleStatement() {
+        // arrange
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Map> parameters = ArgumentCaptor.forClass(Map.class);
+        Record record1 = Mockito.mock(Record.class);
+        Record record2 = Mockito.mock(Record.class);
+        Record record3 = Mockito.mock(Record.class);
+        Record record4 = Mockito.mock(Record.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statement.capture(), parameters.capture())).then(invocation -> statementResult);
+        Mockito.doAnswer(invocation -> {
+            // vertices
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record1);
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record2);
+            return null;
+        }).doAnswer(invocation -> {
+            // properties
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record3);
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record4);
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Map<String, Object> projection1 = new HashMap<>();
+        projection1.put("id", 1L);
+        projection1.put("labels", Collections.singletonList("l1"));
+        Map<String, Object> projection2 = new HashMap<>();
+        projection2.put("id", 2L);
+        projection2.put("labels", Collections.singletonList("l1"));
+        Mockito.when(record1.get(Mockito.eq(0))).thenReturn(Values.value(projection1));
+        Mockito.when(record2.get(Mockito.eq(0))).thenReturn(Values.value(projection2));
+        Mockito.when(record3.get(Mockito.eq(0))).thenReturn(Values.value(1L));
+        Mockito.when(record3.get(Mockito.eq(1))).thenReturn(Values.value(Collections.singletonMap("name", "John")));
+        Mockito.when(record4.get(Mockito.eq(0))).thenReturn(Values.value(2L));
+        Mockito.when(record4.get(Mockito.eq(1))).thenReturn(Values.value(Collections.singletonMap("name", "Mary")));
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // lazy properties
+            session.setLazyPropertiesEnabled(true);
+            // transaction
+            session.beginTransaction();
+            // load vertices
+            Iterator<Vertex> vertices = session.vertices(new Object[]{1L, 2L});
+            Vertex vertex1 = vertices.next();
+            Vertex vertex2 = vertices.next();
+            // act
+            Object value1 = vertex1.value("name");
+            Object value2 = vertex2.value("name");
+            // assert
+            Assert.assertEquals("Invalid statement", "UNWIND $ids AS id MATCH (n:`l1`) WHERE n.id = id RETURN id, properties(n)", statement.getAllValues().get(1));
+            Assert.assertEquals("Invalid ids parameter", new HashSet<>(Arrays.asList(1L, 2L)), new HashSet<>((List<Object>)parameters.getAllValues().get(1).get("ids")));
+            Assert.assertEquals("Invalid property value", "John", value1);
+            Assert.assertEquals("Invalid property value", "Mary", value2);
+            Mockito.verify(neo4jTransaction, Mockito.times(2)).run(Mockito.any(String.class), Mockito.anyMap());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenHollowVerticesWithDifferentLabelsShouldLoadPropertiesUsingLabeledPatterns() {
+        // arrange
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Map> parameters = ArgumentCaptor.forClass(Map.class);
+        Record record1 = Mockito.mock(Record.class);
+        Record record2 = Mockito.mock(Record.class);
+        Record record3 = Mockito.mock(Record.class);
+        Record record4 = Mockito.mock(Record.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statement.capture(), parameters.capture())).then(invocation -> statementResult);
+        Mockito.doAnswer(invocation -> {
+            // vertices
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record1);
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record2);
+            return null;
+        }).doAnswer(invocation -> {
+            // properties
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record3);
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record4);
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Map<String, Object> projection1 = new HashMap<>();
+        projection1.put("id", 1L);
+        projection1.put("labels", Collections.singletonList("l1"));
+        Map<String, Object> projection2 = new HashMap<>();
+        projection2.put("id", 2L);
+        projection2.put("labels", Collections.singletonList("l2"));
+        Mockito.when(record1.get(Mockito.eq(0))).thenReturn(Values.value(projection1));
+        Mockito.when(record2.get(Mockito.eq(0))).thenReturn(Values.value(projection2));
+        Mockito.when(record3.get(Mockito.eq(0))).thenReturn(Values.value(1L));
+        Mockito.when(record3.get(Mockito.eq(1))).thenReturn(Values.value(Collections.singletonMap("name", "John")));
+        Mockito.when(record4.get(Mockito.eq(0))).thenReturn(Values.value(2L));
+        Mockito.when(record4.get(Mockito.eq(1))).thenReturn(Values.value(Collections.singletonMap("name", "Mary")));
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // lazy properties
+            session.setLazyPropertiesEnabled(true);
+            // transaction
+            session.beginTransaction();
+            // load vertices
+            Iterator<Vertex> vertices = session.vertices(new Object[]{1L, 2L});
+            Vertex vertex1 = vertices.next();
+            Vertex vertex2 = vertices.next();
+            // act
+            Object value1 = vertex1.value("name");
+            Object value2 = vertex2.value("name");
+            // assert
+            Assert.assertEquals("Invalid statements", new HashSet<>(Arrays.asList("UNWIND $ids AS id MATCH (n:`l1`) WHERE n.id = id RETURN id, properties(n)", "UNWIND $ids AS id MATCH (n:`l2`) WHERE n.id = id RETURN id, properties(n)")), new HashSet<>(statement.getAllValues().subList(1, 3)));
+            Assert.assertEquals("Invalid property value", "John", value1);
+            Assert.assertEquals("Invalid property value", "Mary", value2);
+            Mockito.verify(neo4jTransaction, Mockito.times(3)).run(Mockito.any(String.class), Mockito.anyMap());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenBatchSizeShouldLoadHollowVertexPropertiesInChunks() {
+        // arrange
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        AtomicReference<Object> ids = new AtomicReference<>();
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statement.capture(), Mockito.anyMap())).then(invocation -> {
+            // ids in statement
+            ids.set(((Map<String, Object>)invocation.getArguments()[1]).get("ids"));
+            return statementResult;
+        });
+        Mockito.doAnswer(invocation -> {
+            // records for ids in statement (vertex projections or vertex properties)
+            for (Object id : (List<Object>)ids.get()) {
+                // record
+                Record item = Mockito.mock(Record.class);
+                Map<String, Object> projection = new HashMap<>();
+                projection.put("id", id);
+                projection.put("labels", Collections.singletonList("l1"));
+                Mockito.when(item.get(Mockito.eq(0))).thenReturn(statement.getValue().startsWith("UNWIND") ? Values.value(id) : Values.value(projection));
+                Mockito.when(item.get(Mockito.eq(1))).thenReturn(Values.value(Collections.singletonMap("name", "name" + id)));
+                ((Consumer<Record>)invocation.getArguments()[0]).accept(item);
+            }
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // lazy properties
+            session.setLazyPropertiesEnabled(true);
+            // batches
+            session.setBatchSize(2);
+            // transaction
+            session.beginTransaction();
+            // load vertices
+            List<Vertex> vertices = new ArrayList<>();
+            session.vertices(new Object[]{1L, 2L, 3L}).forEachRemaining(vertices::add);
+            // act
+            Object value = vertices.get(0).value("name");
+            // assert
+            Assert.assertEquals("Invalid property value", "name" + vertices.get(0).id(), value);
+            Assert.assertEquals("Invalid number of statements", 3, statement.getAllValues().size());
+            Assert.assertEquals("Invalid number of property statements", 2, statement.getAllValues().stream().filter("UNWIND $ids AS id MATCH (n:`l1`) WHERE n.id = id RETURN id, properties(n)"::equals).count());
+            Assert.assertTrue("Failed to load properties", vertices.stream().allMatch(vertex -> ("name" + vertex.id()).equals(vertex.value("name"))));
+            Mockito.verify(neo4jTransaction, Mockito.times(3)).run(Mockito.any(String.class), Mockito.anyMap());
+        }
+    }
+
+    @Test
+    public void givenLazyPropertiesShouldProjectEdgeIdentifiersOnly() {
+        // arrange
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // lazy properties
+            session.setLazyPropertiesEnabled(true);
+            // act
+            String projection = session.edgeProjection("n", "r", "m");
+            // assert
+            Assert.assertEquals("Invalid projection", "{id: n.id, labels: labels(n), nodeId: ID(n)} AS n, {id: r.id, type: type(r), startNodeId: ID(startNode(r))} AS r, {id: m.id, labels: labels(m), nodeId: ID(m)} AS m", projection);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenEdgesInMemoryShouldSkipRecordsBeforeLoadingVertices() {
+        // arrange
+        Record other = Mockito.mock(Record.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.doAnswer(invocation -> {
+            // two records in result
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record);
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(other);
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Mockito.when(record.get(Mockito.eq(1))).thenAnswer(invocation -> Values.value(10L));
+        Mockito.when(other.get(Mockito.eq(1))).thenAnswer(invocation -> Values.value(20L));
+        Mockito.when(other.get(Mockito.eq(0))).thenAnswer(invocation -> {
+            // vertex projection
+            Map<String, Object> projection = new HashMap<>();
+            projection.put("id", 2L);
+            projection.put("labels", Collections.singletonList("l1"));
+            return Values.value(projection);
+        });
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // act
+            List<Vertex> vertices = session.vertices(statementResult, id -> id.equals(10L)).collect(Collectors.toList());
+            // assert
+            Assert.assertEquals("Invalid number of vertices", 1, vertices.size());
+            Assert.assertEquals("Invalid vertex id", 2L, vertices.get(0).id());
+            Mockito.verify(record, Mockito.never()).get(Mockito.eq(0));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenLabelSetsShouldExplainStatements() {
+        // arrange
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(statement.capture(), Mockito.anyMap())).then(invocation -> statementResult);
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // transaction
+            session.beginTransaction();
+            // act
+            int count = session.warmUp(Arrays.asList(Collections.singleton("L1"), Collections.singleton("L1")), Collections.singleton("knows"));
+            // assert
+            Assert.assertEquals("Invalid number of statements", 17, count);
+            Assert.assertEquals("Invalid number of executed statements", 17, statement.getAllValues().size());
+            Assert.assertTrue("Statement was not explained", statement.getAllValues().stream().allMatch(item -> item.startsWith("EXPLAIN ")));
+            Assert.assertTrue("Failed to explain adjacent edges statement", statement.getAllValues().contains("EXPLAIN MATCH (n:`L1`)-[r:`knows`]->(m) WHERE n.id = $id RETURN n, r, m"));
+            Assert.assertTrue("Failed to explain delete statement", statement.getAllValues().contains("EXPLAIN UNWIND $ids AS id MATCH (v:`L1`) WHERE v.id = id DETACH DELETE v"));
+            Assert.assertTrue("Failed to explain edge insert statement", statement.getAllValues().contains("EXPLAIN UNWIND range(0, size($batch) - 1) AS index WITH index, $batch[index] AS row MATCH (o:`L1`) WHERE o.id = row.oid MATCH (i:`L1`) WHERE i.id = row.iid CREATE (o)-[r:`knows`]->(i) SET r = row.ep RETURN index, r.id"));
+            Assert.assertTrue("Failed to explain edge update statement", statement.getAllValues().contains("EXPLAIN UNWIND $batch AS row MATCH (o:`L1`) WHERE o.id = row.oid MATCH (i:`L1`) WHERE i.id = row.iid MATCH (o)-[r:`knows`]->(i) WHERE r.id = row.id SET r += row.rp"));
+            Assert.assertTrue("Failed to explain edge delete statement", statement.getAllValues().contains("EXPLAIN UNWIND $ids AS id MATCH ()-[r]->() WHERE r.id = id DELETE r"));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenIdentityMapCapacityShouldEvictLeastRecentlyUsedVertex() {
+        // arrange
+        AtomicLong identifier = new AtomicLong();
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).then(invocation -> {
+            // vertex id in statement
+            identifier.set((Long)((Map<String, Object>)invocation.getArguments()[1]).get("id"));
+            return statementResult;
+        });
+        Mockito.doAnswer(invocation -> {
+            // single vertex in result
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record);
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Mockito.when(record.get(Mockito.eq(0))).thenAnswer(invocation -> {
+            // vertex projection
+            Map<String, Object> projection = new HashMap<>();
+            projection.put("id", identifier.get());
+            projection.put("labels", Collections.singletonList("l1"));
+            return Values.value(projection);
+        });
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // lazy properties
+            session.setLazyPropertiesEnabled(true);
+            // bounded identity map
+            session.setIdentityMapCapacity(2);
+            // transaction
+            session.beginTransaction();
+            // load vertices
+            session.vertices(new Object[]{1L}).next();
+            session.vertices(new Object[]{2L}).next();
+            session.vertices(new Object[]{1L}).next();
+            // act
+            session.vertices(new Object[]{3L}).next();
+            // assert
+            session.vertices(new Object[]{1L}).next();
+            Mockito.verify(neo4jTransaction, Mockito.times(3)).run(Mockito.any(String.class), Mockito.anyMap());
+            Vertex vertex = session.vertices(new Object[]{2L}).next();
+            Mockito.verify(neo4jTransaction, Mockito.times(4)).run(Mockito.any(String.class), Mockito.anyMap());
+            Assert.assertEquals("Invalid vertex id", 2L, vertex.id());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenLongIdentifiersAndIdentityMapCapacityShouldEvictLeastRecentlyUsedVertex() {
+        // arrange
+        AtomicLong identifier = new AtomicLong();
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).then(invocation -> {
+            // vertex id in statement
+            identifier.set((Long)((Map<String, Object>)invocation.getArguments()[1]).get("id"));
+            return statementResult;
+        });
+        Mockito.doAnswer(invocation -> {
+            // single vertex in result
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record);
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Mockito.when(record.get(Mockito.eq(0))).thenAnswer(invocation -> {
+            // vertex projection
+            Map<String, Object> projection = new HashMap<>();
+            projection.put("id", identifier.get());
+            projection.put("labels", Collections.singletonList("l1"));
+            return Values.value(projection);
+        });
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(provider.usesLongIdentifiers()).thenAnswer(invocation -> true);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // lazy properties
+            session.setLazyPropertiesEnabled(true);
+            // bounded identity map
+            session.setIdentityMapCapacity(2);
+            // transaction
+            session.beginTransaction();
+            // load vertices
+            session.vertices(new Object[]{1L}).next();
+            session.vertices(new Object[]{2L}).next();
+            session.vertices(new Object[]{1L}).next();
+            // act
+            session.vertices(new Object[]{3L}).next();
+            // assert
+            session.vertices(new Object[]{1L}).next();
+            Mockito.verify(neo4jTransaction, Mockito.times(3)).run(Mockito.any(String.class), Mockito.anyMap());
+            Vertex vertex = session.vertices(new Object[]{2L}).next();
+            Mockito.verify(neo4jTransaction, Mockito.times(4)).run(Mockito.any(String.class), Mockito.anyMap());
+            Assert.assertEquals("Invalid vertex id", 2L, vertex.id());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenIdentityMapCapacityShouldNotEvictVertexWithTransientEdge() {
+        // arrange
+        AtomicLong identifier = new AtomicLong();
+        AtomicLong generator = new AtomicLong(100L);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).then(invocation -> {
+            // vertex id in statement
+            identifier.set((Long)((Map<String, Object>)invocation.getArguments()[1]).get("id"));
+            return statementResult;
+        });
+        Mockito.doAnswer(invocation -> {
+            // single vertex in result
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record);
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Mockito.when(record.get(Mockito.eq(0))).thenAnswer(invocation -> {
+            // vertex projection
+            Map<String, Object> projection = new HashMap<>();
+            projection.put("id", identifier.get());
+            projection.put("labels", Collections.singletonList("l1"));
+            return Values.value(projection);
+        });
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.generate()).thenAnswer(invocation -> generator.incrementAndGet());
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // lazy properties
+            session.setLazyPropertiesEnabled(true);
+            // bounded identity map
+            session.setIdentityMapCapacity(1);
+            // transaction
+            session.beginTransaction();
+            // load vertex
+            Neo4JVertex vertex = (Neo4JVertex)session.vertices(new Object[]{1L}).next();
+            // transient edge adjacent to vertex
+            session.addEdge("knows", vertex, session.addVertex());
+            // act
+            session.vertices(new Object[]{2L}).next();
+            session.vertices(new Object[]{3L}).next();
+            // assert
+            Vertex result = session.vertices(new Object[]{1L}).next();
+            Mockito.verify(neo4jTransaction, Mockito.times(3)).run(Mockito.any(String.class), Mockito.anyMap());
+            Assert.assertSame("Vertex with transient edge was evicted", vertex, result);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenEvictedVertexShouldRegisterItAgainWhenModified() {
+        // arrange
+        AtomicLong identifier = new AtomicLong();
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).then(invocation -> {
+            // vertex id in statement
+            identifier.set((Long)((Map<String, Object>)invocation.getArguments()[1]).get("id"));
+            return statementResult;
+        });
+        Mockito.doAnswer(invocation -> {
+            // single vertex in result
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record);
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Mockito.when(record.get(Mockito.eq(0))).thenAnswer(invocation -> new NodeValue(new InternalNode(identifier.get(), Collections.singletonList("l1"), Collections.singletonMap("id", Values.value(identifier.get())))));
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.get(Mockito.any())).thenAnswer(invocation -> ((Node)invocation.getArguments()[0]).get("id").asLong());
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // bounded identity map
+            session.setIdentityMapCapacity(1);
+            // transaction
+            session.beginTransaction();
+            // load vertex
+            Vertex vertex = session.vertices(new Object[]{1L}).next();
+            // evict vertex
+            session.vertices(new Object[]{2L}).next();
+            // act
+            vertex.property(VertexProperty.Cardinality.single, "name", "John");
+            // assert
+            Vertex result = session.vertices(new Object[]{1L}).next();
+            Mockito.verify(neo4jTransaction, Mockito.times(2)).run(Mockito.any(String.class), Mockito.anyMap());
+            Assert.assertSame("Modified vertex was not registered in session", vertex, result);
+            Assert.assertEquals("Invalid property value", "John", result.value("name"));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenIdentityMapCapacityShouldNotEvictEdgeAdjacentToPinnedVertex() {
+        // arrange
+        AtomicLong identifier = new AtomicLong();
+        AtomicLong generator = new AtomicLong(100L);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).then(invocation -> {
+            // element id in statement
+            identifier.set((Long)((Map<String, Object>)invocation.getArguments()[1]).get("id"));
+            return statementResult;
+        });
+        Mockito.doAnswer(invocation -> {
+            // single element in result
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record);
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Mockito.when(record.get(Mockito.eq(0))).thenAnswer(invocation -> {
+            // vertex projection (edge 10: 1 -> 2, edge 20: 3 -> 4)
+            long id = identifier.get() == 10L ? 1L : identifier.get() == 20L ? 3L : identifier.get();
+            Map<String, Object> projection = new HashMap<>();
+            projection.put("id", id);
+            projection.put("labels", Collections.singletonList("l1"));
+            projection.put("nodeId", id);
+            return Values.value(projection);
+        });
+        Mockito.when(record.get(Mockito.eq(1))).thenAnswer(invocation -> {
+            // edge projection
+            Map<String, Object> projection = new HashMap<>();
+            projection.put("id", identifier.get());
+            projection.put("type", "knows");
+            projection.put("startNodeId", identifier.get() / 10 * 2 - 1);
+            return Values.value(projection);
+        });
+        Mockito.when(record.get(Mockito.eq(2))).thenAnswer(invocation -> {
+            // vertex projection
+            long id = identifier.get() / 10 * 2;
+            Map<String, Object> projection = new HashMap<>();
+            projection.put("id", id);
+            projection.put("labels", Collections.singletonList("l1"));
+            projection.put("nodeId", id);
+            return Values.value(projection);
+        });
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(provider.generate()).thenAnswer(invocation -> generator.incrementAndGet());
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // lazy properties
+            session.setLazyPropertiesEnabled(true);
+            // bounded identity map
+            session.setIdentityMapCapacity(1);
+            // transaction
+            session.beginTransaction();
+            // load vertex
+            Neo4JVertex vertex = (Neo4JVertex)session.vertices(new Object[]{1L}).next();
+            // transient edge adjacent to vertex (pins vertex)
+            session.addEdge("knows", vertex, session.addVertex());
+            // load edge adjacent to pinned vertex
+            Edge edge = session.edges(new Object[]{10L}).next();
+            // act
+            session.edges(new Object[]{20L}).next();
+            // assert
+            Edge result = session.edges(new Object[]{10L}).next();
+            Mockito.verify(neo4jTransaction, Mockito.times(3)).run(Mockito.any(String.class), Mockito.anyMap());
+            Assert.assertSame("Edge adjacent to pinned vertex was evicted", edge, result);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenCachedNodeShouldNotExecuteStatement() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(10);
+        cache.put(1L, node1, Collections.emptySet(), 0);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(graph.elementCache()).thenAnswer(invocation -> cache);
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.get(Mockito.eq(node1))).thenAnswer(invocation -> 1L);
+        Mockito.when(node1.labels()).thenAnswer(invocation -> Collections.singletonList("l1"));
+        Mockito.when(node1.keys()).thenAnswer(invocation -> Collections.emptyList());
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // transaction
+            session.beginTransaction();
+            // act
+            Vertex vertex = session.vertices(new Object[]{1L}).next();
+            // assert
+            Assert.assertEquals("Invalid vertex id", 1L, vertex.id());
+            Assert.assertEquals("Invalid vertex label", "l1", vertex.label());
+            Mockito.verify(neo4jTransaction, Mockito.never()).run(Mockito.any(String.class), Mockito.anyMap());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenVertexScanShouldNotStoreNodesInCache() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(10);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(graph.elementCache()).thenAnswer(invocation -> cache);
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).thenAnswer(invocation -> statementResult);
+        Mockito.doAnswer(invocation -> {
+            // single node in result
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record);
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(record.get(Mockito.eq(0))).thenAnswer(invocation -> new NodeValue(new InternalNode(1L, Collections.singletonList("l1"), Collections.singletonMap("id", Values.value(1L)))));
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.get(Mockito.any())).thenAnswer(invocation -> 1L);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // transaction
+            session.beginTransaction();
+            // act
+            long count = IteratorUtils.count(session.vertices(new Object[0]));
+            // assert
+            Assert.assertEquals("Invalid vertex count", 1, count);
+            Assert.assertEquals("Node returned by scan was stored in cache", 0, cache.size());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenUserStatementShouldNotStoreNodesInCache() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(10);
+        cache.put(2L, node1, Collections.emptySet(), 0);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(graph.elementCache()).thenAnswer(invocation -> cache);
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).thenAnswer(invocation -> statementResult);
+        Mockito.doAnswer(invocation -> {
+            // single node in result
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record);
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Mockito.when(record.get(Mockito.eq(0))).thenAnswer(invocation -> new NodeValue(new InternalNode(1L, Collections.singletonList("l1"), Collections.singletonMap("id", Values.value(1L)))));
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.get(Mockito.any())).thenAnswer(invocation -> 1L);
+        try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // transaction
+            session.beginTransaction();
+            // act
+            long count = session.vertices(session.executeUserStatement("MATCH (n) SET n.name = 'John' RETURN n", Collections.emptyMap())).count();
+            session.commit();
+            // assert
+            Assert.assertEquals("Invalid vertex count", 1, count);
+            Assert.assertNull("Node returned by user statement was stored in cache", cache.get(1L, Collections.emptySet()));
+            Assert.assertNull("Failed to invalidate cache", cache.get(2L, Collections.emptySet()));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenConcurrentCommitShouldNotStoreStaleNodeInCache() {
+        // arrange
+        Neo4JElementCache cache = new Neo4JElementCache(10);
+        AtomicReference<String> name = new AtomicReference<>("John");
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(graph.elementCache()).thenAnswer(invocation -> cache);
+        Mockito.when(partition.vertexMatchPatternLabels()).thenAnswer(invocation -> Collections.emptySet());
+        Mockito.when(partition.containsVertex(Mockito.anySet())).thenAnswer(invocation -> true);
+        Mockito.when(session.beginTransaction()).then(invocation -> neo4jTransaction);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.anyMap())).thenAnswer(invocation -> statementResult);
+        Mockito.when(neo4jTransaction.run(Mockito.any(String.class), Mockito.any(Value.class))).thenAnswer(invocation -> statementResult);
+        Mockito.doAnswer(invocation -> {
+            // single node in result
+            ((Consumer<Record>)invocation.getArguments()[0]).accept(record);
+            return null;
+        }).when(statementResult).forEachRemaining(Mockito.any());
+        Mockito.when(statementResult.consume()).then(invocation -> resultSummary);
+        Mockito.when(record.get(Mockito.eq(0))).thenAnswer(invocation -> {
+            // node with current name
+            Map<String, Value> properties = new HashMap<>();
+            properties.put("id", Values.value(1L));
+            properties.put("name", Values.value(name.get()));
+            return new NodeValue(new InternalNode(1L, Collections.singletonList("l1"), properties));
+        });
+        Mockito.when(provider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> invocation.getArguments()[0] + ".id");
+        Mockito.when(provider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(provider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(provider.get(Mockito.any())).thenAnswer(invocation -> 1L);
+        try (Neo4JSession reader = new Neo4JSession(graph, this.session, provider, provider, false); Neo4JSession writer = new Neo4JSession(graph, this.session, provider, provider, false)) {
+            // reader transaction starts before writer commits
+            reader.beginTransaction();
+            // writer loads vertex (stored in cache) and commits changes on it
+            writer.beginTransaction();
+            writer.vertices(new Object[]{1L}).next().property(VertexProperty.Cardinality.single, "name", "Jane");
+            writer.commit();
+            // act
+            Vertex vertex = reader.vertices(new Object[]{1L}).next();
+            // assert
+            Assert.assertEquals("Invalid vertex property", "John", vertex.value("name"));
+            Assert.assertNull("Stale node stored in cache", cache.get(1L, Collections.emptySet()));
+            // new transaction reads committed node and stores it in cache
+            name.set("Jane");
+            try (Neo4JSession session = new Neo4JSession(graph, this.session, provider, provider, false)) {
+                // transaction started after commit
+                session.beginTransaction();
+                // load vertex from server
+                session.vertices(new Object[]{1L}).next();
+            }
+            Node node = cache.get(1L, Collections.emptySet());
+            Assert.assertNotNull("Failed to store node in cache", node);
+            Assert.assertEquals("Invalid node property", "Jane", node.get("name").asString());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+public class Neo4JStatementCacheWhileRenderingTest {
+
+    @Test
+    public void givenSameKeyShouldRenderStatementOnce() {
+        // arrange
+        Neo4JStatementCache cache = new Neo4JStatementCache(10);
+        AtomicInteger counter = new AtomicInteger(0);
+        cache.statement(Arrays.asList("match", "n", new TreeSet<>(Arrays.asList("L1", "L2"))), () -> "MATCH (n:`L1`:`L2`)" + counter.incrementAndGet());
+        // act
+        String statement = cache.statement(Arrays.asList("match", "n", new TreeSet<>(Arrays.asList("L2", "L1"))), () -> "MATCH (n:`L1`:`L2`)" + counter.incrementAndGet());
+        // assert
+        Assert.assertEquals("Failed to reuse statement", "MATCH (n:`L1`:`L2`)1", statement);
+        Assert.assertEquals("Invalid number of rendered statements", 1, counter.get());
+        Assert.assertEquals("Invalid cache size", 1, cache.size());
+    }
+
+    @Test
+    public void givenCapacityShouldEvictLeastRecentlyUsedStatement() {
+        // arrange
+        Neo4JStatementCache cache = new Neo4JStatementCache(2);
+        cache.statement(Collections.singletonList("a"), () -> "A");
+        cache.statement(Collections.singletonList("b"), () -> "B");
+        cache.statement(Collections.singletonList("a"), () -> "A2");
+        // act
+        cache.statement(Collections.singletonList("c"), () -> "C");
+        // assert
+        Assert.assertEquals("Invalid cache size", 2, cache.size());
+        Assert.assertEquals("Failed to keep recently used statement", "A", cache.statement(Collections.singletonList("a"), () -> "A3"));
+        Assert.assertEquals("Failed to evict least recently used statement", "B2", cache.statement(Collections.singletonList("b"), () -> "B2"));
+    }
+
+    @Test
+    public void givenReferencedStatementsShouldEvictOldestStatementAfterBoundedSteps() {
+        // arrange
+        Neo4JStatementCache cache = new Neo4JStatementCache(100);
+        for (int index = 0; index < 100; index++) {
+            // key
+            int key = index;
+            // store and reference statement
+            cache.statement(Collections.singletonList(key), () -> "S" + key);
+            cache.statement(Collections.singletonList(key), () -> "X" + key);
+        }
+        // act
+        cache.statement(Collections.singletonList(100), () -> "S100");
+        // assert
+        Assert.assertEquals("Invalid cache size", 100, cache.size());
+        Assert.assertEquals("Failed to evict statement", "X7", cache.statement(Collections.singletonList(7), () -> "X7"));
+        Assert.assertEquals("Failed to keep statement", "S8", cache.statement(Collections.singletonList(8), () -> "X8"));
+    }
+
+    @Test
+    public void givenConcurrentAccessShouldNotExceedCapacity() throws Exception {
+        // arrange
+        Neo4JStatementCache cache = new Neo4JStatementCache(10);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            tasks.add(() -> {
+                // statements must match key
+                boolean valid = true;
+                for (int index = 0; index < 10000; index++) {
+                    // key
+                    int key = index % 50;
+                    valid &= ("S" + key).equals(cache.statement(Collections.singletonList(key), () -> "S" + key));
+                }
+                return valid;
+            });
+        }
+        try {
+            // act
+            List<Future<Boolean>> results = executor.invokeAll(tasks);
+            // assert
+            for (Future<Boolean> result : results)
+                Assert.assertTrue("Invalid statement", result.get());
+            Assert.assertTrue("Invalid cache size", cache.size() <= 10);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
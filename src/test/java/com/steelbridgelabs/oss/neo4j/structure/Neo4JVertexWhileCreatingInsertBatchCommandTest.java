@@ -0,0 +1,130 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Values;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * @author Rogelio J. Baucells
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class Neo4JVertexWhileCreatingInsertBatchCommandTest {
+
+    @Mock
+    private Neo4JGraph graph;
+
+    @Mock
+    private Transaction transaction;
+
+    @Mock
+    private Neo4JSession session;
+
+    @Mock
+    private Neo4JReadPartition partition;
+
+    @Mock
+    private Neo4JElementIdProvider vertexIdProvider;
+
+    @Mock
+    private Neo4JElementIdProvider edgeIdProvider;
+
+    @Mock
+    private Graph.Features.VertexFeatures vertexFeatures;
+
+    @Mock
+    private Graph.Features features;
+
+    @Mock
+    private Result statementResult;
+
+    @Mock
+    private Record record1;
+
+    @Mock
+    private Record record2;
+
+    @Test
+    public void givenNoIdGenerationProviderShouldCreateInsertBatchCommand() {
+        // arrange
+        Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
+        Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
+        Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.features()).thenAnswer(invocation -> features);
+        Mockito.when(vertexIdProvider.processIdentifier(Mockito.any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(vertexIdProvider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> "ID(n)");
+        Mockito.when(statementResult.hasNext()).thenReturn(true, true, false);
+        Mockito.when(statementResult.next()).thenReturn(record1, record2);
+        Mockito.when(record1.get(Mockito.eq(0))).thenAnswer(invocation -> Values.value(1));
+        Mockito.when(record1.get(Mockito.eq(1))).thenAnswer(invocation -> Values.value(20L));
+        Mockito.when(record2.get(Mockito.eq(0))).thenAnswer(invocation -> Values.value(0));
+        Mockito.when(record2.get(Mockito.eq(1))).thenAnswer(invocation -> Values.value(10L));
+        Neo4JVertex vertex1 = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, Collections.singletonList("L1"));
+        Neo4JVertex vertex2 = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, Collections.singletonList("L1"));
+        // act
+        Neo4JDatabaseCommand command = Neo4JVertex.insertCommand(Arrays.asList(vertex1, vertex2));
+        // assert
+        Assert.assertNotNull("Failed to create insert command", command);
+        Assert.assertEquals("Invalid insert command statement", "UNWIND range(0, size($batch) - 1) AS i CREATE (n:`L1`) SET n = $batch[i] RETURN i, ID(n)", command.getStatement());
+        Assert.assertEquals("Invalid insert command parameters", ParameterUtils.createParameters("batch", Arrays.asList(Collections.emptyMap(), Collections.emptyMap())), command.getParameters());
+        Assert.assertNotNull("Failed to create insert command callback", command.getCallback());
+        // invoke callback
+        command.getCallback().accept(statementResult);
+        // assert
+        Assert.assertEquals("Failed to assign generated identifier", 10L, vertex1.id());
+        Assert.assertEquals("Failed to assign generated identifier", 20L, vertex2.id());
+    }
+
+    @Test
+    public void givenIdGenerationProviderShouldCreateInsertBatchCommand() {
+        // arrange
+        Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
+        Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
+        Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.features()).thenAnswer(invocation -> features);
+        Mockito.when(vertexIdProvider.generate()).thenReturn(1L, 2L);
+        Mockito.when(vertexIdProvider.fieldName()).thenAnswer(invocation -> "id");
+        Neo4JVertex vertex1 = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, Collections.singletonList("L1"));
+        Neo4JVertex vertex2 = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, Collections.singletonList("L1"));
+        // act
+        Neo4JDatabaseCommand command = Neo4JVertex.insertCommand(Arrays.asList(vertex1, vertex2));
+        // assert
+        Assert.assertNotNull("Failed to create insert command", command);
+        Assert.assertEquals("Invalid insert command statement", "UNWIND $batch AS vp CREATE (n:`L1`) SET n = vp", command.getStatement());
+        Assert.assertEquals("Invalid insert command parameters", ParameterUtils.createParameters("batch", Arrays.asList(Collections.singletonMap("id", 1L), Collections.singletonMap("id", 2L))), command.getParameters());
+        Assert.assertEquals("Failed to assign match labels", "(v:`L1`)", vertex1.matchPattern("v"));
+    }
+}
@@ -116,8 +116,8 @@ public class Neo4JVertexWhileCreatingUpdateCommandTest {
         // assert
         Assert.assertNotNull("Failed to create update command", command);
         Assert.assertNotNull("Failed to create update command statement", command.getStatement());
-        Assert.assertEquals("Invalid update command statement", command.getStatement(), "MATCH (v:`l1`) WHERE n.id = $id SET v = $vp");
-        Assert.assertEquals("Invalid update command statement", command.getParameters(), ParameterUtils.createParameters("id", 1L, "vp", ParameterUtils.createParameters("key1", "value1", "key2", "value2", "id", 1L)));
+        Assert.assertEquals("Invalid update command statement", command.getStatement(), "MATCH (v:`l1`) WHERE n.id = $id SET v += $vp");
+        Assert.assertEquals("Invalid update command statement", command.getParameters(), ParameterUtils.createParameters("id", 1L, "vp", Collections.singletonMap("key2", "value2")));
         Assert.assertNotNull("Failed to create update command callback", command.getCallback());
         // invoke callback
         command.getCallback().accept(statementResult);
@@ -206,8 +206,8 @@ public class Neo4JVertexWhileCreatingUpdateCommandTest {
         // assert
         Assert.assertNotNull("Failed to create update command", command);
         Assert.assertNotNull("Failed to create update command statement", command.getStatement());
-        Assert.assertEquals("Invalid update command statement", command.getStatement(), "MATCH (v:`l1`) WHERE n.id = $id SET v = $vp");
-        Assert.assertEquals("Invalid update command statement", command.getParameters(), ParameterUtils.createParameters("id", 1L, "vp", ParameterUtils.createParameters("key1", null, "id", 1L)));
+        Assert.assertEquals("Invalid update command statement", command.getStatement(), "MATCH (v:`l1`) WHERE n.id = $id SET v += $vp");
+        Assert.assertEquals("Invalid update command statement", command.getParameters(), ParameterUtils.createParameters("id", 1L, "vp", Collections.singletonMap("key1", null)));
         Assert.assertNotNull("Failed to create update command callback", command.getCallback());
         // invoke callback
         command.getCallback().accept(statementResult);
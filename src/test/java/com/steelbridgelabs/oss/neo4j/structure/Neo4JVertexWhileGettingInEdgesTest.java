@@ -40,6 +40,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -107,7 +108,7 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 1L);
         Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)<-[r]-(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
@@ -123,7 +124,6 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(200L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -144,8 +144,8 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         Mockito.when(edge1.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge2.id()).thenAnswer(invocation -> 200L);
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL2");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)<-[r]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)<-[r]-(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addInEdge(edge2);
@@ -164,7 +164,6 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(200L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -185,8 +184,8 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         Mockito.when(edge1.label()).thenAnswer(invocation -> "EL");
         Mockito.when(edge2.id()).thenAnswer(invocation -> 200L);
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)<-[r:`EL`]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)<-[r:`EL`]-(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addInEdge(edge2);
@@ -205,7 +204,6 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(200L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -226,8 +224,8 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         Mockito.when(edge1.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge2.id()).thenAnswer(invocation -> 200L);
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL2");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)<-[r:`EL2`|`EL1`]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)<-[r:`EL1`|`EL2`]-(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addInEdge(edge2);
@@ -245,7 +243,6 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(200L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -266,8 +263,8 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         Mockito.when(edge1.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge2.id()).thenAnswer(invocation -> 200L);
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL2");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)<-[r:`EL1`]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)<-[r:`EL1`]-(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addInEdge(edge2);
@@ -285,7 +282,6 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(200L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -306,8 +302,8 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         Mockito.when(edge1.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge2.id()).thenAnswer(invocation -> 200L);
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL2");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)<-[r:`EL2`]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.empty());
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)<-[r:`EL2`]-(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.empty());
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addInEdge(edge2);
@@ -341,7 +337,7 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 1L);
         Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`P2`:`l1`)<-[r]-(m:`P1`:`P2`) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
@@ -374,7 +370,7 @@ public class Neo4JVertexWhileGettingInEdgesTest {
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 1L);
         Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`l1`)<-[r]-(m) WHERE n.id = $id AND (m:`P1` OR m:`P2`) RETURN n, r, m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
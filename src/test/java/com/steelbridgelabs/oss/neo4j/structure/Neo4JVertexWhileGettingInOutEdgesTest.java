@@ -40,6 +40,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -113,7 +114,7 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.matchPredicateOperand(Mockito.any())).thenAnswer(invocation -> "r.id");
         Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]-(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1, edge3));
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1, edge3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
@@ -131,7 +132,6 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Arrays.asList(200L, 400L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -156,8 +156,8 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         Mockito.when(edge3.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge4.id()).thenAnswer(invocation -> 400L);
         Mockito.when(edge4.label()).thenAnswer(invocation -> "EL2");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1, edge3));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]-(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1, edge3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -181,7 +181,6 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Arrays.asList(200L, 400L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -206,8 +205,8 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         Mockito.when(edge3.label()).thenAnswer(invocation -> "EL");
         Mockito.when(edge4.id()).thenAnswer(invocation -> 400L);
         Mockito.when(edge4.label()).thenAnswer(invocation -> "EL");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL`]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1, edge3));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL`]-(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1, edge3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -231,7 +230,6 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Arrays.asList(200L, 400L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -256,8 +254,8 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         Mockito.when(edge3.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge4.id()).thenAnswer(invocation -> 400L);
         Mockito.when(edge4.label()).thenAnswer(invocation -> "EL2");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL2`|`EL1`]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1, edge3));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`|`EL2`]-(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1, edge3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -277,7 +275,6 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Arrays.asList(200L, 400L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -302,8 +299,8 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         Mockito.when(edge3.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge4.id()).thenAnswer(invocation -> 400L);
         Mockito.when(edge4.label()).thenAnswer(invocation -> "EL2");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1, edge3));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`]-(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1, edge3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -324,7 +321,6 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Arrays.asList(200L, 400L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -349,8 +345,8 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         Mockito.when(edge3.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge4.id()).thenAnswer(invocation -> 400L);
         Mockito.when(edge4.label()).thenAnswer(invocation -> "EL2");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL2`]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.empty());
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL2`]-(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.empty());
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -387,7 +383,7 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.matchPredicateOperand(Mockito.any())).thenAnswer(invocation -> "r.id");
         Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`P2`:`l1`)-[r]-(m:`P1`:`P2`) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1, edge3));
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1, edge3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
@@ -422,7 +418,7 @@ public class Neo4JVertexWhileGettingInOutEdgesTest {
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.matchPredicateOperand(Mockito.any())).thenAnswer(invocation -> "r.id");
         Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`l1`)-[r]-(m) WHERE n.id = $id AND (m:`P1` OR m:`P2`) RETURN n, r, m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1, edge3));
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1, edge3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
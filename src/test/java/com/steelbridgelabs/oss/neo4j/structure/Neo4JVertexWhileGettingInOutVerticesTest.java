@@ -40,6 +40,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -118,8 +119,8 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 2L);
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.matchPredicateOperand(Mockito.any())).thenAnswer(invocation -> "r.id");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]-(m) WHERE n.id = $id RETURN m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]-(m) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
@@ -138,7 +139,6 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Arrays.asList(2000L, 4000L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -165,8 +165,8 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         Mockito.when(edge4.label()).thenAnswer(invocation -> "EL2");
         Mockito.when(edge4.outVertex()).thenAnswer(invocation -> vertex4);
         Mockito.when(edge4.id()).thenAnswer(invocation -> 4000L);
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]-(m) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -191,7 +191,6 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Arrays.asList(2000L, 4000L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -218,8 +217,8 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         Mockito.when(edge4.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge4.outVertex()).thenAnswer(invocation -> vertex4);
         Mockito.when(edge4.id()).thenAnswer(invocation -> 4000L);
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`]-(m) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -244,7 +243,6 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Arrays.asList(2000L, 4000L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -271,8 +269,8 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         Mockito.when(edge4.label()).thenAnswer(invocation -> "EL2");
         Mockito.when(edge4.outVertex()).thenAnswer(invocation -> vertex4);
         Mockito.when(edge4.id()).thenAnswer(invocation -> 4000L);
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL2`|`EL1`]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`|`EL2`]-(m) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -297,7 +295,6 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Arrays.asList(2000L, 4000L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -324,8 +321,8 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         Mockito.when(edge4.label()).thenAnswer(invocation -> "EL2");
         Mockito.when(edge4.outVertex()).thenAnswer(invocation -> vertex4);
         Mockito.when(edge4.id()).thenAnswer(invocation -> 4000L);
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`]-(m) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -346,7 +343,6 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Arrays.asList(2000L, 4000L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -373,8 +369,8 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         Mockito.when(edge4.label()).thenAnswer(invocation -> "EL2");
         Mockito.when(edge4.outVertex()).thenAnswer(invocation -> vertex4);
         Mockito.when(edge4.id()).thenAnswer(invocation -> 4000L);
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL2`]-(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.empty());
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL2`]-(m) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.empty());
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -410,8 +406,8 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 2L);
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.matchPredicateOperand(Mockito.any())).thenAnswer(invocation -> "r.id");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`P2`:`l1`)-[r]-(m:`P1`:`P2`) WHERE n.id = $id RETURN m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`P2`:`l1`)-[r]-(m:`P1`:`P2`) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
@@ -446,8 +442,8 @@ public class Neo4JVertexWhileGettingInOutVerticesTest {
         Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 2L);
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.matchPredicateOperand(Mockito.any())).thenAnswer(invocation -> "r.id");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`l1`)-[r]-(m) WHERE n.id = $id AND (m:`P1` OR m:`P2`) RETURN m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`l1`)-[r]-(m) WHERE n.id = $id AND (m:`P1` OR m:`P2`) RETURN m, r.id"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1, vertex3));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
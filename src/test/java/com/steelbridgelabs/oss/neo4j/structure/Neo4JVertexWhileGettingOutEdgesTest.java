@@ -26,6 +26,7 @@ import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -40,6 +41,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -107,7 +109,7 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 1L);
         Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]->(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
@@ -123,7 +125,6 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(200L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -144,8 +145,8 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         Mockito.when(edge1.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge2.id()).thenAnswer(invocation -> 200L);
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL2");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]->(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]->(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -159,12 +160,51 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         Assert.assertNotNull("Failed to get edge", edges.next());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenEdgesInMemoryShouldSkipThemWhileReadingDatabaseEdges() {
+        // arrange
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("id", 1L);
+        Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
+        Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
+        Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
+        Mockito.when(graph.tx()).thenAnswer(invocation -> transaction);
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> partition);
+        Mockito.when(graph.features()).thenAnswer(invocation -> features);
+        Mockito.when(node.get(Mockito.eq("id"))).thenAnswer(invocation -> Values.value(1L));
+        Mockito.when(node.labels()).thenAnswer(invocation -> Collections.singletonList("l1"));
+        Mockito.when(node.keys()).thenAnswer(invocation -> Collections.singleton("key1"));
+        Mockito.when(node.get(Mockito.eq("key1"))).thenAnswer(invocation -> Values.value("value1"));
+        Mockito.when(vertexIdProvider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> "n.id");
+        Mockito.when(vertexIdProvider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(vertexIdProvider.get(Mockito.any())).thenAnswer(invocation -> 1L);
+        Mockito.when(edgeIdProvider.matchPredicateOperand(Mockito.anyString())).thenAnswer(invocation -> "r.id");
+        Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
+        Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 1L);
+        Mockito.when(edge1.id()).thenAnswer(invocation -> 100L);
+        Mockito.when(edge1.label()).thenAnswer(invocation -> "EL1");
+        Mockito.when(edge2.id()).thenAnswer(invocation -> 200L);
+        Mockito.when(edge2.label()).thenAnswer(invocation -> "EL2");
+        Mockito.when(edge2.isIdentityHashed()).thenAnswer(invocation -> true);
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]->(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        ArgumentCaptor<Predicate> excludedEdges = ArgumentCaptor.forClass(Predicate.class);
+        Mockito.when(session.edges(Mockito.eq(statementResult), excludedEdges.capture())).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
+        Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
+        vertex.addOutEdge(edge2);
+        // act
+        vertex.edges(Direction.OUT);
+        // assert
+        Assert.assertTrue("Failed to skip edge in memory", excludedEdges.getValue().test(200L));
+        Assert.assertFalse("Invalid edge skipped", excludedEdges.getValue().test(100L));
+    }
+
     @Test
     public void givenLabelShouldGetDatabaseAndTransientVertices() {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(200L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -185,8 +225,8 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         Mockito.when(edge1.label()).thenAnswer(invocation -> "EL");
         Mockito.when(edge2.id()).thenAnswer(invocation -> 200L);
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL`]->(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL`]->(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -205,7 +245,6 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(200L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -226,8 +265,8 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         Mockito.when(edge1.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge2.id()).thenAnswer(invocation -> 200L);
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL2");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL2`|`EL1`]->(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`|`EL2`]->(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -245,7 +284,6 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(200L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -266,8 +304,8 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         Mockito.when(edge1.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge2.id()).thenAnswer(invocation -> 200L);
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL2");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`]->(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`]->(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -285,7 +323,6 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(200L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -306,8 +343,8 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         Mockito.when(edge1.label()).thenAnswer(invocation -> "EL1");
         Mockito.when(edge2.id()).thenAnswer(invocation -> 200L);
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL2");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL2`]->(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.empty());
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL2`]->(m) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.empty());
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -341,7 +378,7 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 1L);
         Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`P2`:`l1`)-[r]->(m:`P1`:`P2`) WHERE n.id = $id RETURN n, r, m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
@@ -374,7 +411,7 @@ public class Neo4JVertexWhileGettingOutEdgesTest {
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 1L);
         Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`l1`)-[r]->(m) WHERE n.id = $id AND (m:`P1` OR m:`P2`) RETURN n, r, m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.edges(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(edge1));
+        Mockito.when(session.edges(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(edge1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
@@ -40,6 +40,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -109,8 +110,8 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 2L);
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.matchPredicateOperand(Mockito.any())).thenAnswer(invocation -> "r.id");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]->(m) WHERE n.id = $id RETURN m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]->(m) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
@@ -126,7 +127,6 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(2000L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -149,8 +149,8 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         Mockito.when(vertex2.label()).thenAnswer(invocation -> "EL2");
         Mockito.when(edge2.inVertex()).thenAnswer(invocation -> vertex2);
         Mockito.when(edge2.id()).thenAnswer(invocation -> 2000L);
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]->(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r]->(m) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -169,7 +169,6 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(2000L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -191,8 +190,8 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL");
         Mockito.when(edge2.inVertex()).thenAnswer(invocation -> vertex2);
         Mockito.when(edge2.id()).thenAnswer(invocation -> 2000L);
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL`]->(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL`]->(m) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -211,7 +210,6 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(2000L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -233,8 +231,8 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL2");
         Mockito.when(edge2.inVertex()).thenAnswer(invocation -> vertex2);
         Mockito.when(edge2.id()).thenAnswer(invocation -> 2000L);
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL2`|`EL1`]->(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`|`EL2`]->(m) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -252,7 +250,6 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(2000L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -274,8 +271,8 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL2");
         Mockito.when(edge2.inVertex()).thenAnswer(invocation -> vertex2);
         Mockito.when(edge2.id()).thenAnswer(invocation -> 2000L);
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`]->(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL1`]->(m) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Mockito.when(vertexIdProvider.get(Mockito.any())).thenAnswer(invocation -> 1L);
         Mockito.when(vertexIdProvider.fieldName()).thenAnswer(invocation -> "id");
@@ -299,7 +296,6 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         // arrange
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("id", 1L);
-        parameters.put("ids", Collections.singletonList(2000L));
         Mockito.when(vertexFeatures.getCardinality(Mockito.anyString())).thenAnswer(invocation -> VertexProperty.Cardinality.single);
         Mockito.when(features.vertex()).thenAnswer(invocation -> vertexFeatures);
         Mockito.when(partition.validateLabel(Mockito.anyString())).thenAnswer(invocation -> true);
@@ -321,8 +317,8 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         Mockito.when(edge2.label()).thenAnswer(invocation -> "EL2");
         Mockito.when(edge2.inVertex()).thenAnswer(invocation -> vertex2);
         Mockito.when(edge2.id()).thenAnswer(invocation -> 2000L);
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL2`]->(m) WHERE n.id = $id AND NOT r.id IN $ids RETURN m"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.empty());
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`l1`)-[r:`EL2`]->(m) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(parameters))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.empty());
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         vertex.addOutEdge(edge2);
@@ -355,8 +351,8 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 2L);
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.matchPredicateOperand(Mockito.any())).thenAnswer(invocation -> "r.id");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`P2`:`l1`)-[r]->(m:`P1`:`P2`) WHERE n.id = $id RETURN m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`P2`:`l1`)-[r]->(m:`P1`:`P2`) WHERE n.id = $id RETURN m, r.id"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
@@ -388,8 +384,8 @@ public class Neo4JVertexWhileGettingOutVerticesTest {
         Mockito.when(edgeIdProvider.get(Mockito.any())).thenAnswer(invocation -> 2L);
         Mockito.when(edgeIdProvider.fieldName()).thenAnswer(invocation -> "id");
         Mockito.when(edgeIdProvider.matchPredicateOperand(Mockito.any())).thenAnswer(invocation -> "r.id");
-        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`l1`)-[r]->(m) WHERE n.id = $id AND (m:`P1` OR m:`P2`) RETURN m"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
-        Mockito.when(session.vertices(Mockito.eq(statementResult))).thenAnswer(invocation -> Stream.of(vertex1));
+        Mockito.when(session.executeStatement(Mockito.eq("MATCH (n:`P1`:`l1`)-[r]->(m) WHERE n.id = $id AND (m:`P1` OR m:`P2`) RETURN m, r.id"), Mockito.eq(Collections.singletonMap("id", 1L)))).thenAnswer(invocation -> statementResult);
+        Mockito.when(session.vertices(Mockito.eq(statementResult), Mockito.any(Predicate.class))).thenAnswer(invocation -> Stream.of(vertex1));
         Mockito.when(statementResult.consume()).thenAnswer(invocation -> resultSummary);
         Neo4JVertex vertex = new Neo4JVertex(graph, session, vertexIdProvider, edgeIdProvider, node);
         // act
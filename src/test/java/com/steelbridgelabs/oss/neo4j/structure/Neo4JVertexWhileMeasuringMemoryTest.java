@@ -0,0 +1,175 @@
+/*
+ *  Copyright 2016 SteelBridge Laboratories, LLC.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *  For more information: http://steelbridgelabs.com
+ */
+
+package com.steelbridgelabs.oss.neo4j.structure;
+
+import com.steelbridgelabs.oss.neo4j.structure.partitions.NoReadPartition;
+import com.steelbridgelabs.oss.neo4j.structure.providers.Neo4JNativeElementIdProvider;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.types.Node;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the heap used by hydrated vertices, asserting upper bounds to catch regressions on the vertex footprint.
+ * Nodes and edges are allocated before taking the baseline, only vertex and adjacency memory is measured. Bounds assume
+ * compressed object pointers (default on heaps smaller than 32GB). Measurements depend on the garbage collector, this
+ * benchmark is excluded from the unit tests and runs with the memory-benchmark profile (mvn test -Pmemory-benchmark).
+ *
+ * @author Rogelio J. Baucells
+ */
+public class Neo4JVertexWhileMeasuringMemoryTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(Neo4JVertexWhileMeasuringMemoryTest.class);
+
+    private static final int VertexCount = 20000;
+    private static final int EdgesPerVertex = 4;
+    private static final int HubEdgeCount = 100000;
+    private static final long MaxBytesPerVertex = 1024;
+    private static final long MaxBytesPerAdjacentEdge = 48;
+    private static final long MaxBytesPerHubEdge = 16;
+
+    private final Neo4JElementIdProvider<?> provider = new Neo4JNativeElementIdProvider();
+
+    private Neo4JGraph graph;
+    private Neo4JSession session;
+
+    @Before
+    public void setUp() {
+        // mocks do not record invocations (they would be part of the measurement)
+        graph = Mockito.mock(Neo4JGraph.class, Mockito.withSettings().stubOnly());
+        session = Mockito.mock(Neo4JSession.class, Mockito.withSettings().stubOnly());
+        Mockito.when(graph.getPartition()).thenAnswer(invocation -> new NoReadPartition());
+        Mockito.when(graph.vertexLabels()).thenAnswer(invocation -> Collections.emptySet());
+    }
+
+    @Test
+    public void givenHydratedVerticesShouldNotExceedMemoryBound() {
+        // arrange
+        List<Node> nodes = nodes(VertexCount);
+        List<Neo4JVertex> vertices = new ArrayList<>(VertexCount);
+        // warm up (class loading)
+        vertices(nodes.subList(0, 100), new ArrayList<>(100));
+        long baseline = usedMemory();
+        // act
+        vertices(nodes, vertices);
+        // assert
+        long bytes = report("Hydrated vertices", baseline, usedMemory(), VertexCount);
+        Assert.assertTrue("Hydrated vertex uses " + bytes + " bytes", bytes <= MaxBytesPerVertex);
+        Assert.assertEquals("Invalid vertex count", VertexCount, vertices.size());
+        Assert.assertEquals("Invalid node count", VertexCount, nodes.size());
+    }
+
+    @Test
+    public void givenHydratedVerticesWithAdjacencyShouldNotExceedMemoryBound() {
+        // arrange
+        List<Node> nodes = nodes(VertexCount);
+        List<Neo4JEdge> edges = edges(VertexCount * EdgesPerVertex);
+        List<Neo4JVertex> vertices = new ArrayList<>(VertexCount);
+        // warm up (class loading)
+        vertices(nodes.subList(0, 100), new ArrayList<>(100));
+        long baseline = usedMemory();
+        // act
+        vertices(nodes, vertices);
+        for (int index = 0; index < edges.size(); index++)
+            vertices.get(index / EdgesPerVertex).addOutEdge(edges.get(index));
+        // assert
+        long bytes = report("Hydrated vertices with " + EdgesPerVertex + " edges", baseline, usedMemory(), VertexCount);
+        Assert.assertTrue("Hydrated vertex with " + EdgesPerVertex + " edges uses " + bytes + " bytes", bytes <= MaxBytesPerVertex + EdgesPerVertex * MaxBytesPerAdjacentEdge);
+        Assert.assertEquals("Invalid vertex count", VertexCount, vertices.size());
+        Assert.assertEquals("Invalid node count", VertexCount, nodes.size());
+    }
+
+    @Test
+    public void givenHubVertexShouldNotExceedMemoryBoundPerEdge() {
+        // arrange
+        List<Neo4JEdge> edges = edges(HubEdgeCount);
+        Neo4JVertex hub = vertices(nodes(1), new ArrayList<>(1)).get(0);
+        long baseline = usedMemory();
+        // act
+        edges.forEach(hub::addOutEdge);
+        // assert
+        long bytes = report("Hub vertex edges", baseline, usedMemory(), HubEdgeCount);
+        Assert.assertTrue("Hub vertex uses " + bytes + " bytes per edge", bytes <= MaxBytesPerHubEdge);
+        Assert.assertNotNull("Invalid hub vertex", hub);
+        Assert.assertEquals("Invalid edge count", HubEdgeCount, edges.size());
+    }
+
+    private static List<Node> nodes(int count) {
+        // nodes with a label and two properties
+        List<Node> nodes = new ArrayList<>(count);
+        for (long id = 0; id < count; id++) {
+            // properties
+            Map<String, Value> properties = new HashMap<>();
+            properties.put("name", Values.value("name" + id));
+            properties.put("age", Values.value(id));
+            // create node
+            nodes.add(new InternalNode(id, Collections.singletonList("Person"), properties));
+        }
+        // return nodes
+        return nodes;
+    }
+
+    private List<Neo4JVertex> vertices(List<Node> nodes, List<Neo4JVertex> vertices) {
+        // create hydrated vertices
+        for (Node node : nodes)
+            vertices.add(new Neo4JVertex(graph, session, provider, provider, node));
+        // return vertices
+        return vertices;
+    }
+
+    private List<Neo4JEdge> edges(int count) {
+        // edge endpoints are not part of the measurement
+        Neo4JVertex vertex = vertices(nodes(1), new ArrayList<>(1)).get(0);
+        // create edges
+        List<Neo4JEdge> edges = new ArrayList<>(count);
+        for (long id = 0; id < count; id++)
+            edges.add(new Neo4JEdge(graph, session, provider, id, "knows", vertex, vertex));
+        // return edges
+        return edges;
+    }
+
+    private static long report(String name, long before, long after, int count) {
+        // bytes per element
+        long bytes = (after - before) / count;
+        // log information
+        logger.info("{}: {} bytes used before, {} bytes used after, {} bytes per element ({} elements)", name, before, after, bytes, count);
+        // return bytes per element
+        return bytes;
+    }
+
+    private static long usedMemory() {
+        // collect garbage (several passes, a single request could be ignored)
+        Runtime runtime = Runtime.getRuntime();
+        for (int pass = 0; pass < 5; pass++)
+            runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}